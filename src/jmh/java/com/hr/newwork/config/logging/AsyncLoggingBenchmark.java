@@ -0,0 +1,98 @@
+package com.hr.newwork.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side latency of an INFO log statement under load, with a console sink that costs ~20 microseconds per event
+ * (a slow or blocked stdout). {@code sync} writes on the calling thread as the non-prod profiles do;
+ * {@code async} goes through {@link MeteredAsyncAppender} as configured for the prod profile, which drops
+ * INFO events once the queue is under pressure instead of stalling the caller.
+ * Compare the p99 from {@code Mode.SampleTime}; the dropped count is printed at tear-down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class AsyncLoggingBenchmark {
+    @Param({"sync", "async"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private MeteredAsyncAppender asyncAppender;
+
+    @Setup
+    public void setup() {
+        context = new LoggerContext();
+        SlowSinkAppender sink = new SlowSinkAppender(TimeUnit.MICROSECONDS.toNanos(20));
+        sink.setContext(context);
+        sink.setName("CONSOLE");
+        sink.start();
+
+        logger = context.getLogger("com.hr.newwork.benchmark");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        if ("async".equals(mode)) {
+            asyncAppender = new MeteredAsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setName("ASYNC_CONSOLE");
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(sink);
+            asyncAppender.start();
+            logger.addAppender(asyncAppender);
+        } else {
+            logger.addAppender(sink);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (asyncAppender != null) {
+            System.out.println("dropped events: " + asyncAppender.getDroppedCount());
+        }
+        context.stop();
+    }
+
+    @Benchmark
+    public void logInfo() {
+        logger.info("Absence request {} approved by {}", "7f1c2a9e-0000-4000-8000-000000000001", "manager1@example.com");
+    }
+
+    /**
+     * Console stand-in: formats the message, then spins for a fixed time under a lock like a contended stream write.
+     */
+    static final class SlowSinkAppender extends AppenderBase<ILoggingEvent> {
+        private final long costNanos;
+        private long sink;
+
+        SlowSinkAppender(long costNanos) {
+            this.costNanos = costNanos;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            sink += event.getFormattedMessage().length();
+            long end = System.nanoTime() + costNanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
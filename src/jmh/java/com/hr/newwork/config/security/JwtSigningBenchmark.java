@@ -0,0 +1,92 @@
+package com.hr.newwork.config.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token sign and verify cost per algorithm, with the claims {@link JwtTokenProvider} issues.
+ * {@code HMAC} is the previous shared-secret scheme (HS512 with a 512-bit key, as jwt.secret configures);
+ * {@code ES256} and {@code EdDSA} sign with a private key and verify through a kid locator over parsed
+ * public keys, as {@link JwtKeyManager} does. {@code verifyUncached} re-parses the public key each time to
+ * show what caching parsed keys saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtSigningBenchmark {
+    @Param({"HMAC", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private Key signingKey;
+    private Key verificationKey;
+    private byte[] encodedVerificationKey;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtSigningAlgorithm alg = JwtSigningAlgorithm.valueOf(algorithm);
+        if (alg == JwtSigningAlgorithm.HMAC) {
+            signingKey = Keys.hmacShaKeyFor(new byte[64]);
+            verificationKey = signingKey;
+        } else {
+            KeyPair pair = JwtKeyManager.generateKeyPair(alg);
+            signingKey = pair.getPrivate();
+            verificationKey = pair.getPublic();
+            encodedVerificationKey = pair.getPublic().getEncoded();
+        }
+        Key key = verificationKey;
+        parser = Jwts.parser().keyLocator(header -> key).build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        var builder = Jwts.builder().subject("user21@example.com")
+                .id(UUID.randomUUID().toString())
+                .claim("roles", List.of("ROLE_EMPLOYEE"))
+                .claim("userId", "44444444-4444-4444-4444-444444444444")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3600000));
+        if (signingKey instanceof PrivateKey privateKey) {
+            builder.header().keyId("bench").and()
+                    .signWith(privateKey, "ES256".equals(algorithm) ? Jwts.SIG.ES256 : Jwts.SIG.EdDSA);
+        } else {
+            builder.signWith(signingKey);
+        }
+        return builder.compact();
+    }
+
+    @Benchmark
+    public Object verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object verifyUncached() throws Exception {
+        if (encodedVerificationKey == null) {
+            return verify();
+        }
+        String keyAlgorithm = "ES256".equals(algorithm) ? "EC" : "Ed25519";
+        Key key = java.security.KeyFactory.getInstance(keyAlgorithm)
+                .generatePublic(new java.security.spec.X509EncodedKeySpec(encodedVerificationKey));
+        return Jwts.parser().keyLocator(header -> key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hr.newwork.config.tracing;
+
+import com.hr.newwork.data.dto.SensitiveDataDto;
+import com.hr.newwork.data.dto.UserWithSensitiveDataDto;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of {@link TracingAspect} around a service method.
+ * {@code direct} calls the target without a proxy; {@code proxied} goes through the aspect with either a no-op
+ * observation registry or one that records every span into a {@link SpanRingBuffer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingAspectBenchmark {
+    @Param({"noop", "recording"})
+    public String registry;
+
+    private ProfileService target;
+    private ProfileService proxy;
+    private UserWithSensitiveDataDto dto;
+
+    @Setup
+    public void setup() {
+        ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+        if ("recording".equals(registry)) {
+            observationRegistry = ObservationRegistry.create();
+            observationRegistry.observationConfig().observationHandler(new SpanRecordingHandler(new SpanRingBuffer(8192)));
+        }
+
+        target = new ProfileService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TracingAspect(observationRegistry));
+        proxy = factory.getProxy();
+
+        dto = UserWithSensitiveDataDto.builder()
+            .id("44444444-4444-4444-4444-444444444444")
+            .email("user21@example.com")
+            .firstName("User21")
+            .lastName("User")
+            .jobTitle("Dev")
+            .department("General")
+            .managerId("22222222-2222-2222-2222-222222222222")
+            .isActive(true)
+            .hireDate(LocalDate.of(2020, 2, 1))
+            .roles(Set.of("EMPLOYEE"))
+            .managerName("Manager2 User")
+            .sensitiveData(new SensitiveDataDto("+10000000021", "21 User St", 35000.0))
+            .build();
+    }
+
+    @Benchmark
+    public UserWithSensitiveDataDto direct() {
+        return target.update("44444444-4444-4444-4444-444444444444", dto);
+    }
+
+    @Benchmark
+    public UserWithSensitiveDataDto proxied() {
+        return proxy.update("44444444-4444-4444-4444-444444444444", dto);
+    }
+
+    @Service
+    public static class ProfileService {
+        public UserWithSensitiveDataDto update(String id, UserWithSensitiveDataDto request) {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hr.newwork.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to total a year of absences per department and month over 1M requests of 1 to 15 days: the array sweep on one
+ * thread and on a fork/join pool, against walking each request day by day with {@link LocalDate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AbsenceReportBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"8", "200"})
+    public int departments;
+
+    private List<Map.Entry<String, AbsenceReportEngine.Ranges>> groups;
+    private String[] rowDepartments;
+    private LocalDate[] rowStarts;
+    private LocalDate[] rowEnds;
+    private AbsenceReportEngine.Window window;
+    private ForkJoinPool pool;
+    private ForkJoinPool singleThread;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, AbsenceReportEngine.Ranges> byDepartment = new HashMap<>();
+        rowDepartments = new String[rows];
+        rowStarts = new LocalDate[rows];
+        rowEnds = new LocalDate[rows];
+        for (int i = 0; i < rows; i++) {
+            String department = "Dept" + random.nextInt(departments);
+            // Some requests start before the window
+            LocalDate start = FROM.plusDays(random.nextInt(-14, 365));
+            LocalDate end = start.plusDays(random.nextInt(15));
+            rowDepartments[i] = department;
+            rowStarts[i] = start;
+            rowEnds[i] = end;
+            byDepartment.computeIfAbsent(department, d -> new AbsenceReportEngine.Ranges())
+                .add((int) start.toEpochDay(), (int) end.toEpochDay());
+        }
+        groups = new ArrayList<>(byDepartment.entrySet());
+        window = AbsenceReportEngine.Window.monthly(FROM, TO, AbsenceReportBenchmark::isWeekday);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        singleThread = new ForkJoinPool(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+        singleThread.shutdownNow();
+    }
+
+    @Benchmark
+    public List<AbsenceReportEngine.Totals> sweepParallel() {
+        return AbsenceReportEngine.sweepAll(groups, window, pool);
+    }
+
+    @Benchmark
+    public List<AbsenceReportEngine.Totals> sweepSequential() {
+        return AbsenceReportEngine.sweepAll(groups, window, singleThread);
+    }
+
+    @Benchmark
+    public Map<String, long[]> perDayIteration() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            long[] byMonth = totals.computeIfAbsent(rowDepartments[i], d -> new long[24]);
+            LocalDate day = rowStarts[i].isBefore(FROM) ? FROM : rowStarts[i];
+            LocalDate end = rowEnds[i].isAfter(TO) ? TO : rowEnds[i];
+            for (; !day.isAfter(end); day = day.plusDays(1)) {
+                int month = day.getMonthValue() - 1;
+                byMonth[month]++;
+                if (isWeekday(day)) byMonth[12 + month]++;
+            }
+        }
+        return totals;
+    }
+
+    private static boolean isWeekday(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY;
+    }
+}
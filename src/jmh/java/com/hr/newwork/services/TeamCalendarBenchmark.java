@@ -0,0 +1,92 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.TeamCalendarDto;
+import com.hr.newwork.repositories.AbsenceRequestRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to fold the calendar query rows into per-report day bitmaps, for a month and for a year, as the team grows.
+ * Every report has three absences of 1 to 10 days somewhere in the window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TeamCalendarBenchmark {
+    @Param({"50", "500"})
+    public int teamSize;
+
+    @Param({"31", "366"})
+    public int days;
+
+    private List<AbsenceRequestRepository.TeamCalendarRow> rows;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        from = LocalDate.of(2025, 1, 1);
+        to = from.plusDays(days - 1);
+        rows = new ArrayList<>(teamSize * 3);
+        for (int u = 0; u < teamSize; u++) {
+            UUID userId = new UUID(0, u);
+            for (int a = 0; a < 3; a++) {
+                LocalDate start = from.plusDays(random.nextInt(days));
+                rows.add(new Row(userId, "User" + u, "Team", start, start.plusDays(random.nextInt(10)),
+                    random.nextBoolean() ? "APPROVED" : "PENDING"));
+            }
+        }
+    }
+
+    @Benchmark
+    public TeamCalendarDto build() {
+        return TeamAvailabilityService.buildCalendar(rows, from, to);
+    }
+
+    private record Row(UUID userId, String firstName, String lastName, LocalDate startDate, LocalDate endDate,
+                       String status) implements AbsenceRequestRepository.TeamCalendarRow {
+        @Override
+        public UUID getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Override
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        @Override
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+    }
+}
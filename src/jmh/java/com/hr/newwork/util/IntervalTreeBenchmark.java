@@ -0,0 +1,66 @@
+package com.hr.newwork.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Who is out this week" over years of team absence history: {@link IntervalTree} against a linear scan.
+ * Absences are 1 to 15 days long, spread over ten years of epoch days; each query is a 7-day window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IntervalTreeBenchmark {
+    private static final int DAYS = 3650;
+
+    @Param({"1000", "100000"})
+    public int absences;
+
+    private List<int[]> ranges;
+    private IntervalTree<int[]> tree;
+    private int[] queryStarts;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ranges = new ArrayList<>(absences);
+        for (int i = 0; i < absences; i++) {
+            int start = random.nextInt(DAYS);
+            ranges.add(new int[]{start, start + random.nextInt(15)});
+        }
+        tree = IntervalTree.of(ranges, r -> r[0], r -> r[1]);
+        queryStarts = new int[1024];
+        for (int i = 0; i < queryStarts.length; i++) {
+            queryStarts[i] = random.nextInt(DAYS);
+        }
+    }
+
+    @Benchmark
+    public List<int[]> intervalTree() {
+        int from = queryStarts[next++ & 1023];
+        return tree.overlapping(from, from + 6);
+    }
+
+    @Benchmark
+    public List<int[]> linearScan() {
+        int from = queryStarts[next++ & 1023];
+        int to = from + 6;
+        List<int[]> out = new ArrayList<>();
+        for (int[] r : ranges) {
+            if (r[0] <= to && r[1] >= from) out.add(r);
+        }
+        return out;
+    }
+}
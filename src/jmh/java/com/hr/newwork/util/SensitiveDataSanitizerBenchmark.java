@@ -0,0 +1,85 @@
+package com.hr.newwork.util;
+
+import com.hr.newwork.data.dto.FeedbackDto;
+import com.hr.newwork.data.dto.SensitiveDataDto;
+import com.hr.newwork.data.dto.UserWithSensitiveDataDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SensitiveDataSanitizer} (per-class plans) against the previous reflective
+ * implementation kept in {@link LegacySensitiveDataSanitizer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SensitiveDataSanitizerBenchmark {
+    @Param({"10", "100"})
+    public int feedbackCount;
+
+    private UserWithSensitiveDataDto user;
+    private List<FeedbackDto> feedback;
+
+    @Setup
+    public void setup() {
+        user = UserWithSensitiveDataDto.builder()
+            .id("44444444-4444-4444-4444-444444444444")
+            .email("user21@example.com")
+            .firstName("User21")
+            .lastName("User")
+            .jobTitle("Dev")
+            .department("General")
+            .managerId("22222222-2222-2222-2222-222222222222")
+            .isActive(true)
+            .hireDate(LocalDate.of(2020, 2, 1))
+            .roles(Set.of("EMPLOYEE"))
+            .managerName("Manager2 User")
+            .sensitiveData(new SensitiveDataDto("+10000000021", "21 User St", 35000.0))
+            .build();
+        feedback = new ArrayList<>(feedbackCount);
+        for (int i = 0; i < feedbackCount; i++) {
+            feedback.add(FeedbackDto.builder()
+                .id("00000000-0000-0000-0000-" + String.format("%012d", i))
+                .authorId("44444444-4444-4444-4444-444444444444")
+                .authorName("User21 User")
+                .targetUserName("User22 User")
+                .content("Great collaboration on the release, thanks for the careful reviews " + i)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .visibility("PUBLIC")
+                .build());
+        }
+    }
+
+    @Benchmark
+    public Object userWithSensitiveDataPlanned() {
+        return SensitiveDataSanitizer.sanitizeObject(user);
+    }
+
+    @Benchmark
+    public Object userWithSensitiveDataLegacy() {
+        return LegacySensitiveDataSanitizer.sanitizeObject(user);
+    }
+
+    @Benchmark
+    public Object feedbackListPlanned() {
+        return SensitiveDataSanitizer.sanitizeObject(feedback);
+    }
+
+    @Benchmark
+    public Object feedbackListLegacy() {
+        return LegacySensitiveDataSanitizer.sanitizeObject(feedback);
+    }
+}
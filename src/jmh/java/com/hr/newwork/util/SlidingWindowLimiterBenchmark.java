@@ -0,0 +1,87 @@
+package com.hr.newwork.util;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SlidingWindowLimiter} as configured for logins (64 stripes, 100k keys), under 8 threads.
+ * {@code distinctKeys} cycles through one million distinct emails, as from a credential-stuffing run, and fails the
+ * iteration if the limiter ever tracks more keys than its bound; {@code sameKeys} hammers 1k hot keys, which are
+ * mostly rejected. Allowed and rejected attempts are reported as secondary results; add {@code -prof gc} for the
+ * allocation rate. The key bound itself is checked by {@code SlidingWindowLimiterTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class SlidingWindowLimiterBenchmark {
+    private static final int MAX_KEYS = 100_000;
+    private static final int DISTINCT_KEYS = 1_000_000;
+
+    @Param({"64"})
+    public int stripes;
+
+    private SlidingWindowLimiter limiter;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Per-thread outcome counts, summed by JMH into the {@code allowed} and {@code rejected} secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long allowed;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            allowed = 0;
+            rejected = 0;
+        }
+
+        long record(long wait) {
+            if (wait == 0) allowed++;
+            else rejected++;
+            return wait;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        limiter = new SlidingWindowLimiter(5, 900_000, 1000, 900_000, stripes, MAX_KEYS);
+        sequence.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        int size = limiter.size();
+        if (size > MAX_KEYS) {
+            throw new IllegalStateException("Limiter holds " + size + " keys, bound is " + MAX_KEYS);
+        }
+    }
+
+    @Benchmark
+    public long distinctKeys(Outcomes outcomes) {
+        long n = sequence.getAndIncrement() % DISTINCT_KEYS;
+        return outcomes.record(limiter.tryAcquire("user" + n + "@example.com", System.currentTimeMillis()));
+    }
+
+    @Benchmark
+    public long sameKeys(Outcomes outcomes) {
+        long n = sequence.getAndIncrement() % 1000;
+        return outcomes.record(limiter.tryAcquire("user" + n + "@example.com", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.hr.newwork.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput and primary key index size with random (v4) versus time-ordered (v7) UUID keys, on a local
+ * Postgres. Each iteration starts from an empty copy of the audit_log layout preloaded with {@code preload} rows,
+ * then appends batches of 1000 rows; the tear-down prints the table and index sizes. With v4 keys each insert
+ * touches a random leaf page of an index that no longer fits in cache as it grows, and page splits leave
+ * half-empty pages; with v7 keys inserts append to the rightmost leaf.
+ * <p>
+ * Connection: {@code -Dbench.db.url} (default {@code jdbc:postgresql://localhost:5432/hrapp}),
+ * {@code -Dbench.db.user} and {@code -Dbench.db.password} (default postgres/postgres).
+ * Compare {@link UuidV7#next()} alone with {@link #generateOnly}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidKeyInsertBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"v4", "v7"})
+    public String keys;
+
+    @Param({"1000000"})
+    public int preload;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+
+    @Setup(Level.Iteration)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/hrapp"),
+                System.getProperty("bench.db.user", "postgres"),
+                System.getProperty("bench.db.password", "postgres"));
+        connection.setAutoCommit(false);
+        table = "bench_uuid_" + keys;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, actor_id UUID, action VARCHAR(50), " +
+                    "target_table VARCHAR(100), timestamp TIMESTAMP, details TEXT)");
+        }
+        connection.commit();
+        insert = connection.prepareStatement("INSERT INTO " + table + " (id, actor_id, action, target_table, timestamp, details) " +
+                "VALUES (?, ?, 'UPDATE', 'absence_request', ?, 'status changed')");
+        for (int i = 0; i < preload; i += BATCH) {
+            insertBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE " + table);
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery("SELECT count(*), pg_relation_size('" + table + "'), " +
+                     "pg_relation_size('" + table + "_pkey') FROM " + table)) {
+            sizes.next();
+            System.out.printf("%s: %d rows, table %d MB, primary key index %d MB%n", keys, sizes.getLong(1),
+                    sizes.getLong(2) / (1024 * 1024), sizes.getLong(3) / (1024 * 1024));
+        }
+        insert.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatchOf1000() throws SQLException {
+        insertBatch();
+    }
+
+    @Benchmark
+    public UUID generateOnly() {
+        return "v7".equals(keys) ? UuidV7.next() : UUID.randomUUID();
+    }
+
+    private void insertBatch() throws SQLException {
+        UUID actor = UUID.fromString("44444444-4444-4444-4444-444444444444");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, "v7".equals(keys) ? UuidV7.next() : UUID.randomUUID());
+            insert.setObject(2, actor);
+            insert.setTimestamp(3, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
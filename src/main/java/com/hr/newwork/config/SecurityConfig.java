@@ -1,7 +1,10 @@
 package com.hr.newwork.config;
 
+import com.hr.newwork.config.security.BCryptWorkFactorCalibrator;
 import com.hr.newwork.config.security.CustomAuthenticationProvider;
 import com.hr.newwork.config.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,16 +14,35 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * Delegating encoder that writes {@code {bcrypt}} hashes at the configured (or calibrated) work factor.
+     * Legacy hashes without an id prefix are still checked as BCrypt, and {@code upgradeEncoding} reports them,
+     * or any BCrypt hash below the target cost, so that {@link CustomAuthenticationProvider} can rehash on login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hash.bcrypt-strength:0}") int strength,
+                                           @Value("${auth.password-hash.target-verify-ms:250}") long targetVerifyMs,
+                                           @Value("${auth.password-hash.min-strength:12}") int minStrength,
+                                           @Value("${auth.password-hash.max-strength:16}") int maxStrength) {
+        int cost = strength > 0
+            ? Math.max(strength, minStrength)
+            : BCryptWorkFactorCalibrator.calibrate(targetVerifyMs, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -36,6 +58,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches of already authorized requests (e.g. closing an SSE stream) carry no token
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public endpoints
                 .requestMatchers(
                     "/auth/login",
@@ -44,14 +68,20 @@ public class SecurityConfig {
                     "/api-docs",
                     "/api-docs/**",
                     "/swagger-resources/**",
-                    "/webjars/**"
+                    "/webjars/**",
+                    "/actuator/health",
+                    "/.well-known/jwks.json"
                 ).permitAll()
+                // Actuator endpoints (metrics, spans): ADMIN only
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Admin endpoints
                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                // Bulk user import: ADMIN only
+                .requestMatchers("/users/import").hasRole("ADMIN")
                 // User registration: MANAGER, ADMIN only
                 .requestMatchers("/users/register").hasAnyRole("MANAGER", "ADMIN")
                 // Absence approval/reject: MANAGER, ADMIN only
-                .requestMatchers("/absences/*/approve", "/absences/*/reject").hasAnyRole("MANAGER", "ADMIN")
+                .requestMatchers("/absences/*/approve", "/absences/*/reject", "/absences/decisions").hasAnyRole("MANAGER", "ADMIN")
                 // All other user, absence, feedback, and logout endpoints: EMPLOYEE, MANAGER, ADMIN
                 .requestMatchers(
                     "/users/**",
@@ -0,0 +1,54 @@
+package com.hr.newwork.config.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Registers queue depth, capacity and drop counters for every {@link MeteredAsyncAppender} configured in logback
+ * ({@code logging.async.queue.size}, {@code logging.async.queue.capacity}, {@code logging.async.events.dropped}).
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Set<MeteredAsyncAppender> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof MeteredAsyncAppender appender) {
+                    appenders.add(appender);
+                }
+            }
+        }
+        for (MeteredAsyncAppender appender : appenders) {
+            Gauge.builder("logging.async.queue.size", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                .description("Log events waiting in the async appender queue")
+                .tag("appender", appender.getName())
+                .register(registry);
+            Gauge.builder("logging.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                .description("Capacity of the async appender queue")
+                .tag("appender", appender.getName())
+                .register(registry);
+            FunctionCounter.builder("logging.async.events.dropped", appender, MeteredAsyncAppender::getDroppedCount)
+                .description("Log events dropped because the async appender queue was under pressure")
+                .tag("appender", appender.getName())
+                .register(registry);
+        }
+    }
+}
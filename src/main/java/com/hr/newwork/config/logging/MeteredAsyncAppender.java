@@ -0,0 +1,32 @@
+package com.hr.newwork.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts the events it drops. DEBUG/INFO (and TRACE) events are discarded once the
+ * queue's remaining capacity falls below the discarding threshold; with {@code neverBlock} any event is dropped
+ * when the queue is full. Exposed as metrics by {@link AsyncLoggingMetrics}.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted() && isDiscardable(event) && getRemainingCapacity() < getDiscardingThreshold()) {
+            dropped.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            // AsyncAppenderBase silently drops the event when offer() fails; count it here
+            dropped.increment();
+        }
+        super.append(event);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
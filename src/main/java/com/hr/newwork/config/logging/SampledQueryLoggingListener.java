@@ -0,0 +1,60 @@
+package com.hr.newwork.config.logging;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs executed SQL (statement text only, never bind parameters) to the {@code com.hr.newwork.sql} logger.
+ * Statements at or above the slow-query threshold are always logged at WARN; the rest are logged at DEBUG
+ * for a sampled fraction of executions.
+ */
+public class SampledQueryLoggingListener implements QueryExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger("com.hr.newwork.sql");
+
+    private final double sampleRate;
+    private final long slowQueryThresholdMs;
+
+    public SampledQueryLoggingListener(double sampleRate, long slowQueryThresholdMs) {
+        this.sampleRate = sampleRate;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (slowQueryThresholdMs > 0 && elapsed >= slowQueryThresholdMs) {
+            log.warn("Slow query ({} ms, batch={}, success={}): {}", elapsed, execInfo.getBatchSize(), execInfo.isSuccess(), queries(queryInfoList));
+            return;
+        }
+        if (!log.isDebugEnabled() || !sampled()) {
+            return;
+        }
+        log.debug("{} ms, batch={}, success={}: {}", elapsed, execInfo.getBatchSize(), execInfo.isSuccess(), queries(queryInfoList));
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static String queries(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) {
+            return queryInfoList.get(0).getQuery();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (!sb.isEmpty()) sb.append(" | ");
+            sb.append(queryInfo.getQuery());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.hr.newwork.config.logging;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application {@link DataSource} in a datasource-proxy that reports statements to
+ * {@link SampledQueryLoggingListener}. Enabled with {@code sql-logging.enabled=true}; replaces {@code spring.jpa.show-sql}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "sql-logging", name = "enabled", havingValue = "true")
+public class SqlLoggingDataSourcePostProcessor implements BeanPostProcessor {
+    private final double sampleRate;
+    private final long slowQueryThresholdMs;
+
+    public SqlLoggingDataSourcePostProcessor(@Value("${sql-logging.sample-rate:1.0}") double sampleRate,
+                                             @Value("${sql-logging.slow-query-threshold-ms:500}") long slowQueryThresholdMs) {
+        this.sampleRate = sampleRate;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new SampledQueryLoggingListener(sampleRate, slowQueryThresholdMs))
+                .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,122 @@
+package com.hr.newwork.config.security;
+
+import com.hr.newwork.data.entity.AccessTokenRevocation;
+import com.hr.newwork.repositories.AccessTokenRevocationRepository;
+import com.hr.newwork.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the access_token_revocation table, checked by {@link JwtAuthenticationFilter} on every request
+ * without touching the database. Token revocations go through a Bloom filter first, so the exact set is only probed
+ * for the rare token the filter flags; user-wide revocations are an exact map of user id to cutoff.
+ * <p>
+ * The view is refreshed incrementally every {@code jwt.revocation.refresh-interval-ms} (and right after local
+ * revocations commit), which bounds how long a token revoked on another instance stays usable.
+ */
+@Component
+public class AccessTokenRevocationCache {
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocationCache.class);
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final AccessTokenRevocationRepository revocationRepository;
+    private final long overlapMs;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>(); // jti -> token expiry (epoch ms)
+    private final Map<UUID, Long> revokedUsers = new ConcurrentHashMap<>();    // user id -> cutoff (epoch ms)
+    private final Map<UUID, Long> revokedUserExpiry = new ConcurrentHashMap<>(); // user id -> when the cutoff can be dropped
+    private volatile BloomFilter bloomFilter;
+    private long lastSeenRevokedAt;
+
+    public AccessTokenRevocationCache(AccessTokenRevocationRepository revocationRepository,
+                                      @Value("${jwt.revocation.bloom-expected-entries:100000}") int expectedEntries,
+                                      @Value("${jwt.revocation.refresh-overlap-ms:10000}") long overlapMs) {
+        this.revocationRepository = revocationRepository;
+        this.overlapMs = overlapMs;
+        this.bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * @param jti the token id, or null for tokens issued without one
+     * @param userId the token's user id, or null
+     * @param issuedAt the token's issue time, or null
+     * @return whether the token has been revoked, as of the last refresh
+     */
+    public boolean isRevoked(String jti, UUID userId, Date issuedAt) {
+        if (userId != null && !revokedUsers.isEmpty()) {
+            Long cutoff = revokedUsers.get(userId);
+            // iat has second precision, so a token issued in the same second as the cutoff counts as revoked
+            if (cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff)) {
+                return true;
+            }
+        }
+        return jti != null && bloomFilter.mightContain(jti) && revokedTokens.containsKey(jti);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Loads revocations recorded since the previous refresh. The window overlaps the previous one so rows
+     * committed late with an earlier revoked_at are not missed; re-applying a row is harmless.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:5000}",
+               initialDelayString = "${jwt.revocation.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        Date since = new Date(Math.max(0, lastSeenRevokedAt - overlapMs));
+        List<AccessTokenRevocation> rows = revocationRepository.findByRevokedAtAfterAndExpiresAtAfter(since, new Date(now));
+        for (AccessTokenRevocation row : rows) {
+            apply(row);
+            lastSeenRevokedAt = Math.max(lastSeenRevokedAt, row.getRevokedAt().getTime());
+        }
+        evictExpired(now);
+    }
+
+    private void apply(AccessTokenRevocation row) {
+        long expiresAt = row.getExpiresAt().getTime();
+        if (row.getJti() != null) {
+            if (revokedTokens.put(row.getJti(), expiresAt) == null) {
+                bloomFilter.add(row.getJti());
+            }
+        } else if (row.getUserId() != null) {
+            revokedUsers.merge(row.getUserId(), row.getRevokedAt().getTime(), Math::max);
+            revokedUserExpiry.merge(row.getUserId(), expiresAt, Math::max);
+        }
+    }
+
+    /**
+     * Drops entries whose tokens have all expired. Bloom filters cannot forget, so the filter is rebuilt from the
+     * exact set whenever entries were evicted or the set outgrew the filter's capacity.
+     */
+    private void evictExpired(long now) {
+        boolean evicted = revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedUserExpiry.entrySet().removeIf(entry -> {
+            if (entry.getValue() < now) {
+                revokedUsers.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+        int capacity = bloomFilter.getExpectedInsertions();
+        if (evicted || revokedTokens.size() > capacity) {
+            BloomFilter rebuilt = new BloomFilter(Math.max(capacity, revokedTokens.size() * 2), FALSE_POSITIVE_PROBABILITY);
+            revokedTokens.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+            log.debug("Rebuilt access token revocation filter with {} entries", revokedTokens.size());
+        }
+    }
+}
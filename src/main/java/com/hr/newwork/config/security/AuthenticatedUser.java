@@ -0,0 +1,105 @@
+package com.hr.newwork.config.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal of an authenticated user. For a JWT-authenticated request it carries the user id from the token's
+ * {@code userId} claim, so services can key queries by id without resolving the user by email first, and the
+ * token's id and expiry so the token itself can be revoked. {@link CustomAuthenticationProvider} returns one
+ * (without token details) after a password login, so tokens can be issued without loading the user again.
+ */
+public class AuthenticatedUser implements UserDetails {
+    private final UUID userId;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+    private final String tokenId;
+    private final Date tokenExpiresAt;
+
+    public AuthenticatedUser(UUID userId, String email, List<GrantedAuthority> authorities, String tokenId, Date tokenExpiresAt) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = List.copyOf(authorities);
+        this.tokenId = tokenId;
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+
+    /**
+     * Principal for a freshly authenticated user, before any token is issued.
+     * @param roleNames role names without the {@code ROLE_} prefix
+     */
+    public static AuthenticatedUser of(UUID userId, String email, Collection<String> roleNames) {
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        return new AuthenticatedUser(userId, email, authorities, null, null);
+    }
+
+    /**
+     * @return the user's id, or null for tokens issued without a {@code userId} claim
+     */
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return the access token's {@code jti}, or null for tokens issued without one
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Date getTokenExpiresAt() {
+        return tokenExpiresAt;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[userId=" + userId + ", email=" + email + ", authorities=" + authorities + "]";
+    }
+}
@@ -0,0 +1,54 @@
+package com.hr.newwork.config.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks a BCrypt work factor for the current hardware: the highest cost whose verify time stays within a target,
+ * never below a configured floor. Each cost step doubles the work, so the time measured at the floor is
+ * extrapolated and the chosen cost is then measured once and stepped down if it overshoots.
+ */
+public final class BCryptWorkFactorCalibrator {
+    private static final Logger log = LoggerFactory.getLogger(BCryptWorkFactorCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123!";
+    private static final int SAMPLES = 3;
+
+    private BCryptWorkFactorCalibrator() {
+    }
+
+    /**
+     * @param targetMillis target time for one hash verification
+     * @param minStrength  lowest acceptable cost (returned even if slower than the target)
+     * @param maxStrength  highest cost to consider
+     * @return the calibrated cost
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        long baseNanos = measure(minStrength);
+        long targetNanos = targetMillis * 1_000_000L;
+        int strength = minStrength;
+        while (strength < maxStrength && (baseNanos << (strength + 1 - minStrength)) <= targetNanos) {
+            strength++;
+        }
+        long chosenNanos = strength == minStrength ? baseNanos : measure(strength);
+        while (strength > minStrength && chosenNanos > targetNanos) {
+            strength--;
+            chosenNanos = chosenNanos / 2;
+        }
+        log.info("BCrypt work factor calibrated to {} (~{} ms per verification, target {} ms, floor {})",
+            strength, chosenNanos / 1_000_000L, targetMillis, minStrength);
+        return strength;
+    }
+
+    // Best of a few runs, after one warm-up, of hashing plus checking at the given cost
+    private static long measure(int strength) {
+        String hash = BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(strength));
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw(SAMPLE_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
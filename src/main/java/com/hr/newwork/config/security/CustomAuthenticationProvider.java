@@ -1,5 +1,6 @@
 package com.hr.newwork.config.security;
 
+import com.hr.newwork.data.entity.Role;
 import com.hr.newwork.data.entity.User;
 import com.hr.newwork.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,19 +11,16 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Component
 @RequiredArgsConstructor
 public class CustomAuthenticationProvider implements AuthenticationProvider {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
 
     private static final Logger log = LoggerFactory.getLogger(CustomAuthenticationProvider.class);
 
@@ -30,23 +28,41 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         String email = authentication.getName();
         String password = authentication.getCredentials().toString();
+        // Throttled attempts are rejected before the user lookup and the password hash
+        String clientIp = authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+        loginThrottle.checkAttempt(email, clientIp);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         if (!user.isActive()) {
             throw new BadCredentialsException("User is not active");
         }
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        // Hashing runs on the bounded verifier pool, not on the request thread
+        PasswordVerifier.Verification verification = passwordVerifier.verify(password, user.getPasswordHash());
+        if (!verification.matched()) {
             throw new BadCredentialsException("Invalid password");
         }
-        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
-            .collect(Collectors.toList());
-        log.info("Authenticating user: {} with authorities: {}", user.getEmail(), authorities);
-        return new UsernamePasswordAuthenticationToken(
-                user.getEmail(),
-                user.getPasswordHash(),
-                authorities
-        );
+        loginThrottle.onSuccess(email, clientIp);
+        if (verification.upgradedHash() != null) {
+            upgradePasswordHash(user, verification.upgradedHash());
+        }
+        // The principal carries id, email and roles, so issuing tokens needs no further user lookups
+        AuthenticatedUser principal = AuthenticatedUser.of(user.getId(), user.getEmail(),
+            user.getRoles().stream().map(Role::getName).toList());
+        log.info("Authenticating user: {} with authorities: {}", user.getEmail(), principal.getAuthorities());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    /**
+     * Stores the rehashed password. A failure here must not fail an otherwise valid login.
+     */
+    private void upgradePasswordHash(User user, String upgradedHash) {
+        try {
+            if (userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), upgradedHash) > 0) {
+                log.info("Upgraded password hash for user: {}", user.getEmail());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not upgrade password hash for user: {}: {}", user.getEmail(), e.getMessage());
+        }
     }
 
     @Override
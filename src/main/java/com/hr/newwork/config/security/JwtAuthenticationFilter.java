@@ -1,5 +1,7 @@
 package com.hr.newwork.config.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,23 +9,22 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccessTokenRevocationCache revocationCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,18 +34,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             token = header.substring(7);
         }
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsernameFromToken(token);
-            List<String> roles = jwtTokenProvider.getRolesFromToken(token);
-            List<GrantedAuthority> authorities = roles.stream()
-                    .map(role -> (GrantedAuthority) () -> role)
+        Claims claims = token != null ? parseClaims(token) : null;
+        UUID userId = claims != null ? JwtTokenProvider.getUserId(claims) : null;
+        // In-memory check only: revoked tokens are served from the revocation cache, never from the database
+        if (claims != null && !revocationCache.isRevoked(claims.getId(), userId, claims.getIssuedAt())) {
+            // The token is parsed and verified once; subject, roles and userId all come from the same claims
+            List<GrantedAuthority> authorities = JwtTokenProvider.getRoles(claims).stream()
+                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
                     .collect(Collectors.toList());
-            UserDetails userDetails = User.withUsername(username).password("").authorities(authorities).build();
+            AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), authorities,
+                    claims.getId(), claims.getExpiration());
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+                    principal, null, principal.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
     }
+
+    private Claims parseClaims(String token) {
+        try {
+            return jwtTokenProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,299 @@
+package com.hr.newwork.config.security;
+
+import com.hr.newwork.data.entity.JwtSigningKey;
+import com.hr.newwork.repositories.JwtSigningKeyRepository;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access token signing and verification keys.
+ * <p>
+ * With an asymmetric {@code jwt.signing.algorithm} each instance generates its own key pair, signs with the private
+ * key (never persisted) and publishes the public key in jwt_signing_key under a random {@code kid}. Verification
+ * resolves the token's {@code kid} against an in-memory map of parsed public keys covering every instance; an
+ * unknown kid triggers at most one reload per second. Keys are rotated every {@code jwt.signing.rotation-interval-ms};
+ * a retired key stays published until the last token signed with it has expired.
+ * <p>
+ * HMAC tokens signed with {@code jwt.secret} (no kid) are accepted while {@code jwt.signing.accept-legacy-hmac}
+ * is set, so tokens issued before switching algorithms keep working until they expire.
+ */
+@Component
+public class JwtKeyManager {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyManager.class);
+    private static final long MIN_RELOAD_INTERVAL_MS = 1000;
+    // Tolerance for clock skew between the instance that signed a token and the ones verifying it
+    private static final long RETIRE_MARGIN_MS = 60000;
+
+    private final JwtSigningKeyRepository keyRepository;
+    private final JwtSigningAlgorithm algorithm;
+    private final long rotationIntervalMs;
+    private final long tokenLifetimeMs;
+    private final SecretKey hmacKey; // null when HMAC tokens are neither issued nor accepted
+
+    private volatile SigningKey signingKey;
+    private volatile Map<String, VerificationKey> verificationKeys = Map.of();
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+    private final AtomicLong lastReload = new AtomicLong();
+    private final Locator<Key> locator = new LocatorAdapter<>() {
+        @Override
+        protected Key locate(JwsHeader header) {
+            return verificationKey(header);
+        }
+    };
+
+    public JwtKeyManager(JwtSigningKeyRepository keyRepository,
+                         @Value("${jwt.signing.algorithm:ES256}") JwtSigningAlgorithm algorithm,
+                         @Value("${jwt.signing.rotation-interval-ms:86400000}") long rotationIntervalMs,
+                         @Value("${jwt.signing.accept-legacy-hmac:false}") boolean acceptLegacyHmac,
+                         @Value("${jwt.expiration:3600000}") long tokenLifetimeMs,
+                         @Value("${jwt.secret:}") String jwtSecret) {
+        this.keyRepository = keyRepository;
+        this.algorithm = algorithm;
+        this.rotationIntervalMs = rotationIntervalMs;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        boolean hmac = !algorithm.isAsymmetric() || acceptLegacyHmac;
+        if (hmac && jwtSecret.isBlank()) {
+            throw new IllegalStateException("jwt.secret must be set when jwt.signing.algorithm is HMAC or "
+                + "jwt.signing.accept-legacy-hmac is true");
+        }
+        this.hmacKey = hmac ? Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret)) : null;
+        if (algorithm.isAsymmetric() && acceptLegacyHmac) {
+            log.warn("jwt.signing.accept-legacy-hmac is enabled: tokens signed with the shared jwt.secret are accepted "
+                + "alongside {} tokens. Disable it once tokens issued before the switch have expired", algorithm);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (algorithm.isAsymmetric()) {
+            reloadVerificationKeys();
+            rotate();
+        }
+    }
+
+    /**
+     * Signs the token with the current key, adding its {@code kid} header.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (!algorithm.isAsymmetric()) {
+            return builder.signWith(hmacKey);
+        }
+        SigningKey key = signingKey;
+        return builder.header().keyId(key.kid()).and()
+                .signWith(key.privateKey(), algorithm == JwtSigningAlgorithm.ES256 ? Jwts.SIG.ES256 : Jwts.SIG.EdDSA);
+    }
+
+    /**
+     * @return key locator for {@code Jwts.parser().keyLocator(...)}
+     */
+    public Locator<Key> verificationKeyLocator() {
+        return locator;
+    }
+
+    /**
+     * @return the published keys as a JWK Set ({@code {"keys": [...]}})
+     */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    /**
+     * Generates a new key pair, publishes its public key and starts signing with it. The previous key's expiry is
+     * moved to when the last token it signed expires.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-interval-ms:86400000}",
+               initialDelayString = "${jwt.signing.rotation-interval-ms:86400000}")
+    public synchronized void rotate() {
+        if (!algorithm.isAsymmetric()) return;
+        KeyPair pair = generateKeyPair(algorithm);
+        long now = System.currentTimeMillis();
+        JwtSigningKey row = new JwtSigningKey();
+        row.setKid(UUID.randomUUID().toString());
+        row.setAlgorithm(algorithm.name());
+        row.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        row.setCreatedAt(new Date(now));
+        // Upper bound in case this instance dies without retiring the key; a delayed rotation still fits
+        row.setExpiresAt(new Date(now + 2 * rotationIntervalMs + tokenLifetimeMs));
+        keyRepository.save(row);
+
+        SigningKey previous = signingKey;
+        Map<String, VerificationKey> keys = new HashMap<>(verificationKeys);
+        keys.put(row.getKid(), new VerificationKey(row.getKid(), algorithm, pair.getPublic(), row.getExpiresAt().getTime()));
+        if (previous != null) {
+            long retireAt = now + tokenLifetimeMs + RETIRE_MARGIN_MS;
+            keyRepository.retire(previous.kid(), new Date(retireAt));
+            keys.computeIfPresent(previous.kid(), (kid, key) -> key.withExpiresAt(Math.min(key.expiresAt(), retireAt)));
+        }
+        publish(keys);
+        signingKey = new SigningKey(row.getKid(), pair.getPrivate());
+        int purged = keyRepository.deleteExpired(new Date(now));
+        log.info("Rotated JWT signing key to {} ({}), purged {} expired keys", row.getKid(), algorithm, purged);
+    }
+
+    /**
+     * Picks up keys published or retired by other instances. Already parsed keys are reused by kid.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.key-refresh-interval-ms:60000}",
+               initialDelayString = "${jwt.signing.key-refresh-interval-ms:60000}")
+    public synchronized void reloadVerificationKeys() {
+        long now = System.currentTimeMillis();
+        lastReload.set(now);
+        Map<String, VerificationKey> current = verificationKeys;
+        Map<String, VerificationKey> keys = new HashMap<>();
+        for (JwtSigningKey row : keyRepository.findByExpiresAtAfter(new Date(now))) {
+            VerificationKey known = current.get(row.getKid());
+            long expiresAt = row.getExpiresAt().getTime();
+            if (known != null) {
+                keys.put(row.getKid(), known.withExpiresAt(expiresAt));
+                continue;
+            }
+            try {
+                JwtSigningAlgorithm keyAlgorithm = JwtSigningAlgorithm.valueOf(row.getAlgorithm());
+                keys.put(row.getKid(), new VerificationKey(row.getKid(), keyAlgorithm,
+                        parsePublicKey(keyAlgorithm, row.getPublicKey()), expiresAt));
+            } catch (IllegalArgumentException | GeneralSecurityException e) {
+                log.warn("Skipping unusable JWT signing key {}: {}", row.getKid(), e.getMessage());
+            }
+        }
+        // Our own key is published before it is used, but keep it even if the row was purged by mistake
+        SigningKey own = signingKey;
+        if (own != null && !keys.containsKey(own.kid()) && current.containsKey(own.kid())) {
+            keys.put(own.kid(), current.get(own.kid()));
+        }
+        publish(keys);
+    }
+
+    private Key verificationKey(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            String alg = header.getAlgorithm();
+            if (hmacKey != null && alg != null && alg.startsWith("HS")) {
+                return hmacKey;
+            }
+            throw new JwtException("Token has no key id");
+        }
+        VerificationKey key = verificationKeys.get(kid);
+        if (key == null && reloadAllowed()) {
+            reloadVerificationKeys();
+            key = verificationKeys.get(kid);
+        }
+        if (key == null || key.expiresAt() < System.currentTimeMillis()) {
+            throw new JwtException("Unknown or expired signing key " + kid);
+        }
+        return key.publicKey();
+    }
+
+    /**
+     * Rate-limits reloads triggered by unknown kids, so tokens with random kids cannot hammer the database.
+     */
+    private boolean reloadAllowed() {
+        long last = lastReload.get();
+        long now = System.currentTimeMillis();
+        return now - last >= MIN_RELOAD_INTERVAL_MS && lastReload.compareAndSet(last, now);
+    }
+
+    private void publish(Map<String, VerificationKey> keys) {
+        verificationKeys = Map.copyOf(keys);
+        List<Map<String, Object>> jwkList = new ArrayList<>(keys.size());
+        keys.values().stream()
+                .sorted(Comparator.comparing(VerificationKey::kid))
+                .forEach(key -> jwkList.add(toJwk(key)));
+        jwks = Map.of("keys", List.copyOf(jwkList));
+    }
+
+    static KeyPair generateKeyPair(JwtSigningAlgorithm algorithm) {
+        try {
+            if (algorithm == JwtSigningAlgorithm.ES256) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return generator.generateKeyPair();
+            }
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    private static PublicKey parsePublicKey(JwtSigningAlgorithm algorithm, String encoded) throws GeneralSecurityException {
+        if (!algorithm.isAsymmetric()) {
+            throw new IllegalArgumentException("Not an asymmetric algorithm: " + algorithm);
+        }
+        KeyFactory factory = KeyFactory.getInstance(algorithm == JwtSigningAlgorithm.ES256 ? "EC" : "Ed25519");
+        return factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+    }
+
+    private static Map<String, Object> toJwk(VerificationKey key) {
+        Base64.Encoder base64Url = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key.algorithm() == JwtSigningAlgorithm.ES256) {
+            ECPublicKey ec = (ECPublicKey) key.publicKey();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", base64Url.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        } else {
+            // The X.509 encoding of an Ed25519 key ends with the 32-byte raw public key
+            byte[] encoded = key.publicKey().getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", base64Url.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        jwk.put("kid", key.kid());
+        jwk.put("alg", key.algorithm().name());
+        jwk.put("use", "sig");
+        return jwk;
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) return bytes;
+        byte[] result = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, result, length - copy, copy);
+        return result;
+    }
+
+    private record SigningKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record VerificationKey(String kid, JwtSigningAlgorithm algorithm, PublicKey publicKey, long expiresAt) {
+        VerificationKey withExpiresAt(long expiresAt) {
+            return new VerificationKey(kid, algorithm, publicKey, expiresAt);
+        }
+    }
+}
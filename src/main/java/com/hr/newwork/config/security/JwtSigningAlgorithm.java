@@ -0,0 +1,17 @@
+package com.hr.newwork.config.security;
+
+/**
+ * Access token signing schemes selectable with {@code jwt.signing.algorithm}.
+ */
+public enum JwtSigningAlgorithm {
+    /** Shared {@code jwt.secret}; every verifier can also mint tokens. */
+    HMAC,
+    /** ECDSA over P-256 with SHA-256. */
+    ES256,
+    /** Ed25519. */
+    EdDSA;
+
+    public boolean isAsymmetric() {
+        return this != HMAC;
+    }
+}
@@ -1,10 +1,9 @@
 package com.hr.newwork.config.security;
 
-import com.hr.newwork.data.entity.User;
-import com.hr.newwork.repositories.UserRepository;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,63 +11,63 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class JwtTokenProvider {
-    @Value("${jwt.secret:defaultSecretKey1234567890}")
-    private String jwtSecret;
-
     @Value("${jwt.expiration:3600000}") // 1 hour default
     private long jwtExpirationMs;
 
-    private Key key;
+    // Immutable and thread-safe; verification keys are resolved per token by kid
+    private JwtParser parser;
 
-    private final UserRepository userRepository;
+    private final JwtKeyManager keyManager;
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
+        this.parser = Jwts.parser().keyLocator(keyManager.verificationKeyLocator()).build();
     }
 
     public String generateToken(Authentication authentication) {
         List<String> authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
-        // Use explicit algorithm for signing (HS256 as example, change as needed for your key type)
-        return Jwts.builder().subject(authentication.getName())
+        // Signed with the key manager's current key (kid header) or jwt.secret in HMAC mode
+        return keyManager.sign(Jwts.builder().subject(authentication.getName())
+                // jti lets a single token be revoked before it expires
+                .id(UUID.randomUUID().toString())
                 .claim("roles", authorities)
                 .claim("userId", getUserIdFromAuthentication(authentication))
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(key)
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs)))
                 .compact();
     }
 
     public String getUsernameFromToken(String token) {
-        return Jwts.parser().verifyWith((SecretKey) key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public List<String> getRolesFromToken(String token) {
-        Object rolesClaim = Jwts.parser()
-                .verifyWith((SecretKey) key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("roles");
+        return getRoles(parseClaims(token));
+    }
+
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    public static List<String> getRoles(Claims claims) {
+        Object rolesClaim = claims.get("roles");
         if (rolesClaim == null) return Collections.emptyList();
         if (rolesClaim instanceof String rolesString) {
             if (rolesString.isBlank()) return Collections.emptyList();
@@ -80,30 +79,35 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * @return the {@code userId} claim, or null if absent or malformed
+     */
+    public static UUID getUserId(Claims claims) {
+        Object userId = claims.get("userId");
+        if (userId == null) return null;
+        try {
+            return UUID.fromString(userId.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().verifyWith((SecretKey) key).build().parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    /**
+     * @return the user id of an {@link AuthenticatedUser} principal, or null for any other principal
+     */
     private String getUserIdFromAuthentication(Authentication authentication) {
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof org.springframework.security.core.userdetails.UserDetails userDetails) {
-            // Try to get userId from UserDetails if available
-            if (userDetails instanceof User userEntity) {
-                return userEntity.getId() != null ? userEntity.getId().toString() : null;
-            }
-            // If not, try to get from username (email) via repository
-            String email = userDetails.getUsername();
-            User user = userRepository.findByEmail(email).orElse(null);
-            return user != null && user.getId() != null ? user.getId().toString() : null;
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal && principal.getUserId() != null) {
+            return principal.getUserId().toString();
         }
-        // Fallback: try to get from name
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-        return user != null && user.getId() != null ? user.getId().toString() : null;
+        return null;
     }
 }
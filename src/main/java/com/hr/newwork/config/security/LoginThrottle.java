@@ -0,0 +1,105 @@
+package com.hr.newwork.config.security;
+
+import com.hr.newwork.exceptions.TooManyRequestsException;
+import com.hr.newwork.util.SlidingWindowLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Limits login attempts per account (email) and per client IP, checked before the user lookup and password hash
+ * so throttled attempts cost no BCrypt work. Every attempt counts up front, so a burst of concurrent guesses cannot
+ * slip past the limit before their failures are known; a successful login clears the account's counter and gives its
+ * attempt back to the IP, so only failures count per IP and users sharing an address (NAT, an office) do not use up
+ * each other's budget by logging in.
+ * Past the limit, the key backs off exponentially (see {@link SlidingWindowLimiter}) and logins fail with
+ * {@link TooManyRequestsException} (429 + Retry-After). Both limiters hold at most
+ * {@code auth.login-throttle.max-keys} keys each.
+ * <p>
+ * Metrics: {@code auth.login.throttled} (rejections), {@code auth.login.throttle.keys} (tracked keys) and
+ * {@code auth.login.throttle.evicted}, each tagged {@code limiter=email|ip}.
+ */
+@Component
+public class LoginThrottle {
+    private final SlidingWindowLimiter emailLimiter;
+    private final SlidingWindowLimiter ipLimiter;
+    private final Counter emailThrottled;
+    private final Counter ipThrottled;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.login-throttle.window-ms:900000}") long windowMs,
+                         @Value("${auth.login-throttle.max-attempts-per-email:5}") int maxAttemptsPerEmail,
+                         @Value("${auth.login-throttle.max-attempts-per-ip:100}") int maxAttemptsPerIp,
+                         @Value("${auth.login-throttle.base-backoff-ms:1000}") long baseBackoffMs,
+                         @Value("${auth.login-throttle.max-backoff-ms:900000}") long maxBackoffMs,
+                         @Value("${auth.login-throttle.stripes:64}") int stripes,
+                         @Value("${auth.login-throttle.max-keys:100000}") int maxKeys) {
+        this.emailLimiter = new SlidingWindowLimiter(maxAttemptsPerEmail, windowMs, baseBackoffMs, maxBackoffMs, stripes, maxKeys);
+        this.ipLimiter = new SlidingWindowLimiter(maxAttemptsPerIp, windowMs, baseBackoffMs, maxBackoffMs, stripes, maxKeys);
+        this.emailThrottled = register(meterRegistry, "email", emailLimiter);
+        this.ipThrottled = register(meterRegistry, "ip", ipLimiter);
+    }
+
+    /**
+     * Records a login attempt.
+     * @param email the submitted email
+     * @param clientIp the client address, or null if unknown
+     * @throws TooManyRequestsException if the account or the client IP is over its limit
+     */
+    public void checkAttempt(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            long wait = ipLimiter.tryAcquire(clientIp, now);
+            if (wait > 0) {
+                ipThrottled.increment();
+                throw rejection(wait);
+            }
+        }
+        long wait = emailLimiter.tryAcquire(normalize(email), now);
+        if (wait > 0) {
+            emailThrottled.increment();
+            throw rejection(wait);
+        }
+    }
+
+    /**
+     * Clears the account's attempts after a successful login and refunds the IP this one attempt. The IP keeps its
+     * failures, so one valid account cannot be used to reset the limit of a client guessing others.
+     * @param email the submitted email
+     * @param clientIp the client address, or null if unknown
+     */
+    public void onSuccess(String email, String clientIp) {
+        emailLimiter.reset(normalize(email));
+        if (clientIp != null) {
+            ipLimiter.release(clientIp, System.currentTimeMillis());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static TooManyRequestsException rejection(long waitMs) {
+        return new TooManyRequestsException("Too many login attempts", Math.max(1, (waitMs + 999) / 1000));
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String limiterName, SlidingWindowLimiter limiter) {
+        Gauge.builder("auth.login.throttle.keys", limiter, SlidingWindowLimiter::size)
+            .description("Keys tracked by the login throttle")
+            .tag("limiter", limiterName)
+            .register(meterRegistry);
+        FunctionCounter.builder("auth.login.throttle.evicted", limiter, SlidingWindowLimiter::evictions)
+            .description("Least recently used keys evicted to keep the login throttle bounded")
+            .tag("limiter", limiterName)
+            .register(meterRegistry);
+        return Counter.builder("auth.login.throttled")
+            .description("Login attempts rejected by the login throttle")
+            .tag("limiter", limiterName)
+            .register(meterRegistry);
+    }
+}
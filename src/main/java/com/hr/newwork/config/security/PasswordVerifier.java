@@ -0,0 +1,143 @@
+package com.hr.newwork.config.security;
+
+import com.hr.newwork.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hash verification on a dedicated pool sized to the CPU cores, so a burst of logins cannot
+ * starve the request threads serving other endpoints. The pool has a bounded queue; once it is full, logins
+ * fail fast with {@link ServiceUnavailableException} (503 + Retry-After) instead of piling up.
+ * When the stored hash uses an outdated algorithm or work factor, the matching password is rehashed in the same
+ * task so the caller can persist the upgrade.
+ * <p>
+ * Metrics: {@code executor.*} tagged {@code name=password-verify} (queue depth, active threads),
+ * {@code auth.password.verify} (hash time), {@code auth.password.verify.wait} (time queued),
+ * {@code auth.password.verify.rejected} and {@code auth.password.rehash}.
+ */
+@Component
+public class PasswordVerifier {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+    private final Timer verifyTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter rehashCounter;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.password-verify.threads:0}") int threads,
+                            @Value("${auth.password-verify.queue-capacity:64}") int queueCapacity,
+                            @Value("${auth.password-verify.timeout-ms:5000}") long timeoutMs,
+                            @Value("${auth.password-verify.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new VerifierThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-verify", Tags.empty()).bindTo(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.verify")
+            .description("Time spent verifying a password hash")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.verify.wait")
+            .description("Time a password verification waited for a free verifier thread")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.verify.rejected")
+            .description("Password verifications rejected because the verifier queue was full")
+            .register(meterRegistry);
+        this.rehashCounter = Counter.builder("auth.password.rehash")
+            .description("Password hashes upgraded to the current algorithm or work factor on login")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Verifies a raw password against its stored hash on the verifier pool, blocking the caller until done.
+     * @return whether the password matched, and the replacement hash if the stored one should be upgraded
+     * @throws ServiceUnavailableException if the verifier queue is full or the verification times out
+     */
+    public Verification verify(CharSequence rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<Verification> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                long start = System.nanoTime();
+                boolean matched;
+                try {
+                    matched = passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                if (matched && passwordEncoder.upgradeEncoding(encodedPassword)) {
+                    rehashCounter.increment();
+                    return new Verification(true, passwordEncoder.encode(rawPassword));
+                }
+                return new Verification(matched, null);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry later", retryAfterSeconds);
+        }
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new ServiceUnavailableException("Password verification timed out, please retry later", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password verification interrupted", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of a verification.
+     * @param matched whether the password matched the stored hash
+     * @param upgradedHash a fresh hash to store in place of the old one, or null if no upgrade is needed
+     */
+    public record Verification(boolean matched, String upgradedHash) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class VerifierThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-verify-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
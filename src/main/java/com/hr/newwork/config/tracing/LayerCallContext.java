@@ -0,0 +1,52 @@
+package com.hr.newwork.config.tracing;
+
+import io.micrometer.observation.Observation;
+
+/**
+ * Observation context for one controller, service or repository call.
+ * Carries the layer, the called method and the controller endpoint the call belongs to.
+ */
+public class LayerCallContext extends Observation.Context {
+    private final String layer;
+    private final String className;
+    private final String method;
+    private final String endpoint;
+    private long startNanos;
+    private long startEpochMillis;
+
+    public LayerCallContext(String layer, String className, String method, String endpoint) {
+        this.layer = layer;
+        this.className = className;
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    void markStarted() {
+        this.startNanos = System.nanoTime();
+        this.startEpochMillis = System.currentTimeMillis();
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hr.newwork.config.tracing;
+
+/**
+ * Completed call span as kept in the {@link SpanRingBuffer}.
+ *
+ * @param startEpochMillis wall-clock start of the call
+ * @param durationNanos    call duration
+ * @param layer            controller, service or repository
+ * @param endpoint         controller endpoint the call ran under ("-" outside a request)
+ * @param className        simple name of the called class
+ * @param method           called method
+ * @param error            exception class name if the call failed, otherwise null
+ */
+public record SpanRecord(long startEpochMillis,
+                         long durationNanos,
+                         String layer,
+                         String endpoint,
+                         String className,
+                         String method,
+                         String error) {
+}
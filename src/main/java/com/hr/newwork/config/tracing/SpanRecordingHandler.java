@@ -0,0 +1,39 @@
+package com.hr.newwork.config.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observation handler that times {@link LayerCallContext} observations and stores them in the {@link SpanRingBuffer}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpanRecordingHandler implements ObservationHandler<LayerCallContext> {
+    private final SpanRingBuffer spanRingBuffer;
+
+    @Override
+    public void onStart(LayerCallContext context) {
+        context.markStarted();
+    }
+
+    @Override
+    public void onStop(LayerCallContext context) {
+        long duration = System.nanoTime() - context.getStartNanos();
+        Throwable error = context.getError();
+        spanRingBuffer.add(new SpanRecord(
+                context.getStartEpochMillis(),
+                duration,
+                context.getLayer(),
+                context.getEndpoint(),
+                context.getClassName(),
+                context.getMethod(),
+                error != null ? error.getClass().getSimpleName() : null));
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof LayerCallContext;
+    }
+}
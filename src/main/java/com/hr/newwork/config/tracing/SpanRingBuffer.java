@@ -0,0 +1,58 @@
+package com.hr.newwork.config.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free buffer of the most recent spans. Writers never block or allocate beyond the record
+ * itself; once full, the oldest spans are overwritten.
+ */
+@Component
+public class SpanRingBuffer {
+    private final AtomicReferenceArray<SpanRecord> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SpanRingBuffer(@Value("${tracing.span-buffer.capacity:8192}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // round up to a power of two
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(SpanRecord span) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq & mask), span);
+    }
+
+    /**
+     * @return the buffered spans, oldest first
+     */
+    public List<SpanRecord> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<SpanRecord> spans = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            SpanRecord span = slots.get((int) (seq & mask));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return total number of spans recorded since startup, including overwritten ones
+     */
+    public long recorded() {
+        return sequence.get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.hr.newwork.config.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/spans}) over the {@link SpanRingBuffer}.
+ * The root operation reports p50/p99 latency per layer per endpoint; {@code /actuator/spans/{layer}}
+ * lists the most recent spans of one layer.
+ */
+@Component
+@Endpoint(id = "spans")
+@RequiredArgsConstructor
+public class SpansEndpoint {
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final SpanRingBuffer spanRingBuffer;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, List<SpanRecord>> groups = new HashMap<>();
+        for (SpanRecord span : spanRingBuffer.snapshot()) {
+            groups.computeIfAbsent(span.layer() + '\u0000' + span.endpoint(), k -> new ArrayList<>()).add(span);
+        }
+        List<LatencyStats> stats = new ArrayList<>(groups.size());
+        for (List<SpanRecord> spans : groups.values()) {
+            stats.add(LatencyStats.of(spans));
+        }
+        stats.sort(Comparator.comparing(LatencyStats::endpoint).thenComparing(LatencyStats::layer));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("capacity", spanRingBuffer.capacity());
+        body.put("recorded", spanRingBuffer.recorded());
+        body.put("stats", stats);
+        return body;
+    }
+
+    @ReadOperation
+    public List<SpanRecord> recent(@Selector String layer, @Nullable Integer limit) {
+        int max = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        List<SpanRecord> spans = spanRingBuffer.snapshot();
+        List<SpanRecord> result = new ArrayList<>(Math.min(max, spans.size()));
+        for (int i = spans.size() - 1; i >= 0 && result.size() < max; i--) {
+            SpanRecord span = spans.get(i);
+            if (span.layer().equalsIgnoreCase(layer)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Latency percentiles (milliseconds) for one layer of one endpoint, over the spans currently buffered.
+     */
+    public record LatencyStats(String layer, String endpoint, int count, int errors, double p50Ms, double p99Ms, double maxMs) {
+        static LatencyStats of(List<SpanRecord> spans) {
+            long[] durations = new long[spans.size()];
+            int errors = 0;
+            for (int i = 0; i < durations.length; i++) {
+                SpanRecord span = spans.get(i);
+                durations[i] = span.durationNanos();
+                if (span.error() != null) errors++;
+            }
+            Arrays.sort(durations);
+            SpanRecord first = spans.get(0);
+            return new LatencyStats(first.layer(), first.endpoint(), durations.length, errors,
+                toMillis(percentile(durations, 0.50)), toMillis(percentile(durations, 0.99)),
+                toMillis(durations[durations.length - 1]));
+        }
+
+        // Nearest-rank percentile over sorted values
+        private static long percentile(long[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hr.newwork.config.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps controller, service and repository calls in Micrometer observations named {@value #OBSERVATION_NAME}.
+ * Spans carry only the layer, class and method (no arguments or results), are timed by {@link SpanRecordingHandler}
+ * and also feed the {@code newwork.layer.call} timers. Exceptions are logged once, at the controller boundary.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+    public static final String OBSERVATION_NAME = "newwork.layer.call";
+    public static final String CONTROLLER = "controller";
+    public static final String SERVICE = "service";
+    public static final String REPOSITORY = "repository";
+    private static final String NO_ENDPOINT = "-";
+
+    private static final Logger log = LoggerFactory.getLogger(TracingAspect.class);
+
+    private final ObservationRegistry observationRegistry;
+
+    // Pointcut for all controller methods
+    @Pointcut("within(@org.springframework.web.bind.annotation.RestController *)")
+    public void restControllerMethods() {}
+
+    // Pointcut for all service methods
+    @Pointcut("within(@org.springframework.stereotype.Service *)")
+    public void serviceMethods() {}
+
+    // Pointcut for all repository methods (annotated with @Repository or in repositories package)
+    @Pointcut("within(@org.springframework.stereotype.Repository *) || within(com.hr.newwork.repositories..*)")
+    public void repositoryMethods() {}
+
+    @Around("restControllerMethods()")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return trace(CONTROLLER, joinPoint);
+        } catch (Throwable ex) {
+            Signature signature = joinPoint.getSignature();
+            log.error("EXCEPTION: {}.{}: {}", signature.getDeclaringTypeName(), signature.getName(), ex.getMessage(), ex);
+            throw ex;
+        }
+    }
+
+    @Around("serviceMethods()")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(SERVICE, joinPoint);
+    }
+
+    @Around("repositoryMethods()")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(REPOSITORY, joinPoint);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.isNoop()) {
+            return joinPoint.proceed();
+        }
+        Signature signature = joinPoint.getSignature();
+        String className = signature.getDeclaringType().getSimpleName();
+        String method = signature.getName();
+        LayerCallContext context = new LayerCallContext(layer, className, method, endpointFor(layer, className, method));
+        return Observation.createNotStarted(OBSERVATION_NAME, () -> context, observationRegistry)
+            .lowCardinalityKeyValue("layer", layer)
+            .lowCardinalityKeyValue("class", className)
+            .lowCardinalityKeyValue("method", method)
+            .observeChecked(joinPoint::proceed);
+    }
+
+    /**
+     * Controller calls name their own endpoint; nested calls inherit it from the enclosing span.
+     */
+    private String endpointFor(String layer, String className, String method) {
+        if (CONTROLLER.equals(layer)) {
+            return className + "." + method;
+        }
+        Observation current = observationRegistry.getCurrentObservation();
+        if (current != null && current.getContext() instanceof LayerCallContext parent) {
+            return parent.getEndpoint();
+        }
+        return NO_ENDPOINT;
+    }
+}
@@ -1,12 +1,27 @@
 package com.hr.newwork.controllers;
 
+import com.hr.newwork.data.dto.AbsenceDecisionOutcomeDto;
+import com.hr.newwork.data.dto.AbsenceDecisionRequestDto;
 import com.hr.newwork.data.dto.AbsenceRequestDto;
+import com.hr.newwork.data.dto.LeaveBalanceDto;
+import com.hr.newwork.data.dto.TeamAbsenceDto;
+import com.hr.newwork.data.dto.TeamCalendarDto;
+import com.hr.newwork.exceptions.TooManyRequestsException;
 import com.hr.newwork.services.AbsenceService;
+import com.hr.newwork.util.ETagUtil;
+import com.hr.newwork.util.enums.AbsenceStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,7 +31,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,9 +49,11 @@ public class AbsenceController {
     @Operation(summary = "Submit absence request", description = "Submit a new absence request.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Absence request submitted"),
+            @ApiResponse(responseCode = "400", description = "Missing or inverted dates"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden: You are not allowed to submit this request."),
             @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "409", description = "Overlaps an existing pending or approved absence"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
@@ -40,17 +61,88 @@ public class AbsenceController {
         return ResponseEntity.ok(absenceService.submitAbsence(absenceRequest));
     }
 
-    @Operation(summary = "List personal absences", description = "List absences for the specified user. Only the user or an admin can access this endpoint.")
+    @Operation(summary = "Team availability", description = "List pending and approved absences of the current manager's direct reports overlapping a date range (default: the next 7 days).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Absences returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only a manager can view team availability."),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/team/availability")
+    public ResponseEntity<List<AbsenceRequestDto>> teamAvailability(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(6);
+        return ResponseEntity.ok(absenceService.listTeamAbsencesBetween(start, end));
+    }
+
+    @Operation(summary = "Team calendar", description = "Day-by-day absences of the current manager's active direct reports (default: the current month). Each report gets an approved and a pending bitmap, Base64-encoded, where day i of the range is bit i % 8 of byte i / 8.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Calendar returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only a manager can view team availability."),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/team/calendar")
+    public ResponseEntity<TeamCalendarDto> teamCalendar(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now().withDayOfMonth(1);
+        LocalDate end = to != null ? to : start.plusMonths(1).minusDays(1);
+        return ResponseEntity.ok(absenceService.getTeamCalendar(start, end));
+    }
+
+    @Operation(summary = "Vacation balance", description = "Vacation days accrued, used and remaining for the current user in a year (default: the current year), in working days.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Balance returned"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/balance")
+    public ResponseEntity<LeaveBalanceDto> getLeaveBalance(@RequestParam(value = "year", required = false) Integer year) {
+        return ResponseEntity.ok(absenceService.getLeaveBalance(year != null ? year : LocalDate.now().getYear()));
+    }
+
+    @Operation(summary = "Absence change stream", description = "Server-Sent Events stream of status changes to the current user's absences and, for managers, their direct reports' absences. Events: ready, absence (JSON), resync (refetch over REST).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "429", description = "Too many open streams"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges() {
+        try {
+            return ResponseEntity.ok()
+                // Ask reverse proxies not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(absenceService.subscribeToChanges());
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+
+    @Operation(summary = "List personal absences", description = "List absences for the specified user, oldest first. Only the user or an admin can access this endpoint. Supports If-None-Match with the returned ETag.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Absence list returned"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden: You are not allowed to view these absences."),
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{userId}")
-    public ResponseEntity<List<AbsenceRequestDto>> listAbsences(@PathVariable String userId) {
-        return ResponseEntity.ok(absenceService.listAbsences(userId));
+    public ResponseEntity<List<AbsenceRequestDto>> listAbsences(@PathVariable String userId, WebRequest request) {
+        String eTag = absenceService.getAbsencesETag(userId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETagUtil.revalidate()).body(absenceService.listAbsences(userId));
     }
 
     @Operation(summary = "Approve absence", description = "Approve an absence request. Manager only.")
@@ -79,22 +171,40 @@ public class AbsenceController {
         return ResponseEntity.ok(absenceService.rejectAbsence(id));
     }
 
-    @Operation(summary = "List absences for manager's reports", description = "List all absences for users managed by the current authenticated manager filtered by status.")
+    @Operation(summary = "Decide absences in bulk", description = "Approve or reject up to 500 pending absence requests at once. Returns an outcome per id: APPROVED, REJECTED, NOT_FOUND, FORBIDDEN (not the requester's manager or an admin) or NOT_PENDING.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Outcomes returned"),
+            @ApiResponse(responseCode = "400", description = "Missing or too many ids, or unknown decision"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only a manager or admin can decide."),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PatchMapping("/decisions")
+    public ResponseEntity<List<AbsenceDecisionOutcomeDto>> decideAbsences(@RequestBody AbsenceDecisionRequestDto request) {
+        return ResponseEntity.ok(absenceService.decideAbsences(request));
+    }
+
+    @Operation(summary = "List absences for manager's reports", description = "Page through the absences of the users managed by the current authenticated manager, with each requester's name. Filter by status (default PENDING, ALL for any) and, for polling, by 'since': only requests created or updated after that time, always ordered by updatedAt then id. Otherwise sortable by createdAt, updatedAt, startDate, endDate, status or type; at most 200 per page.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Absences returned"),
-            @ApiResponse(responseCode = "400", description = "Invalid status value"),
+            @ApiResponse(responseCode = "400", description = "Invalid status value or sort property"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden: Only a manager can view absences for their reports."),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/reports")
-    public ResponseEntity<List<AbsenceRequestDto>> listAbsencesForReports(
-            @RequestParam(value = "status", required = false, defaultValue = "PENDING") String statusStr) {
-        try {
-            com.hr.newwork.util.enums.AbsenceStatus status = com.hr.newwork.util.enums.AbsenceStatus.valueOf(statusStr.toUpperCase());
-            return ResponseEntity.ok(absenceService.listAbsencesForCurrentManagerByStatus(status));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<Page<TeamAbsenceDto>> listAbsencesForReports(
+            @RequestParam(value = "status", required = false, defaultValue = "PENDING") String statusStr,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @PageableDefault(size = 50, sort = "createdAt") Pageable pageable) {
+        AbsenceStatus status = null;
+        if (!"ALL".equalsIgnoreCase(statusStr)) {
+            try {
+                status = AbsenceStatus.valueOf(statusStr.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
         }
+        return ResponseEntity.ok(absenceService.listAbsencesForCurrentManager(status, since, pageable));
     }
 }
@@ -1,12 +1,24 @@
 package com.hr.newwork.controllers;
 
+import com.hr.newwork.data.dto.AbsenceReportDto;
 import com.hr.newwork.data.dto.AuditLogDto;
+import com.hr.newwork.data.dto.AuditLogRollupDto;
+import com.hr.newwork.data.dto.LeaveReconciliationReportDto;
+import com.hr.newwork.data.dto.PublicHolidayDto;
+import com.hr.newwork.services.AbsenceExportService;
+import com.hr.newwork.services.AbsenceReportService;
 import com.hr.newwork.services.AdminService;
+import com.hr.newwork.services.AuditRollupService;
+import com.hr.newwork.services.LeaveBalanceService;
+import com.hr.newwork.services.LogoutService;
+import com.hr.newwork.services.PublicHolidayService;
+import com.hr.newwork.util.enums.RollupGranularity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,12 +27,22 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -36,6 +58,24 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private LogoutService logoutService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private PublicHolidayService publicHolidayService;
+
+    @Autowired
+    private AbsenceExportService absenceExportService;
+
+    @Autowired
+    private AbsenceReportService absenceReportService;
+
     /**
      * Lists audit logs with optional filtering, pagination, and sorting.
      *
@@ -133,4 +173,319 @@ public class AdminController {
         headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audits.csv");
         return ResponseEntity.ok().headers(headers).body(csvBytes);
     }
+
+    /**
+     * Returns pre-aggregated audit activity counts per bucket, actor, target table and action.
+     *
+     * @param granularity Bucket size: HOUR or DAY (default HOUR)
+     * @param actorId     Optional filter by actor (user) UUID
+     * @param targetTable Optional filter by target table/entity
+     * @param action      Optional filter by action type
+     * @param from        Optional lower bound on bucket start (inclusive, ISO 8601)
+     * @param to          Optional upper bound on bucket start (exclusive, ISO 8601)
+     * @return List of rollup buckets ordered by bucket start
+     */
+    @Operation(
+        summary = "Audit activity rollups",
+        description = "Returns hourly or daily audit event counts per actor, target table and action, served from pre-aggregated rollups. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "granularity", description = "Bucket size: HOUR or DAY", required = false),
+            @Parameter(name = "actorId", description = "Filter by actor (user) UUID", required = false),
+            @Parameter(name = "targetTable", description = "Filter by target table/entity", required = false),
+            @Parameter(name = "action", description = "Filter by action type", required = false),
+            @Parameter(name = "from", description = "Buckets starting at or after this timestamp (ISO 8601)", required = false),
+            @Parameter(name = "to", description = "Buckets starting before this timestamp (ISO 8601)", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Rollup buckets returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid granularity value"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // GET /admin/audit/rollups
+    @GetMapping("/audit/rollups")
+    public ResponseEntity<List<AuditLogRollupDto>> findAuditRollups(
+            @RequestParam(value = "granularity", required = false, defaultValue = "HOUR") String granularityStr,
+            @RequestParam(required = false) UUID actorId,
+            @RequestParam(required = false) String targetTable,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        RollupGranularity granularity;
+        try {
+            granularity = RollupGranularity.fromString(granularityStr);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(auditRollupService.findRollups(granularity, actorId, targetTable, action, from, to));
+    }
+
+    /**
+     * Rebuilds audit rollups from raw audit log history for whole days in the given range.
+     *
+     * @param from Optional start of the range (defaults to the oldest audit log entry)
+     * @param to   Optional end of the range (defaults to now)
+     * @return Number of rollup rows written
+     */
+    @Operation(
+        summary = "Backfill audit rollups",
+        description = "Recomputes hourly and daily audit rollups from existing audit logs. Idempotent; requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "from", description = "Start of the range (ISO 8601), widened to the start of its day; defaults to the oldest audit log", required = false),
+            @Parameter(name = "to", description = "End of the range (ISO 8601), widened to the end of its day; defaults to now", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Backfill completed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // POST /admin/audit/rollups/backfill
+    @PostMapping("/audit/rollups/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillAuditRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        int written = auditRollupService.backfillAsCurrentUser(from, to);
+        return ResponseEntity.ok(Map.of("rowsWritten", written));
+    }
+
+    /**
+     * Revokes all refresh tokens (sessions) of every user in a department and/or with a role.
+     *
+     * @param department Optional department filter
+     * @param role       Optional role filter (EMPLOYEE, MANAGER, ADMIN)
+     * @return Number of revoked refresh tokens
+     */
+    @Operation(
+        summary = "Revoke sessions",
+        description = "Revokes all refresh tokens of the users in a department and/or with a role, in a single statement. At least one filter is required. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "department", description = "Department name", required = false),
+            @Parameter(name = "role", description = "Role name (EMPLOYEE, MANAGER, ADMIN)", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sessions revoked"),
+        @ApiResponse(responseCode = "400", description = "Neither department nor role given"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // POST /admin/sessions/revoke
+    @PostMapping("/sessions/revoke")
+    public ResponseEntity<Map<String, Integer>> revokeSessions(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String role
+    ) {
+        int revoked = logoutService.revokeSessionsAsAdmin(department, role);
+        return ResponseEntity.ok(Map.of("revokedTokens", revoked));
+    }
+
+    /**
+     * Grants a year's vacation allowance to every active user not yet accrued for it.
+     *
+     * @param year Optional leave year (defaults to the current year)
+     * @return Number of users accrued
+     */
+    @Operation(
+        summary = "Accrue vacation",
+        description = "Grants the yearly vacation allowance to every active user who has not received it for the year, in a single statement. Idempotent; requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "year", description = "Leave year (defaults to the current year)", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Accrual completed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // POST /admin/leave/accrual
+    @PostMapping("/leave/accrual")
+    public ResponseEntity<Map<String, Integer>> accrueLeave(@RequestParam(required = false) Integer year) {
+        int accrued = leaveBalanceService.accrueAsCurrentUser(year != null ? year : LocalDate.now().getYear());
+        return ResponseEntity.ok(Map.of("usersAccrued", accrued));
+    }
+
+    /**
+     * Checks leave balances against the ledger, and the ledger against approved vacation requests.
+     *
+     * @return Reconciliation report
+     */
+    @Operation(
+        summary = "Reconcile leave balances",
+        description = "Rewrites balances that differ from the leave ledger and reports (user, year) pairs whose booked vacation differs from their approved requests. Requires ADMIN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reconciliation report returned"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // POST /admin/leave/reconcile
+    @PostMapping("/leave/reconcile")
+    public ResponseEntity<LeaveReconciliationReportDto> reconcileLeave() {
+        return ResponseEntity.ok(leaveBalanceService.reconcileAsCurrentUser());
+    }
+
+    /**
+     * Lists the public holidays of a year.
+     *
+     * @param year Optional year (defaults to the current year)
+     * @return Holidays in date order
+     */
+    @Operation(
+        summary = "List public holidays",
+        description = "Lists the public holidays excluded from working-day counts for a year, in date order. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "year", description = "Year (defaults to the current year)", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Holidays returned"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // GET /admin/holidays
+    @GetMapping("/holidays")
+    public ResponseEntity<List<PublicHolidayDto>> listHolidays(@RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(publicHolidayService.listHolidaysAsCurrentUser(year != null ? year : LocalDate.now().getYear()));
+    }
+
+    /**
+     * Adds or renames a public holiday.
+     *
+     * @param date    The holiday date (ISO 8601)
+     * @param holiday Body holding the holiday name
+     * @return The saved holiday
+     */
+    @Operation(
+        summary = "Set public holiday",
+        description = "Adds a public holiday on the date, or renames it. Working-day counts use it from the next approval on; vacation already booked is not rebooked. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "date", description = "Holiday date (ISO 8601)", required = true)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Holiday saved"),
+        @ApiResponse(responseCode = "400", description = "Invalid name"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // PUT /admin/holidays/{date}
+    @PutMapping("/holidays/{date}")
+    public ResponseEntity<PublicHolidayDto> putHoliday(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestBody PublicHolidayDto holiday) {
+        return ResponseEntity.ok(publicHolidayService.putHolidayAsCurrentUser(date, holiday.getName()));
+    }
+
+    /**
+     * Removes a public holiday.
+     *
+     * @param date The holiday date (ISO 8601)
+     */
+    @Operation(
+        summary = "Delete public holiday",
+        description = "Removes the public holiday on the date. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "date", description = "Holiday date (ISO 8601)", required = true)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Holiday removed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "404", description = "No holiday on that date"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // DELETE /admin/holidays/{date}
+    @DeleteMapping("/holidays/{date}")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        publicHolidayService.deleteHolidayAsCurrentUser(date);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Streams absence requests, with the requester's department and manager, as an Apache Arrow IPC stream.
+     *
+     * @param from         Optional first day of the range (inclusive)
+     * @param to           Optional last day of the range (inclusive)
+     * @param changedSince Optional watermark: only requests created or updated after it
+     * @param response     The response the stream is written to
+     */
+    @Operation(
+        summary = "Export absences (Arrow)",
+        description = "Streams absence requests joined with the requester's department and manager as an Apache Arrow IPC stream, one record batch at a time. "
+            + "Filter by overlap with a date range and/or by changes after a watermark; the X-Next-Changed-Since header holds the watermark for the next incremental export. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "from", description = "Requests overlapping days on or after this date (ISO 8601)", required = false),
+            @Parameter(name = "to", description = "Requests overlapping days on or before this date (ISO 8601)", required = false),
+            @Parameter(name = "changedSince", description = "Only requests created or updated after this local timestamp (ISO 8601)", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Arrow stream returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // GET /admin/absences/export
+    @GetMapping("/absences/export")
+    public void exportAbsences(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime changedSince,
+            HttpServletResponse response
+    ) throws IOException {
+        AbsenceExportService.ExportFilter filter = absenceExportService.prepareAsCurrentUser(from, to, changedSince);
+        response.setContentType(AbsenceExportService.MEDIA_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=absences.arrows");
+        response.setHeader("X-Next-Changed-Since", filter.nextChangedSince().toString());
+        absenceExportService.write(filter, response.getOutputStream());
+    }
+
+    /**
+     * Reports absence totals per department and month.
+     *
+     * @param from           First day of the report (inclusive, defaults to January 1st of the current year)
+     * @param to             Last day of the report (inclusive, defaults to December 31st of the year of {@code from})
+     * @param includePending Whether pending requests are counted besides approved ones (default false)
+     * @return Person-days, working days and peak absence per department and month
+     */
+    @Operation(
+        summary = "Absence report by department and month",
+        description = "Returns, for each department and month of the range, the person-days absent, the person-days absent on working days and the most people absent on one day. Requires ADMIN role.",
+        parameters = {
+            @Parameter(name = "from", description = "First day of the report (ISO 8601, defaults to January 1st of the current year)", required = false),
+            @Parameter(name = "to", description = "Last day of the report (ISO 8601, defaults to the end of the year of 'from')", required = false),
+            @Parameter(name = "includePending", description = "Count pending requests as well as approved ones", required = false)
+        }
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Report returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden (not admin)"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    // GET /admin/absences/report
+    @GetMapping("/absences/report")
+    public ResponseEntity<AbsenceReportDto> absenceReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false, defaultValue = "false") boolean includePending
+    ) {
+        LocalDate start = from != null ? from : LocalDate.now().withDayOfYear(1);
+        LocalDate end = to != null ? to : start.withMonth(12).withDayOfMonth(31);
+        return ResponseEntity.ok(absenceReportService.monthlyReportAsCurrentUser(start, end, includePending));
+    }
 }
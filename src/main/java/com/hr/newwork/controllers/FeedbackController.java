@@ -3,6 +3,7 @@ package com.hr.newwork.controllers;
 import com.hr.newwork.data.dto.FeedbackDto;
 import com.hr.newwork.data.dto.FeedbackRequestDto;
 import com.hr.newwork.services.FeedbackService;
+import com.hr.newwork.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -68,17 +70,22 @@ public class FeedbackController {
         return ResponseEntity.ok(updated);
     }
 
-    @Operation(summary = "Get feedback", description = "Fetch a single feedback by ID, including status and polished content.")
+    @Operation(summary = "Get feedback", description = "Fetch a single feedback by ID, including status and polished content. Supports If-None-Match with the returned ETag.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Feedback returned"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden"),
         @ApiResponse(responseCode = "404", description = "Feedback not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{feedbackId}")
-    public ResponseEntity<FeedbackDto> getFeedback(@PathVariable String feedbackId) {
+    public ResponseEntity<FeedbackDto> getFeedback(@PathVariable String feedbackId, WebRequest request) {
+        String eTag = feedbackService.getFeedbackETag(feedbackId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         FeedbackDto feedback = feedbackService.getFeedback(feedbackId);
-        return ResponseEntity.ok(feedback);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETagUtil.revalidate()).body(feedback);
     }
 }
@@ -0,0 +1,36 @@
+package com.hr.newwork.controllers;
+
+import com.hr.newwork.config.security.JwtKeyManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirements;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/.well-known")
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtKeyManager keyManager;
+
+    @Operation(summary = "JSON Web Key Set", description = "Public keys for verifying access tokens, matched by the kid header. Empty in HMAC mode.")
+    @SecurityRequirements
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Key set returned")
+    })
+    @GetMapping(value = "/jwks.json", produces = "application/json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Short max-age: a rotated key is used as soon as it is published, so clients should also refetch on an unknown kid
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(keyManager.jwks());
+    }
+}
@@ -1,15 +1,20 @@
 package com.hr.newwork.controllers;
 
 import com.hr.newwork.data.dto.UserDto;
+import com.hr.newwork.data.dto.UserImportJobDto;
 import com.hr.newwork.data.dto.UserRegistrationDto;
 import com.hr.newwork.data.dto.UserWithSensitiveDataDto;
+import com.hr.newwork.services.UserImportService;
 import com.hr.newwork.services.UserService;
+import com.hr.newwork.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,11 +22,17 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/users")
@@ -29,31 +40,41 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
 
-    @Operation(summary = "Get user profile", description = "Returns the user profile. Sensitive fields are included only for self, manager, or admin.")
+    @Operation(summary = "Get user profile", description = "Returns the user profile. Sensitive fields are included only for self, manager, or admin. Supports If-None-Match with the returned ETag.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User profile returned"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "403", description = "Forbidden"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<UserWithSensitiveDataDto> getUserProfile(@PathVariable String id) {
-        return ResponseEntity.ok(userService.getUserProfile(id));
+    public ResponseEntity<UserWithSensitiveDataDto> getUserProfile(@PathVariable String id, WebRequest request) {
+        String eTag = userService.getUserProfileETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETagUtil.revalidate()).body(userService.getUserProfile(id));
     }
 
-    @Operation(summary = "Update user profile", description = "Updates the user profile. Allowed for self, manager, or admin.")
+    @Operation(summary = "Update user profile", description = "Updates the user profile. Allowed for self, manager, or admin. Send the profile's ETag in If-Match to update only if it is unchanged.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User profile updated"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "403", description = "Forbidden"),
+        @ApiResponse(responseCode = "409", description = "Concurrently updated"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<UserWithSensitiveDataDto> updateUserProfile(@PathVariable String id, @RequestBody UserWithSensitiveDataDto updateRequest) {
-        return ResponseEntity.ok(userService.updateUserProfile(id, updateRequest));
+    public ResponseEntity<UserWithSensitiveDataDto> updateUserProfile(@PathVariable String id,
+                                                                      @RequestBody UserWithSensitiveDataDto updateRequest,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(userService.updateUserProfile(id, updateRequest, ifMatch));
     }
 
     @Operation(summary = "List users", description = "Lists users. Supports filtering by department, managerId, and role. Coworkers see only non-sensitive fields.")
@@ -71,15 +92,20 @@ public class UserController {
         return ResponseEntity.ok(userService.listUsers(department, managerId, managerEmail, role));
     }
 
-    @Operation(summary = "Get current user profile", description = "Returns the profile of the currently authenticated user, including sensitive fields.")
+    @Operation(summary = "Get current user profile", description = "Returns the profile of the currently authenticated user, including sensitive fields. Supports If-None-Match with the returned ETag.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Current user profile returned"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/me")
-    public ResponseEntity<UserWithSensitiveDataDto> getCurrentUserProfile() {
-        return ResponseEntity.ok(userService.getCurrentUserProfile());
+    public ResponseEntity<UserWithSensitiveDataDto> getCurrentUserProfile(WebRequest request) {
+        String eTag = userService.getCurrentUserProfileETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ETagUtil.revalidate()).body(userService.getCurrentUserProfile());
     }
 
     @Operation(summary = "Register user", description = "Registers a new user.")
@@ -95,6 +121,35 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(userDto);
     }
 
+    @Operation(summary = "Import users", description = "Queues a bulk creation of users from a CSV file (header row, roles separated by ';') or JSON lines. Admin only. Managers are referenced by managerEmail. The upload is stored and the job runs in the background; poll the returned Location for its status and per-row error report.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Import queued; the body and Location header identify the job"),
+        @ApiResponse(responseCode = "400", description = "Unreadable upload"),
+        @ApiResponse(responseCode = "403", description = "Forbidden"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/json")
+    public ResponseEntity<UserImportJobDto> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+            ? UserImportService.Format.CSV : UserImportService.Format.JSON_LINES;
+        UserImportJobDto job = userImportService.submitImport(body, format);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @Operation(summary = "Get import job", description = "Returns the status of a user import and, once completed, its report: counts and, for every rejected row, its line number and the reason. Admin only. Finished jobs are kept for user-import.job-retention-ms.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Job returned"),
+        @ApiResponse(responseCode = "403", description = "Forbidden"),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired job"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<UserImportJobDto> getImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(userImportService.getImportJob(jobId));
+    }
+
     @Operation(summary = "Get user profile by email", description = "Returns the user profile by email. Sensitive fields are included only for self, manager, or admin.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User profile returned"),
@@ -1,7 +1,9 @@
 package com.hr.newwork.controllers.advices;
 
 import com.hr.newwork.controllers.AdminController;
+import com.hr.newwork.exceptions.BadRequestException;
 import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.exceptions.NotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +32,34 @@ public class AdminExceptionAdvice {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
     }
 
+    /**
+     * Handles invalid admin requests.
+     *
+     * @param ex the BadRequestException thrown
+     * @return HTTP 400 response with error details
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(BadRequestException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "Bad request");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    /**
+     * Handles admin requests for resources that do not exist.
+     *
+     * @param ex the NotFoundException thrown
+     * @return HTTP 404 response with error details
+     */
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(NotFoundException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "Not found");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+    }
+
     /**
      * Handles all other exceptions thrown by admin endpoints.
      *
@@ -3,7 +3,10 @@ package com.hr.newwork.controllers.advices;
 import com.hr.newwork.controllers.AuthController;
 import com.hr.newwork.exceptions.LoginFailedException;
 import com.hr.newwork.exceptions.RefreshTokenFailedException;
+import com.hr.newwork.exceptions.ServiceUnavailableException;
+import com.hr.newwork.exceptions.TooManyRequestsException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -66,6 +69,28 @@ public class AuthExceptionAdvice {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        log.warn("ServiceUnavailableException handled: {}", ex.getMessage());
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "Service unavailable");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(body);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequests(TooManyRequestsException ex) {
+        log.warn("TooManyRequestsException handled: {}", ex.getMessage());
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "Too many requests");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         log.error("Unhandled exception in AuthController: ", ex);
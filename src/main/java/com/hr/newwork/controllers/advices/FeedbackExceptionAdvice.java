@@ -0,0 +1,25 @@
+package com.hr.newwork.controllers.advices;
+
+import com.hr.newwork.controllers.FeedbackController;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller advice for handling feedback-related exceptions.
+ */
+@RestControllerAdvice(assignableTypes = {FeedbackController.class})
+public class FeedbackExceptionAdvice {
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "Conflict");
+        body.put("message", "The feedback was changed concurrently, reload and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hr.newwork.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AbsenceDecisionOutcomeDto {
+    private UUID id;
+    /** One of {@link com.hr.newwork.util.enums.AbsenceDecisionOutcome}. */
+    private String outcome;
+}
@@ -0,0 +1,17 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for deciding several pending absence requests at once.
+ */
+@Getter
+@Setter
+public class AbsenceDecisionRequestDto {
+    private List<UUID> ids;
+    private String decision; // APPROVE or REJECT
+}
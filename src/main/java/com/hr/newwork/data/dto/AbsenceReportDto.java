@@ -0,0 +1,23 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Absence totals per department and month over [from, to]; the first and last month may be partial.
+ */
+@Builder
+@Getter
+@Setter
+public class AbsenceReportDto {
+    private LocalDate from;
+    private LocalDate to;
+    private boolean includesPending;
+    /** Number of absence requests counted. */
+    private long requests;
+    private List<AbsenceReportRowDto> rows;
+}
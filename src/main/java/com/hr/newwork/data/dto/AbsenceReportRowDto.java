@@ -0,0 +1,22 @@
+package com.hr.newwork.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.YearMonth;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AbsenceReportRowDto {
+    /** Department of the requesters, or null for users without one. */
+    private String department;
+    private YearMonth month;
+    /** Person-days absent in the month, inside the report range. */
+    private long absenceDays;
+    /** Person-days absent on working days (weekends and public holidays excluded). */
+    private long workingDays;
+    /** Most people of the department absent on a single day of the month. */
+    private int peakAbsent;
+}
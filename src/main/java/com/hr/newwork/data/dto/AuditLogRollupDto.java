@@ -0,0 +1,20 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Getter
+@Setter
+public class AuditLogRollupDto {
+    private String granularity;
+    private LocalDateTime bucketStart;
+    private UUID actorId;
+    private String targetTable;
+    private String action;
+    private long count;
+}
@@ -0,0 +1,21 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Vacation balance of a user for one year, in working days.
+ */
+@Builder
+@Getter
+@Setter
+public class LeaveBalanceDto {
+    private UUID userId;
+    private int year;
+    private int accrued;
+    private int used;
+    private int remaining;
+}
@@ -0,0 +1,19 @@
+package com.hr.newwork.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class LeaveMismatchDto {
+    private UUID userId;
+    private int year;
+    /** Net vacation days booked in the ledger. */
+    private int ledgerUsed;
+    /** Working days of the user's approved vacation requests, counted with the current holiday calendar. */
+    private int expectedUsed;
+}
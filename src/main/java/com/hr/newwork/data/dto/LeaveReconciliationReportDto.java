@@ -0,0 +1,23 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+public class LeaveReconciliationReportDto {
+    private LocalDateTime checkedAt;
+    /** First leave year checked against the absence requests. */
+    private int fromYear;
+    /** Balances rewritten because they no longer matched the ledger sums. */
+    private int balancesRepaired;
+    /** (user, year) pairs whose ledger usage differs from their approved vacation requests. */
+    private int mismatchCount;
+    /** The first mismatches, up to a fixed limit. */
+    private List<LeaveMismatchDto> mismatches;
+}
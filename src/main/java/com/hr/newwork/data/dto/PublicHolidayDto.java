@@ -0,0 +1,20 @@
+package com.hr.newwork.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for a public holiday. On writes the date is taken from the path and only the name is read.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicHolidayDto {
+    private LocalDate date;
+    private String name;
+}
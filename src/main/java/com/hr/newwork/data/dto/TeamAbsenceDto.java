@@ -0,0 +1,45 @@
+package com.hr.newwork.data.dto;
+
+import com.hr.newwork.util.enums.AbsenceStatus;
+import com.hr.newwork.util.enums.AbsenceType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Absence request of a direct report, with the requester's name, as listed in a manager's queue.
+ */
+@Getter
+@Setter
+public class TeamAbsenceDto {
+    private UUID id;
+    private UUID userId;
+    private String firstName;
+    private String lastName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String type;
+    private String status;
+    private String reason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /** Constructor expression target of {@code AbsenceRequestRepository.findTeamQueue}. */
+    public TeamAbsenceDto(UUID id, UUID userId, String firstName, String lastName, LocalDate startDate, LocalDate endDate,
+                          AbsenceType type, AbsenceStatus status, String reason, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.type = type != null ? type.name() : null;
+        this.status = status != null ? status.name() : null;
+        this.reason = reason;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Day-by-day absence calendar of a manager's direct reports.
+ * Bit {@code i} of a member's bitmap stands for day {@code from + i}; see {@link TeamCalendarMemberDto}.
+ */
+@Builder
+@Getter
+@Setter
+public class TeamCalendarDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private List<TeamCalendarMemberDto> members;
+}
@@ -0,0 +1,24 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One report's row in a {@link TeamCalendarDto}. The bitmaps are Base64-encoded bytes, least significant bit first:
+ * day {@code i} of the window is bit {@code i % 8} of byte {@code i / 8}.
+ */
+@Builder
+@Getter
+@Setter
+public class TeamCalendarMemberDto {
+    private UUID userId;
+    private String firstName;
+    private String lastName;
+    /** Days covered by an approved absence. */
+    private String approved;
+    /** Days covered by a pending absence. */
+    private String pending;
+}
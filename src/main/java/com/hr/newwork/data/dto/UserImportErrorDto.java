@@ -0,0 +1,15 @@
+package com.hr.newwork.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UserImportErrorDto {
+    /** 1-based line of the row in the uploaded file. */
+    private long line;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.hr.newwork.data.dto;
+
+import com.hr.newwork.util.enums.ImportJobStatus;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A background user import and, once it has finished, its report.
+ */
+@Builder
+@Getter
+@Setter
+public class UserImportJobDto {
+    private UUID id;
+    private ImportJobStatus status;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    /** Why the import failed as a whole (e.g. an invalid CSV header); rejected rows are in the report instead. */
+    private String error;
+    /** Present once the job is COMPLETED. */
+    private UserImportReportDto report;
+}
@@ -0,0 +1,19 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+public class UserImportReportDto {
+    private long totalRows;
+    /** Users created. A created user can still have an error entry if its manager could not be set. */
+    private long imported;
+    /** Rows rejected; no user was created for them. */
+    private long failed;
+    private List<UserImportErrorDto> errors;
+}
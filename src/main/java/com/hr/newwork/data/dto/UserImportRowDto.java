@@ -0,0 +1,26 @@
+package com.hr.newwork.data.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * One user in a bulk import. Like {@link UserRegistrationDto}, but the manager is referenced by email
+ * so it can be another user of the same import.
+ */
+@Data
+public class UserImportRowDto {
+    private String email;
+    private String password;
+    private String firstName;
+    private String lastName;
+    private Set<String> roles;
+    private String jobTitle;
+    private String department;
+    private LocalDate hireDate;
+    private String phone;
+    private String address;
+    private Double salary;
+    private String managerEmail;
+}
@@ -1,17 +1,17 @@
 package com.hr.newwork.data.entity;
 
+import com.hr.newwork.data.entity.id.UuidV7Id;
 import com.hr.newwork.util.enums.AbsenceStatus;
 import com.hr.newwork.util.enums.AbsenceType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -25,7 +25,7 @@ import java.util.UUID;
 @Table(name = "absence_requests")
 public class AbsenceRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7Id
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,4 +44,7 @@ public class AbsenceRequest {
     private String reason;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    @Version
+    private long version;
 }
@@ -0,0 +1,38 @@
+package com.hr.newwork.data.entity;
+
+import com.hr.newwork.data.entity.id.UuidV7Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Revocation of access tokens: either a single token by its {@code jti}, or every token of a user
+ * issued at or before {@code revokedAt} (when {@code jti} is null).
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "access_token_revocation")
+public class AccessTokenRevocation {
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Date revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.hr.newwork.data.entity;
+
+import com.hr.newwork.util.enums.RollupGranularity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated count of audit events per bucket, actor, target table and action.
+ * Rows are maintained by the audit_log insert trigger and the backfill job, never by JPA.
+ */
+@Getter
+@Setter
+@Entity
+@Immutable
+@Table(name = "audit_log_rollup")
+public class AuditLogRollup {
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private RollupGranularity granularity;
+
+    private LocalDateTime bucketStart;
+    private UUID actorId;
+    private String targetTable;
+    private String action;
+    private long eventCount;
+}
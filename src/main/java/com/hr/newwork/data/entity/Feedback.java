@@ -1,5 +1,6 @@
 package com.hr.newwork.data.entity;
 
+import com.hr.newwork.data.entity.id.UuidV7Id;
 import com.hr.newwork.util.enums.FeedbackPolishStatus;
 import com.hr.newwork.util.enums.Visibility;
 import jakarta.persistence.Column;
@@ -7,12 +8,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -25,7 +25,7 @@ import java.util.UUID;
 @Table(name = "feedback")
 public class Feedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7Id
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,4 +50,7 @@ public class Feedback {
     private FeedbackPolishStatus status;
 
     private String polishError;
+
+    @Version
+    private long version;
 }
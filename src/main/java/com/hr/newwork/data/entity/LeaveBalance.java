@@ -0,0 +1,38 @@
+package com.hr.newwork.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running totals of a user's {@link LeaveLedgerEntry} rows for one year, so a balance is read by primary key.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "leave_balance")
+@IdClass(LeaveBalanceKey.class)
+public class LeaveBalance {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    private int year;
+
+    /** Working days granted by accruals. */
+    private int accrued;
+
+    /** Working days taken by approved vacation, net of reversals. */
+    private int used;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
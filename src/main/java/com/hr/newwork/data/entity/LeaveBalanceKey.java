@@ -0,0 +1,19 @@
+package com.hr.newwork.data.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Primary key of {@link LeaveBalance}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveBalanceKey implements Serializable {
+    private UUID userId;
+    private int year;
+}
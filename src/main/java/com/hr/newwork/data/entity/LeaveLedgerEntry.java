@@ -0,0 +1,48 @@
+package com.hr.newwork.data.entity;
+
+import com.hr.newwork.data.entity.id.UuidV7Id;
+import com.hr.newwork.util.enums.LeaveEntryType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One movement of a user's leave for a year. Entries are only ever appended; {@link LeaveBalance} holds their sums.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "leave_ledger")
+public class LeaveLedgerEntry {
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private LeaveEntryType entryType;
+
+    /** Signed working days: positive for ACCRUAL and REVERSAL, negative for USAGE. */
+    @Column(nullable = false)
+    private int days;
+
+    @Column(name = "absence_request_id")
+    private UUID absenceRequestId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.hr.newwork.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A non-working day on top of weekends, used when counting the working days of an absence.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "public_holiday")
+public class PublicHoliday {
+    @Id
+    @Column(name = "holiday_date")
+    private LocalDate holidayDate;
+
+    private String name;
+}
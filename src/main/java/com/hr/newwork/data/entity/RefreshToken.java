@@ -1,5 +1,6 @@
 package com.hr.newwork.data.entity;
 
+import com.hr.newwork.data.entity.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.util.Date;
@@ -7,16 +8,21 @@ import java.util.UUID;
 
 /**
  * Entity representing a refresh token for JWT authentication.
+ * Only the SHA-256 digest of the token is stored. Tokens issued by rotation share the family of the login
+ * they descend from, so reuse of a rotated token can revoke the whole family.
  */
 @Entity
 @Data
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7Id
     private UUID id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -27,5 +33,10 @@ public class RefreshToken {
 
     @Column(nullable = false)
     private boolean valid = true;
-}
 
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt = new Date();
+
+    @Column(name = "revoked_at")
+    private Date revokedAt;
+}
@@ -1,13 +1,12 @@
 package com.hr.newwork.data.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hr.newwork.data.entity.id.UuidV7Id;
 import com.hr.newwork.util.SensitiveDataConverter;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
@@ -15,6 +14,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -29,7 +29,7 @@ import java.util.UUID;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7Id
     private UUID id;
 
     @Column(unique = true, nullable = false)
@@ -50,6 +50,9 @@ public class User {
     private boolean isActive;
     private LocalDate hireDate;
 
+    @Version
+    private long version;
+
     @Column(name = "sensitive_data")
     @Convert(converter = SensitiveDataConverter.class)
     private SensitiveData sensitiveData;
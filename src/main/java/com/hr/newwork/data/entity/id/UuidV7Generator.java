@@ -0,0 +1,24 @@
+package com.hr.newwork.data.entity.id;
+
+import com.hr.newwork.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate identifier generator behind {@link UuidV7Id}.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+    public UuidV7Generator() {
+    }
+
+    public UuidV7Generator(UuidV7Id config, Member member, CustomIdGeneratorCreationContext context) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return UuidV7.next();
+    }
+}
@@ -0,0 +1,18 @@
+package com.hr.newwork.data.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID id as a time-ordered UUIDv7 (see {@link com.hr.newwork.util.UuidV7}).
+ * Use instead of {@code @GeneratedValue} on insert-heavy tables.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7Id {
+}
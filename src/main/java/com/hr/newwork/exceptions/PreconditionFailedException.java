@@ -0,0 +1,10 @@
+package com.hr.newwork.exceptions;
+
+/**
+ * Exception thrown when a conditional request's precondition (e.g. {@code If-Match}) does not hold.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
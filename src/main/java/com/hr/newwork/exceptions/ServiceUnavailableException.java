@@ -0,0 +1,18 @@
+package com.hr.newwork.exceptions;
+
+/**
+ * Exception thrown when a request is rejected because a bounded resource is saturated.
+ * Carries the number of seconds the client should wait before retrying.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hr.newwork.exceptions;
+
+/**
+ * Exception thrown when a client exceeds a rate limit.
+ * Carries the number of seconds the client should wait before retrying.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
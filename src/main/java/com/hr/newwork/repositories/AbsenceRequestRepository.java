@@ -1,10 +1,19 @@
 package com.hr.newwork.repositories;
 
+import com.hr.newwork.data.dto.TeamAbsenceDto;
 import com.hr.newwork.data.entity.AbsenceRequest;
 import com.hr.newwork.util.enums.AbsenceStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +30,31 @@ public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest,
      */
     List<AbsenceRequest> findByUserId(UUID userId);
 
+    /**
+     * Finds all absence requests for a given user in a stable order, oldest first.
+     * @param userId the user's ID
+     * @return list of absence requests
+     */
+    List<AbsenceRequest> findByUserIdOrderByCreatedAtAscIdAsc(UUID userId);
+
+    /**
+     * Reads the id and version of a user's absence requests, in the order of
+     * {@link #findByUserIdOrderByCreatedAtAscIdAsc}, to tag the list without loading it.
+     * @param userId the user's ID
+     * @return one row per request
+     */
+    @Query("SELECT a.id AS id, a.version AS version FROM AbsenceRequest a WHERE a.user.id = :userId " +
+           "ORDER BY a.createdAt ASC, a.id ASC")
+    List<VersionRow> findVersionsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Projection row of {@link #findVersionsByUserId}.
+     */
+    interface VersionRow {
+        UUID getId();
+        Long getVersion();
+    }
+
     /**
      * Finds all absence requests for users managed by a given manager.
      * @param managerId the manager's user ID
@@ -35,4 +69,186 @@ public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest,
      * @return list of absence requests
      */
     List<AbsenceRequest> findByUser_Manager_IdAndStatus(UUID managerId, AbsenceStatus status);
+
+    /**
+     * Pages through the absence requests of a manager's direct reports as DTOs, joined with the requester's name
+     * in the same statement. Sortable by the request's own attributes.
+     * @param managerId the manager's user ID
+     * @param status the status to match, or null for any
+     * @param since only requests created or updated after this time, or null for all; callers filtering on it should
+     *              sort by updatedAt then id, or pages may skip rows changed meanwhile
+     * @param pageable page and sort
+     * @return the page
+     */
+    @Query(value = "SELECT new com.hr.newwork.data.dto.TeamAbsenceDto(a.id, u.id, u.firstName, u.lastName, " +
+                   "a.startDate, a.endDate, a.type, a.status, a.reason, a.createdAt, a.updatedAt) " +
+                   "FROM AbsenceRequest a JOIN a.user u " +
+                   "WHERE u.manager.id = :managerId " +
+                   "AND (:status IS NULL OR a.status = :status) " +
+                   "AND (:since IS NULL OR a.updatedAt > :since)",
+           countQuery = "SELECT count(a) FROM AbsenceRequest a JOIN a.user u " +
+                        "WHERE u.manager.id = :managerId " +
+                        "AND (:status IS NULL OR a.status = :status) " +
+                        "AND (:since IS NULL OR a.updatedAt > :since)")
+    Page<TeamAbsenceDto> findTeamQueue(@Param("managerId") UUID managerId,
+                                       @Param("status") AbsenceStatus status,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    /**
+     * Checks whether the user already has a pending or approved absence overlapping the inclusive date range.
+     * Served by the GiST index on (user_id, period).
+     * @param userId the user's ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @return whether an overlapping absence exists
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM absence_requests " +
+                   "WHERE user_id = :userId AND status IN ('PENDING', 'APPROVED') " +
+                   "AND period && daterange(:startDate, :endDate, '[]'))",
+           nativeQuery = true)
+    boolean existsOverlapping(@Param("userId") UUID userId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * Finds the pending and approved absences of a manager's direct reports that end on or after a date.
+     * @param managerId the manager's user ID
+     * @param from first day of interest
+     * @return matching absence requests
+     */
+    @Query(value = "SELECT a.* FROM absence_requests a JOIN users u ON u.id = a.user_id " +
+                   "WHERE u.manager_id = :managerId AND a.status IN ('PENDING', 'APPROVED') " +
+                   "AND a.period && daterange(:from, NULL, '[)')",
+           nativeQuery = true)
+    List<AbsenceRequest> findActiveForManagerFrom(@Param("managerId") UUID managerId, @Param("from") LocalDate from);
+
+    /**
+     * Finds the pending and approved absences of a manager's direct reports overlapping the inclusive date range.
+     * @param managerId the manager's user ID
+     * @param from first day of the range
+     * @param to last day of the range
+     * @return matching absence requests
+     */
+    @Query(value = "SELECT a.* FROM absence_requests a JOIN users u ON u.id = a.user_id " +
+                   "WHERE u.manager_id = :managerId AND a.status IN ('PENDING', 'APPROVED') " +
+                   "AND a.period && daterange(:from, :to, '[]')",
+           nativeQuery = true)
+    List<AbsenceRequest> findActiveForManagerOverlapping(@Param("managerId") UUID managerId,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+
+    /**
+     * Lists every active direct report of a manager, each joined with their pending and approved absences
+     * overlapping the inclusive date range. Reports without such absences appear once with null dates.
+     * @param managerId the manager's user ID
+     * @param from first day of the range
+     * @param to last day of the range
+     * @return one row per (report, absence), grouped by report
+     */
+    @Query(value = "SELECT u.id AS userId, u.first_name AS firstName, u.last_name AS lastName, " +
+                   "a.start_date AS startDate, a.end_date AS endDate, a.status AS status " +
+                   "FROM users u LEFT JOIN absence_requests a ON a.user_id = u.id " +
+                   "AND a.status IN ('PENDING', 'APPROVED') AND a.period && daterange(:from, :to, '[]') " +
+                   "WHERE u.manager_id = :managerId AND u.is_active = true " +
+                   "ORDER BY u.last_name, u.first_name, u.id",
+           nativeQuery = true)
+    List<TeamCalendarRow> findTeamCalendarRows(@Param("managerId") UUID managerId,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    /**
+     * Projection row of {@link #findTeamCalendarRows}.
+     */
+    interface TeamCalendarRow {
+        UUID getUserId();
+        String getFirstName();
+        String getLastName();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        String getStatus();
+    }
+
+    /**
+     * Locks the given absence requests for a decision and returns what is needed to authorize and book it:
+     * current status, the requester's manager, and the requester, type and dates. Ids that do not exist are simply absent from the result.
+     * Rows are locked in id order, so concurrent decisions over overlapping ids cannot deadlock.
+     * @param ids the absence request IDs
+     * @return one row per existing request
+     */
+    @Query(value = "SELECT a.id AS id, a.status AS status, u.manager_id AS managerId, a.user_id AS userId, " +
+                   "a.type AS type, a.start_date AS startDate, a.end_date AS endDate " +
+                   "FROM absence_requests a JOIN users u ON u.id = a.user_id " +
+                   "WHERE a.id IN (:ids) ORDER BY a.id FOR UPDATE OF a",
+           nativeQuery = true)
+    List<DecisionTargetRow> lockDecisionTargets(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Projection row of {@link #lockDecisionTargets}.
+     */
+    interface DecisionTargetRow {
+        UUID getId();
+        String getStatus();
+        UUID getManagerId();
+        UUID getUserId();
+        String getType();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
+    /**
+     * Moves pending absence requests to a new status in one statement, bumping their versions as an entity update would.
+     * @param ids the absence request IDs
+     * @param status the new status
+     * @param now the update time
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE AbsenceRequest a SET a.status = :status, a.updatedAt = :now, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.status = com.hr.newwork.util.enums.AbsenceStatus.PENDING")
+    int decidePending(@Param("ids") Collection<UUID> ids,
+                      @Param("status") AbsenceStatus status,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Lists the approved vacation requests ending on or after a date, for leave reconciliation.
+     * @param from first day of interest
+     * @return one row per request
+     */
+    @Query(value = "SELECT user_id AS userId, start_date AS startDate, end_date AS endDate FROM absence_requests " +
+                   "WHERE status = 'APPROVED' AND type = 'VACATION' AND end_date >= :from",
+           nativeQuery = true)
+    List<ApprovedVacationRow> findApprovedVacationEndingFrom(@Param("from") LocalDate from);
+
+    /**
+     * Projection row of {@link #findApprovedVacationEndingFrom}.
+     */
+    interface ApprovedVacationRow {
+        UUID getUserId();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
+    /**
+     * Locks the approved vacation requests that have no leave ledger entry yet, e.g. approved before the ledger
+     * existed. A request whose status is being changed concurrently is waited for and skipped if no longer approved.
+     * @return one row per unbooked request, in id order
+     */
+    @Query(value = "SELECT a.id AS id, a.user_id AS userId, a.start_date AS startDate, a.end_date AS endDate " +
+                   "FROM absence_requests a " +
+                   "WHERE a.status = 'APPROVED' AND a.type = 'VACATION' AND a.start_date IS NOT NULL AND a.end_date IS NOT NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM leave_ledger l WHERE l.absence_request_id = a.id) " +
+                   "ORDER BY a.id FOR UPDATE OF a",
+           nativeQuery = true)
+    List<UnbookedVacationRow> lockUnbookedApprovedVacation();
+
+    /**
+     * Projection row of {@link #lockUnbookedApprovedVacation}.
+     */
+    interface UnbookedVacationRow {
+        UUID getId();
+        UUID getUserId();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
 }
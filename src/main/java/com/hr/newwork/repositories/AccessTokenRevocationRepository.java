@@ -0,0 +1,55 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.AccessTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for access token revocations.
+ */
+@Repository
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, UUID> {
+    /**
+     * Finds revocations recorded after a point in time that still cover unexpired tokens.
+     * @param since exclusive lower bound on revokedAt
+     * @param now the current time
+     * @return matching revocations
+     */
+    List<AccessTokenRevocation> findByRevokedAtAfterAndExpiresAtAfter(Date since, Date now);
+
+    /**
+     * Revokes every access token issued so far to the users in a department and/or with a role.
+     * A null filter matches any value.
+     * @return number of users covered
+     */
+    @Modifying
+    @Query(value = "INSERT INTO access_token_revocation (id, user_id, revoked_at, expires_at) " +
+                   "SELECT uuid_generate_v7(), u.id, :now, :expiresAt FROM users u " +
+                   "WHERE (CAST(:department AS varchar) IS NULL OR u.department = :department) " +
+                   "AND (CAST(:role AS varchar) IS NULL OR EXISTS (" +
+                   "    SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = u.id AND r.name = :role))",
+           nativeQuery = true)
+    int revokeAllForUsersMatching(@Param("department") String department,
+                                  @Param("role") String role,
+                                  @Param("now") Date now,
+                                  @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Deletes up to {@code batchSize} revocations whose tokens have all expired.
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM access_token_revocation WHERE id IN (" +
+                   "    SELECT id FROM access_token_revocation WHERE expires_at < :now LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int purgeBatch(@Param("now") Date now, @Param("batchSize") int batchSize);
+}
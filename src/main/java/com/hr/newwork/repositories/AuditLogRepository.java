@@ -4,11 +4,13 @@ import com.hr.newwork.data.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
@@ -39,4 +41,19 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
                                 @Param("from") Instant from,
                                 @Param("to") Instant to,
                                 Pageable pageable);
+
+    /**
+     * Finds the timestamp of the oldest audit log entry.
+     * @return the earliest timestamp, or null if the table is empty
+     */
+    @Query("SELECT MIN(a.timestamp) FROM AuditLog a")
+    LocalDateTime findEarliestTimestamp();
+
+    /**
+     * Locks audit_log against inserts until the current transaction ends, first waiting for uncommitted inserts to
+     * finish. Recounting buckets that are still being written must not race the rollup trigger.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE audit_log IN SHARE MODE", nativeQuery = true)
+    void lockAgainstInserts();
 }
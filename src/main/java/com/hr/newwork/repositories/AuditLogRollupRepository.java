@@ -0,0 +1,76 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.AuditLogRollup;
+import com.hr.newwork.util.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for pre-aggregated audit activity rollups.
+ * Reads are served from the rollup table; writes happen through the audit_log trigger or the backfill queries below.
+ */
+@Repository
+public interface AuditLogRollupRepository extends JpaRepository<AuditLogRollup, UUID> {
+    /**
+     * Finds rollup buckets matching the provided filters, ordered by bucket start.
+     *
+     * @param granularity Bucket size (hour or day)
+     * @param actorId     Optional filter by actor (user) UUID
+     * @param targetTable Optional filter by target table/entity
+     * @param action      Optional filter by action type
+     * @param from        Optional lower bound on bucket start (inclusive)
+     * @param to          Optional upper bound on bucket start (exclusive)
+     * @return list of matching rollup rows
+     */
+    @Query("SELECT r FROM AuditLogRollup r WHERE r.granularity = :granularity " +
+           "AND (:actorId IS NULL OR r.actorId = :actorId) " +
+           "AND (:targetTable IS NULL OR r.targetTable = :targetTable) " +
+           "AND (:action IS NULL OR r.action = :action) " +
+           "AND (:from IS NULL OR r.bucketStart >= :from) " +
+           "AND (:to IS NULL OR r.bucketStart < :to) " +
+           "ORDER BY r.bucketStart")
+    List<AuditLogRollup> findFiltered(@Param("granularity") RollupGranularity granularity,
+                                      @Param("actorId") UUID actorId,
+                                      @Param("targetTable") String targetTable,
+                                      @Param("action") String action,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Deletes all rollup buckets of a granularity whose start lies in [from, to).
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM AuditLogRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("granularity") RollupGranularity granularity,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+
+    /**
+     * Recomputes rollup buckets of one granularity from raw audit_log rows with timestamp in [from, to).
+     * Existing buckets are overwritten with the recomputed count, so the statement is idempotent.
+     *
+     * @param granularity the granularity name stored in the rollup row
+     * @param unit        the matching date_trunc unit ("hour" or "day")
+     * @return number of rollup rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO audit_log_rollup (id, granularity, bucket_start, actor_id, target_table, action, event_count) " +
+                   "SELECT uuid_generate_v4(), :granularity, date_trunc(:unit, a.timestamp), a.actor_id, a.target_table, a.action, COUNT(*) " +
+                   "FROM audit_log a WHERE a.timestamp >= :from AND a.timestamp < :to " +
+                   "GROUP BY 3, 4, 5, 6 " +
+                   "ON CONFLICT (granularity, bucket_start, actor_id, target_table, action) " +
+                   "DO UPDATE SET event_count = EXCLUDED.event_count",
+           nativeQuery = true)
+    int backfill(@Param("granularity") String granularity,
+                 @Param("unit") String unit,
+                 @Param("from") LocalDateTime from,
+                 @Param("to") LocalDateTime to);
+}
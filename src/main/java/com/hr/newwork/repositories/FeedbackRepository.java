@@ -2,9 +2,12 @@ package com.hr.newwork.repositories;
 
 import com.hr.newwork.data.entity.Feedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -12,5 +15,23 @@ public interface FeedbackRepository extends JpaRepository<Feedback, UUID> {
     List<Feedback> findByTargetUserId(UUID userId);
     List<Feedback> findByTargetUserIdIn(List<UUID> userIds);
     List<Feedback> findByAuthorId(UUID authorId);
+
+    /**
+     * Reads the versions behind a feedback response: the feedback's, its author's and its target's (whose names it shows).
+     * @param id the feedback ID
+     * @return the versions, or empty if the feedback does not exist
+     */
+    @Query("SELECT f.version AS version, a.version AS authorVersion, t.version AS targetVersion FROM Feedback f " +
+           "LEFT JOIN f.author a LEFT JOIN f.targetUser t WHERE f.id = :id")
+    Optional<FeedbackVersionRow> findFeedbackVersion(@Param("id") UUID id);
+
+    /**
+     * Projection row of {@link #findFeedbackVersion}; user versions are null when the user is missing.
+     */
+    interface FeedbackVersionRow {
+        Long getVersion();
+        Long getAuthorVersion();
+        Long getTargetVersion();
+    }
     // Add custom queries as needed
 }
@@ -0,0 +1,43 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for JWT verification keys.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    /**
+     * Finds keys that may still have valid tokens signed with them.
+     * @param now the current time
+     * @return unexpired keys
+     */
+    List<JwtSigningKey> findByExpiresAtAfter(Date now);
+
+    /**
+     * Moves a key's expiry earlier once it stops signing, so it leaves the JWKS as soon as its last token expires.
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JwtSigningKey k SET k.expiresAt = :expiresAt WHERE k.kid = :kid AND k.expiresAt > :expiresAt")
+    int retire(@Param("kid") String kid, @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Deletes expired keys.
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JwtSigningKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
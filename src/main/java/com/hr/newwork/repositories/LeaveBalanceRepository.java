@@ -0,0 +1,39 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.LeaveBalance;
+import com.hr.newwork.data.entity.LeaveBalanceKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for per-user, per-year leave balances.
+ * Balances are read by primary key; they are written together with the ledger (see {@link LeaveLedgerRepository}).
+ */
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, LeaveBalanceKey> {
+    /**
+     * Blocks ledger writers until the current transaction ends, so ledger sums read afterwards cannot miss an
+     * in-flight approval. Readers are not blocked.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE leave_ledger IN SHARE MODE", nativeQuery = true)
+    void lockLedgerForReconciliation();
+
+    /**
+     * Rewrites every balance that differs from the sums of its ledger entries, and creates missing ones.
+     * @return number of balances created or corrected
+     */
+    @Modifying
+    @Query(value = "INSERT INTO leave_balance (user_id, year, accrued, used, updated_at) " +
+                   "SELECT user_id, year, " +
+                   "COALESCE(SUM(days) FILTER (WHERE entry_type = 'ACCRUAL'), 0), " +
+                   "COALESCE(-SUM(days) FILTER (WHERE entry_type <> 'ACCRUAL'), 0), now() " +
+                   "FROM leave_ledger GROUP BY user_id, year " +
+                   "ON CONFLICT (user_id, year) DO UPDATE " +
+                   "SET accrued = EXCLUDED.accrued, used = EXCLUDED.used, updated_at = EXCLUDED.updated_at " +
+                   "WHERE leave_balance.accrued <> EXCLUDED.accrued OR leave_balance.used <> EXCLUDED.used",
+           nativeQuery = true)
+    int repairFromLedger();
+}
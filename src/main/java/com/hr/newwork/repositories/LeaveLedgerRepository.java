@@ -0,0 +1,79 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.LeaveLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only leave ledger.
+ */
+@Repository
+public interface LeaveLedgerRepository extends JpaRepository<LeaveLedgerEntry, UUID> {
+    /**
+     * Grants a year's allowance to every active user that has not received it yet, and adds it to their balance,
+     * in one statement. Users already accrued for the year are skipped, so re-running is harmless.
+     * @param year the leave year
+     * @param days working days granted
+     * @return number of users accrued
+     */
+    @Modifying
+    @Query(value = "WITH accrued AS (" +
+                   "INSERT INTO leave_ledger (id, user_id, year, entry_type, days, created_at) " +
+                   "SELECT uuid_generate_v7(), u.id, :year, 'ACCRUAL', :days, now() FROM users u WHERE u.is_active = true " +
+                   "ON CONFLICT (user_id, year) WHERE entry_type = 'ACCRUAL' DO NOTHING " +
+                   "RETURNING user_id, year, days) " +
+                   "INSERT INTO leave_balance (user_id, year, accrued, used, updated_at) " +
+                   "SELECT user_id, year, days, 0, now() FROM accrued " +
+                   "ON CONFLICT (user_id, year) DO UPDATE " +
+                   "SET accrued = leave_balance.accrued + EXCLUDED.accrued, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int accrueYear(@Param("year") int year, @Param("days") int days);
+
+    /**
+     * Net vacation days currently booked against each of the given absence requests, per user and year.
+     * @param absenceRequestIds the absence request IDs
+     * @return one row per (request, year) with a non-zero net usage
+     */
+    @Query(value = "SELECT absence_request_id AS absenceRequestId, user_id AS userId, year AS year, " +
+                   "CAST(-SUM(days) AS INT) AS days FROM leave_ledger " +
+                   "WHERE absence_request_id IN (:ids) AND entry_type <> 'ACCRUAL' " +
+                   "GROUP BY absence_request_id, user_id, year HAVING SUM(days) <> 0",
+           nativeQuery = true)
+    List<BookedUsageRow> findBookedUsage(@Param("ids") Collection<UUID> absenceRequestIds);
+
+    /**
+     * Net vacation days used per user and year according to the ledger, from a year on.
+     * @param fromYear first year to include
+     * @return one row per (user, year) with usage entries
+     */
+    @Query(value = "SELECT user_id AS userId, year AS year, CAST(-SUM(days) AS INT) AS days FROM leave_ledger " +
+                   "WHERE entry_type <> 'ACCRUAL' AND year >= :fromYear GROUP BY user_id, year",
+           nativeQuery = true)
+    List<UsageRow> sumUsageFrom(@Param("fromYear") int fromYear);
+
+    /**
+     * Projection row of {@link #findBookedUsage}.
+     */
+    interface BookedUsageRow {
+        UUID getAbsenceRequestId();
+        UUID getUserId();
+        Integer getYear();
+        Integer getDays();
+    }
+
+    /**
+     * Projection row of {@link #sumUsageFrom}.
+     */
+    interface UsageRow {
+        UUID getUserId();
+        Integer getYear();
+        Integer getDays();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.data.entity.PublicHoliday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the public holiday calendar.
+ */
+@Repository
+public interface PublicHolidayRepository extends JpaRepository<PublicHoliday, LocalDate> {
+    List<PublicHoliday> findByHolidayDateBetweenOrderByHolidayDate(LocalDate from, LocalDate to);
+}
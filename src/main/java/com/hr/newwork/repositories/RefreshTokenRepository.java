@@ -3,24 +3,42 @@ package com.hr.newwork.repositories;
 import com.hr.newwork.data.entity.RefreshToken;
 import com.hr.newwork.data.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository for managing RefreshToken entities.
+ * Tokens are looked up by the SHA-256 digest of the raw value (see {@link com.hr.newwork.util.TokenDigestUtil}).
  */
 @Repository
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     /**
-     * Finds a refresh token by its token string.
-     * @param token the refresh token string
-     * @return an Optional containing the RefreshToken if found, or empty if not
+     * Reads what a reuse check needs about a presented token, without loading the entity; the columns are all
+     * included in {@code uk_refresh_token_hash}, so this can be an index-only scan.
+     * @param tokenHash the SHA-256 hex digest of the refresh token
+     * @return the token's state, or empty if unknown
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query(value = "SELECT family_id AS familyId, valid AS valid, expiry_date AS expiryDate, revoked_at AS revokedAt " +
+                   "FROM refresh_token WHERE token_hash = :tokenHash",
+           nativeQuery = true)
+    Optional<ReuseCheckRow> findReuseCheckByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Projection row of {@link #findReuseCheckByTokenHash}.
+     */
+    interface ReuseCheckRow {
+        UUID getFamilyId();
+        Boolean getValid();
+        Date getExpiryDate();
+        Date getRevokedAt();
+    }
 
     /**
      * Deletes all refresh tokens for a user.
@@ -29,10 +47,82 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     void deleteAllByUser(User user);
 
     /**
-     * Finds all valid and unexpired refresh tokens for a user.
+     * Invalidates all valid refresh tokens of a user in one statement.
      * @param userId the user's ID
      * @param now the current time
-     * @return list of valid and unexpired refresh tokens
+     * @return number of invalidated rows
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.valid = false, t.revokedAt = :now WHERE t.user.id = :userId AND t.valid = true")
+    int revokeAllForUser(@Param("userId") UUID userId, @Param("now") Date now);
+
+    /**
+     * Invalidates all valid refresh tokens of every user in a department and/or with a role, in one statement.
+     * A null filter matches any value.
+     * @param department the department name, or null
+     * @param role the role name, or null
+     * @param now the current time
+     * @return number of invalidated rows
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.valid = false, t.revokedAt = :now WHERE t.valid = true AND t.user.id IN (" +
+           "SELECT u.id FROM User u LEFT JOIN u.roles r " +
+           "WHERE (:department IS NULL OR u.department = :department) AND (:role IS NULL OR r.name = :role))")
+    int revokeAllForUsersMatching(@Param("department") String department,
+                                  @Param("role") String role,
+                                  @Param("now") Date now);
+
+    /**
+     * Rotates a refresh token in one statement: invalidates the presented token if it is still valid and unexpired,
+     * and inserts its successor in the same family.
+     * @param tokenHash digest of the presented token
+     * @param newTokenHash digest of the successor token
+     * @param newExpiry expiry of the successor token
+     * @param now the current time
+     * @return the owning user's id, or empty if the presented token could not be rotated
+     */
+    @Query(value = "WITH rotated AS (" +
+                   "    UPDATE refresh_token SET valid = false, revoked_at = :now " +
+                   "    WHERE token_hash = :tokenHash AND valid AND expiry_date > :now " +
+                   "    RETURNING user_id, family_id) " +
+                   "INSERT INTO refresh_token (id, token_hash, family_id, user_id, expiry_date, valid, created_at) " +
+                   "SELECT uuid_generate_v7(), :newTokenHash, family_id, user_id, :newExpiry, true, :now FROM rotated " +
+                   "RETURNING user_id",
+           nativeQuery = true)
+    Optional<UUID> rotate(@Param("tokenHash") String tokenHash,
+                          @Param("newTokenHash") String newTokenHash,
+                          @Param("newExpiry") Date newExpiry,
+                          @Param("now") Date now);
+
+    /**
+     * Invalidates a single refresh token.
+     * @return number of invalidated rows (0 if unknown or already invalid)
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.valid = false, t.revokedAt = :now WHERE t.tokenHash = :tokenHash AND t.valid = true")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Date now);
+
+    /**
+     * Invalidates every still-valid token of a family, e.g. after a rotated token was presented again.
+     * @return number of invalidated rows
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.valid = false, t.revokedAt = :now WHERE t.familyId = :familyId AND t.valid = true")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Date now);
+
+    /**
+     * Deletes up to {@code batchSize} expired tokens, or invalid tokens revoked before {@code revokedBefore}.
+     * Rows locked by concurrent rotations are skipped, so each chunk holds its locks only briefly.
+     * @return number of deleted rows
      */
-    List<RefreshToken> findAllByUserIdAndValidTrueAndExpiryDateAfter(UUID userId, Date now);
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE id IN (" +
+                   "    SELECT id FROM refresh_token " +
+                   "    WHERE expiry_date < :now OR (NOT valid AND (revoked_at IS NULL OR revoked_at < :revokedBefore)) " +
+                   "    LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int purgeBatch(@Param("now") Date now,
+                   @Param("revokedBefore") Date revokedBefore,
+                   @Param("batchSize") int batchSize);
 }
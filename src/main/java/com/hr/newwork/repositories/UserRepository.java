@@ -85,4 +85,79 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     @org.springframework.data.jpa.repository.Query("SELECT u FROM User u JOIN u.roles r WHERE u.department = :department AND u.manager.id = :managerId AND r.name = :role")
     List<User> findByDepartmentAndManager_IdAndRole(String department, UUID managerId, String role);
+
+    /**
+     * Replaces a user's password hash, but only if it still equals the hash that was verified.
+     * The version is left alone: the hash is in no tagged response, and a rehash on login should not fail
+     * a concurrent profile update.
+     * @param id the UUID of the user
+     * @param currentHash the hash the password was checked against
+     * @param newHash the replacement hash
+     * @return the number of updated rows (0 if the hash changed concurrently)
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :currentHash")
+    int updatePasswordHash(UUID id, String currentHash, String newHash);
+
+    /**
+     * Loads what an access token needs for an active user in one query: one row per role
+     * (a single row with a null role name if the user has none).
+     * @param id the UUID of the user
+     * @return the rows, or an empty list if the user does not exist or is inactive
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT u.email AS email, r.name AS roleName FROM User u LEFT JOIN u.roles r " +
+                                                   "WHERE u.id = :id AND u.isActive = true")
+    List<TokenSubjectRow> findTokenSubjectById(UUID id);
+
+    /**
+     * Projection row of {@link #findTokenSubjectById}.
+     */
+    interface TokenSubjectRow {
+        String getEmail();
+        String getRoleName();
+    }
+
+    /**
+     * Reads the versions behind a profile response, the user's and their manager's (whose name it shows),
+     * without loading either entity.
+     * @param id the UUID of the user
+     * @return the versions, or empty if the user does not exist
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT u.version AS version, m.version AS managerVersion FROM User u " +
+                                                   "LEFT JOIN u.manager m WHERE u.id = :id")
+    Optional<ProfileVersionRow> findProfileVersion(UUID id);
+
+    /**
+     * Projection row of {@link #findProfileVersion}; the manager version is null without a manager.
+     */
+    interface ProfileVersionRow {
+        Long getVersion();
+        Long getManagerVersion();
+    }
+
+    /**
+     * Returns which of the given emails are already taken.
+     * @param emails the emails to check
+     * @return the subset of emails that belong to existing users
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(java.util.Collection<String> emails);
+
+    /**
+     * Finds the ids of the users with the MANAGER role among the given emails.
+     * @param emails the emails to resolve
+     * @return one row per matching manager
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT u.id AS id, u.email AS email FROM User u JOIN u.roles r " +
+                                                   "WHERE r.name = 'MANAGER' AND u.email IN :emails")
+    List<ManagerRef> findManagersByEmails(java.util.Collection<String> emails);
+
+    /**
+     * Projection row of {@link #findManagersByEmails}.
+     */
+    interface ManagerRef {
+        UUID getId();
+        String getEmail();
+    }
 }
@@ -0,0 +1,286 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.util.SecurityUtil;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams absence requests, with the requester's department and manager, as an Apache Arrow IPC stream for
+ * analytics.
+ * <p>
+ * Rows are read through a server-side cursor ({@code absence.export.fetch-size} rows per round trip, in a read-only
+ * transaction) straight into column vectors, and every {@code absence.export.batch-rows} rows are written to the
+ * response as one record batch, so memory stays bounded by one batch whatever the table size; the Arrow allocator
+ * is capped at {@code absence.export.memory-limit-bytes}. No entity is hydrated.
+ * <p>
+ * Filters combine: requests overlapping a date range, and requests created or changed after a watermark. Incremental
+ * consumers store the {@link ExportFilter#nextChangedSince} of each export and pass it as the next
+ * {@code changedSince}; it lags the export start by {@code absence.export.watermark-lag-ms} so changes committed
+ * late are exported again rather than missed. Rows carry their version for de-duplication.
+ */
+@Service
+public class AbsenceExportService {
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceExportService.class);
+
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final ArrowType TIMESTAMP = new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+    private static final ArrowType DATE = new ArrowType.Date(DateUnit.DAY);
+    static final Schema SCHEMA = new Schema(List.of(
+        Field.notNullable("id", ArrowType.Utf8.INSTANCE),
+        Field.notNullable("user_id", ArrowType.Utf8.INSTANCE),
+        Field.nullable("department", ArrowType.Utf8.INSTANCE),
+        Field.nullable("manager_id", ArrowType.Utf8.INSTANCE),
+        Field.nullable("type", ArrowType.Utf8.INSTANCE),
+        Field.nullable("status", ArrowType.Utf8.INSTANCE),
+        Field.nullable("start_date", DATE),
+        Field.nullable("end_date", DATE),
+        Field.nullable("created_at", TIMESTAMP),
+        Field.nullable("updated_at", TIMESTAMP),
+        Field.notNullable("version", new ArrowType.Int(64, true))));
+
+    private static final String SELECT =
+        "SELECT a.id, a.user_id, u.department, u.manager_id, a.type, a.status, a.start_date, a.end_date, " +
+        "a.created_at, a.updated_at, a.version " +
+        "FROM absence_requests a JOIN users u ON u.id = a.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SecurityUtil securityUtil;
+    private final int batchRows;
+    private final int fetchSize;
+    private final long memoryLimitBytes;
+    private final long watermarkLagMs;
+
+    public AbsenceExportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                SecurityUtil securityUtil,
+                                @Value("${absence.export.batch-rows:8192}") int batchRows,
+                                @Value("${absence.export.fetch-size:2000}") int fetchSize,
+                                @Value("${absence.export.memory-limit-bytes:67108864}") long memoryLimitBytes,
+                                @Value("${absence.export.watermark-lag-ms:300000}") long watermarkLagMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.securityUtil = securityUtil;
+        this.batchRows = batchRows;
+        this.fetchSize = fetchSize;
+        this.memoryLimitBytes = memoryLimitBytes;
+        this.watermarkLagMs = watermarkLagMs;
+    }
+
+    /**
+     * Checks and fixes the filters of an export, before anything is written to the response.
+     * @param from first day of the range, inclusive, or null
+     * @param to last day of the range, inclusive, or null
+     * @param changedSince only requests created or updated after this time, or null for all
+     * @return the filter, with the watermark to pass as {@code changedSince} next time
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws BadRequestException if the range is inverted
+     */
+    public ExportFilter prepareAsCurrentUser(LocalDate from, LocalDate to, LocalDateTime changedSince) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can export absences");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("Invalid range: 'to' must be on or after 'from'");
+        }
+        LocalDateTime nextChangedSince = LocalDateTime.now().minusNanos(watermarkLagMs * 1_000_000);
+        return new ExportFilter(from, to, changedSince, nextChangedSince);
+    }
+
+    /**
+     * Writes the matching requests to a stream as an Arrow IPC stream: the schema, then one record batch per
+     * {@code absence.export.batch-rows} rows. Rows are ordered by update time in changed-since mode, unordered otherwise.
+     * @param filter the filter from {@link #prepareAsCurrentUser}
+     * @param out the response stream; closed once the stream ends
+     * @return the number of rows written
+     */
+    public long write(ExportFilter filter, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> params = new ArrayList<>();
+        String where = " WHERE ";
+        if (filter.from() != null || filter.to() != null) {
+            // daterange bounds may be NULL (unbounded)
+            sql.append(where).append("a.period && daterange(?::date, ?::date, '[]')");
+            params.add(filter.from() != null ? Date.valueOf(filter.from()) : null);
+            params.add(filter.to() != null ? Date.valueOf(filter.to()) : null);
+            where = " AND ";
+        }
+        if (filter.changedSince() != null) {
+            sql.append(where).append("a.updated_at > ?");
+            params.add(Timestamp.valueOf(filter.changedSince()));
+            sql.append(" ORDER BY a.updated_at, a.id");
+        }
+        long started = System.currentTimeMillis();
+        try (BufferAllocator allocator = new RootAllocator(memoryLimitBytes);
+             VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+            BatchWriter batches = new BatchWriter(root, writer);
+            writer.start();
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    // With auto-commit off, a fetch size makes the driver read through a cursor instead of buffering all rows
+                    ps.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    return ps;
+                }, batches));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            batches.flush();
+            writer.end();
+            logger.info("Exported {} absence requests in {} batches in {} ms", batches.total, batches.batches,
+                System.currentTimeMillis() - started);
+            return batches.total;
+        }
+    }
+
+    /**
+     * Filters of one export.
+     * @param from first day of the range, inclusive, or null
+     * @param to last day of the range, inclusive, or null
+     * @param changedSince lower bound (exclusive) on {@code updated_at}, or null
+     * @param nextChangedSince the {@code changedSince} for the next incremental export
+     */
+    public record ExportFilter(LocalDate from, LocalDate to, LocalDateTime changedSince, LocalDateTime nextChangedSince) {
+    }
+
+    /**
+     * Copies result rows into the column vectors and writes a record batch whenever {@code batchRows} are filled.
+     */
+    private final class BatchWriter implements RowCallbackHandler {
+        private final VectorSchemaRoot root;
+        private final ArrowStreamWriter writer;
+        private final VarCharVector id;
+        private final VarCharVector userId;
+        private final VarCharVector department;
+        private final VarCharVector managerId;
+        private final VarCharVector type;
+        private final VarCharVector status;
+        private final DateDayVector startDate;
+        private final DateDayVector endDate;
+        private final TimeStampMicroVector createdAt;
+        private final TimeStampMicroVector updatedAt;
+        private final BigIntVector version;
+        private int row;
+        private long total;
+        private int batches;
+
+        private BatchWriter(VectorSchemaRoot root, ArrowStreamWriter writer) {
+            this.root = root;
+            this.writer = writer;
+            this.id = (VarCharVector) root.getVector("id");
+            this.userId = (VarCharVector) root.getVector("user_id");
+            this.department = (VarCharVector) root.getVector("department");
+            this.managerId = (VarCharVector) root.getVector("manager_id");
+            this.type = (VarCharVector) root.getVector("type");
+            this.status = (VarCharVector) root.getVector("status");
+            this.startDate = (DateDayVector) root.getVector("start_date");
+            this.endDate = (DateDayVector) root.getVector("end_date");
+            this.createdAt = (TimeStampMicroVector) root.getVector("created_at");
+            this.updatedAt = (TimeStampMicroVector) root.getVector("updated_at");
+            this.version = (BigIntVector) root.getVector("version");
+            root.allocateNew();
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            setString(id, rs.getString(1));
+            setString(userId, rs.getString(2));
+            setString(department, rs.getString(3));
+            setString(managerId, rs.getString(4));
+            setString(type, rs.getString(5));
+            setString(status, rs.getString(6));
+            setDate(startDate, rs.getObject(7, LocalDate.class));
+            setDate(endDate, rs.getObject(8, LocalDate.class));
+            setTimestamp(createdAt, rs.getObject(9, LocalDateTime.class));
+            setTimestamp(updatedAt, rs.getObject(10, LocalDateTime.class));
+            version.setSafe(row, rs.getLong(11));
+            row++;
+            if (row == batchRows) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            if (row == 0) return;
+            root.setRowCount(row);
+            writer.writeBatch();
+            total += row;
+            batches++;
+            row = 0;
+            // Releases the written buffers and starts the next batch
+            root.allocateNew();
+        }
+
+        private void setString(VarCharVector vector, String value) {
+            if (value == null) {
+                vector.setNull(row);
+            } else {
+                vector.setSafe(row, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private void setDate(DateDayVector vector, LocalDate value) {
+            if (value == null) {
+                vector.setNull(row);
+            } else {
+                vector.setSafe(row, (int) value.toEpochDay());
+            }
+        }
+
+        private void setTimestamp(TimeStampMicroVector vector, LocalDateTime value) {
+            if (value == null) {
+                vector.setNull(row);
+            } else {
+                // Naive (zone-less) timestamps, as stored
+                vector.setSafe(row, value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000);
+            }
+        }
+    }
+}
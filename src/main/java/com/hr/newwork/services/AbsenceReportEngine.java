@@ -0,0 +1,176 @@
+package com.hr.newwork.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Per-bucket absence totals computed over primitive arrays instead of per-request {@link LocalDate} iteration.
+ * <p>
+ * Ranges are held as two columns of inclusive epoch days. A group of ranges is reduced in one pass: each range adds
+ * +1 at its (clipped) first day and -1 after its last day in a day-indexed delta array, and a sweep over the window
+ * accumulates the running count of people absent into per-bucket totals. Cost is O(ranges + days) per group, whatever
+ * the length of the ranges. Groups are swept in parallel on a fork/join pool, split by row count.
+ */
+final class AbsenceReportEngine {
+    /** Groups holding fewer rows than this are swept by one task. */
+    static final int SEQUENTIAL_ROWS = 16_384;
+
+    private AbsenceReportEngine() {
+    }
+
+    /**
+     * Growable columns of inclusive epoch-day ranges.
+     */
+    static final class Ranges {
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int size;
+
+        void add(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    /**
+     * The report window, [firstDay, lastDay] in epoch days, split into consecutive buckets.
+     * @param bucketStarts offset from {@code firstDay} of each bucket's first day, ascending, starting with 0
+     * @param workingDay 1 at the offset of each working day, 0 elsewhere
+     */
+    record Window(int firstDay, int lastDay, int[] bucketStarts, int[] workingDay) {
+        /**
+         * Splits [from, to] into calendar months, the first and last possibly partial.
+         */
+        static Window monthly(LocalDate from, LocalDate to, Predicate<LocalDate> isWorkingDay) {
+            int firstDay = (int) from.toEpochDay();
+            int days = (int) (to.toEpochDay() - firstDay) + 1;
+            List<Integer> starts = new ArrayList<>();
+            int[] workingDay = new int[days];
+            LocalDate date = from;
+            for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+                if (i == 0 || date.getDayOfMonth() == 1) starts.add(i);
+                workingDay[i] = isWorkingDay.test(date) ? 1 : 0;
+            }
+            return new Window(firstDay, firstDay + days - 1, starts.stream().mapToInt(Integer::intValue).toArray(), workingDay);
+        }
+
+        int days() {
+            return lastDay - firstDay + 1;
+        }
+    }
+
+    /**
+     * Totals of one group, indexed by bucket.
+     */
+    static final class Totals {
+        /** Person-days absent. */
+        final long[] absenceDays;
+        /** Person-days absent on working days. */
+        final long[] workingDays;
+        /** Most people absent on a single day. */
+        final int[] peakAbsent;
+
+        private Totals(int buckets) {
+            absenceDays = new long[buckets];
+            workingDays = new long[buckets];
+            peakAbsent = new int[buckets];
+        }
+    }
+
+    /**
+     * Sweeps one group of ranges over the window. Ranges are clipped to it; ranges outside it are ignored.
+     */
+    static Totals sweep(Ranges ranges, Window window) {
+        int first = window.firstDay();
+        int last = window.lastDay();
+        int[] delta = new int[window.days() + 1];
+        int[] starts = ranges.starts;
+        int[] ends = ranges.ends;
+        for (int i = 0; i < ranges.size; i++) {
+            int start = Math.max(starts[i], first);
+            int end = Math.min(ends[i], last);
+            if (start > end) continue;
+            delta[start - first]++;
+            delta[end - first + 1]--;
+        }
+        int[] bucketStarts = window.bucketStarts();
+        int[] workingDay = window.workingDay();
+        Totals totals = new Totals(bucketStarts.length);
+        int active = 0;
+        for (int b = 0; b < bucketStarts.length; b++) {
+            int bucketEnd = b + 1 < bucketStarts.length ? bucketStarts[b + 1] : window.days();
+            long absenceDays = 0;
+            long workingDays = 0;
+            int peak = 0;
+            for (int d = bucketStarts[b]; d < bucketEnd; d++) {
+                active += delta[d];
+                absenceDays += active;
+                workingDays += active * workingDay[d];
+                peak = Math.max(peak, active);
+            }
+            totals.absenceDays[b] = absenceDays;
+            totals.workingDays[b] = workingDays;
+            totals.peakAbsent[b] = peak;
+        }
+        return totals;
+    }
+
+    /**
+     * Sweeps every group on a fork/join pool.
+     * @param groups the groups, e.g. ranges by department
+     * @return the totals of each group, in the order of {@code groups}
+     */
+    static <K> List<Totals> sweepAll(List<Map.Entry<K, Ranges>> groups, Window window, ForkJoinPool pool) {
+        Totals[] results = new Totals[groups.size()];
+        if (!groups.isEmpty()) {
+            pool.invoke(new SweepTask(groups, window, results, 0, groups.size()));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Sweeps groups [lo, hi): in place when they hold few rows or are a single group, otherwise split in halves.
+     */
+    private static final class SweepTask extends RecursiveAction {
+        private final List<? extends Map.Entry<?, Ranges>> groups;
+        private final Window window;
+        private final Totals[] results;
+        private final int lo;
+        private final int hi;
+
+        private SweepTask(List<? extends Map.Entry<?, Ranges>> groups, Window window, Totals[] results, int lo, int hi) {
+            this.groups = groups;
+            this.window = window;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            long rows = 0;
+            for (int i = lo; i < hi; i++) {
+                rows += groups.get(i).getValue().size;
+            }
+            if (hi - lo == 1 || rows < SEQUENTIAL_ROWS) {
+                for (int i = lo; i < hi; i++) {
+                    results[i] = sweep(groups.get(i).getValue(), window);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SweepTask(groups, window, results, lo, mid), new SweepTask(groups, window, results, mid, hi));
+        }
+    }
+}
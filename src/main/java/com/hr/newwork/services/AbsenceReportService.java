@@ -0,0 +1,145 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.AbsenceReportDto;
+import com.hr.newwork.data.dto.AbsenceReportRowDto;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.util.SecurityUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Org-level absence reporting: person-days absent, working days absent and peak absence per department and month.
+ * <p>
+ * Matching requests are streamed from the database as epoch-day pairs (no entity or {@link LocalDate} per row) into
+ * per-department primitive columns, then reduced by {@link AbsenceReportEngine} on a dedicated fork/join pool of
+ * {@code absence.report.threads} threads. Approved requests are counted, optionally pending ones too; the exclusion
+ * constraint on pending and approved requests keeps one user's requests from overlapping, so person-days are not
+ * counted twice.
+ */
+@Service
+public class AbsenceReportService {
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceReportService.class);
+
+    private static final String SELECT =
+        "SELECT u.department, a.start_date - DATE '1970-01-01', a.end_date - DATE '1970-01-01' " +
+        "FROM absence_requests a JOIN users u ON u.id = a.user_id " +
+        "WHERE a.status = ANY (?::text[]) AND a.period && daterange(?::date, ?::date, '[]')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SecurityUtil securityUtil;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final ForkJoinPool reportPool;
+    private final int fetchSize;
+    private final int maxDays;
+
+    public AbsenceReportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                SecurityUtil securityUtil,
+                                WorkingDayCalendar workingDayCalendar,
+                                @Value("${absence.report.threads:0}") int threads,
+                                @Value("${absence.report.fetch-size:2000}") int fetchSize,
+                                @Value("${absence.report.max-days:1830}") int maxDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.securityUtil = securityUtil;
+        this.workingDayCalendar = workingDayCalendar;
+        this.reportPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        this.fetchSize = fetchSize;
+        this.maxDays = maxDays;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reportPool.shutdownNow();
+    }
+
+    /**
+     * Builds the monthly department report. Only admins may run it.
+     * @param from first day of the report (inclusive)
+     * @param to last day of the report (inclusive)
+     * @param includePending whether pending requests are counted besides approved ones
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws BadRequestException if the range is inverted or longer than {@code absence.report.max-days}
+     */
+    public AbsenceReportDto monthlyReportAsCurrentUser(LocalDate from, LocalDate to, boolean includePending) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can run absence reports");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Invalid range: 'to' must be on or after 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException("Range too long: at most " + maxDays + " days");
+        }
+        return monthlyReport(from, to, includePending);
+    }
+
+    AbsenceReportDto monthlyReport(LocalDate from, LocalDate to, boolean includePending) {
+        long started = System.currentTimeMillis();
+        String[] statuses = includePending ? new String[] {"APPROVED", "PENDING"} : new String[] {"APPROVED"};
+        Map<String, AbsenceReportEngine.Ranges> byDepartment = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setArray(1, con.createArrayOf("text", statuses));
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        }, rs -> {
+            byDepartment.computeIfAbsent(rs.getString(1), d -> new AbsenceReportEngine.Ranges())
+                .add(rs.getInt(2), rs.getInt(3));
+        }));
+
+        AbsenceReportEngine.Window window = AbsenceReportEngine.Window.monthly(from, to, workingDayCalendar::isWorkingDay);
+        List<Map.Entry<String, AbsenceReportEngine.Ranges>> groups = new ArrayList<>(byDepartment.entrySet());
+        groups.sort(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder())));
+        List<AbsenceReportEngine.Totals> totals = AbsenceReportEngine.sweepAll(groups, window, reportPool);
+
+        int[] bucketStarts = window.bucketStarts();
+        YearMonth[] months = new YearMonth[bucketStarts.length];
+        for (int b = 0; b < months.length; b++) {
+            months[b] = YearMonth.from(from.plusDays(bucketStarts[b]));
+        }
+        List<AbsenceReportRowDto> rows = new ArrayList<>(groups.size() * months.length);
+        long requests = 0;
+        for (int g = 0; g < groups.size(); g++) {
+            String department = groups.get(g).getKey();
+            requests += groups.get(g).getValue().size;
+            AbsenceReportEngine.Totals t = totals.get(g);
+            for (int b = 0; b < months.length; b++) {
+                rows.add(new AbsenceReportRowDto(department, months[b], t.absenceDays[b], t.workingDays[b], t.peakAbsent[b]));
+            }
+        }
+        logger.debug("Absence report over {} requests in {} departments built in {} ms", requests, groups.size(),
+            System.currentTimeMillis() - started);
+        return AbsenceReportDto.builder()
+            .from(from)
+            .to(to)
+            .includesPending(includePending)
+            .requests(requests)
+            .rows(rows)
+            .build();
+    }
+}
@@ -1,20 +1,50 @@
 package com.hr.newwork.services;
 
+import com.hr.newwork.data.dto.AbsenceDecisionOutcomeDto;
+import com.hr.newwork.data.dto.AbsenceDecisionRequestDto;
 import com.hr.newwork.data.dto.AbsenceRequestDto;
+import com.hr.newwork.data.dto.LeaveBalanceDto;
+import com.hr.newwork.data.dto.TeamAbsenceDto;
+import com.hr.newwork.data.dto.TeamCalendarDto;
 import com.hr.newwork.data.entity.AbsenceRequest;
 import com.hr.newwork.data.entity.User;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ConflictException;
 import com.hr.newwork.exceptions.ForbiddenException;
 import com.hr.newwork.exceptions.NotFoundException;
 import com.hr.newwork.repositories.AbsenceRequestRepository;
 import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.services.feed.AbsenceChange;
+import com.hr.newwork.services.feed.AbsenceChangesEvent;
+import com.hr.newwork.services.feed.AbsenceFeed;
+import com.hr.newwork.util.ETagUtil;
+import com.hr.newwork.util.enums.AbsenceDecisionOutcome;
 import com.hr.newwork.util.enums.AbsenceStatus;
+import com.hr.newwork.util.enums.AbsenceType;
+import com.hr.newwork.util.enums.Role;
 import com.hr.newwork.util.mappers.AbsenceRequestMapper;
 import lombok.RequiredArgsConstructor;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,23 +54,56 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class AbsenceService {
+    /** Exclusion constraint of migration 011 keeping a user's pending and approved absences apart. */
+    private static final String OVERLAP_CONSTRAINT = "ex_absence_requests_no_overlap";
+
     private final AbsenceRequestRepository absenceRequestRepository;
     private final UserRepository userRepository;
     private final com.hr.newwork.util.SecurityUtil securityUtil;
+    private final TeamAvailabilityService teamAvailabilityService;
+    private final LeaveBalanceService leaveBalanceService;
+    private final AbsenceFeed absenceFeed;
+    private final ApplicationEventPublisher eventPublisher;
+
+    static final int MAX_BULK_DECISIONS = 500;
+    static final int MAX_QUEUE_PAGE_SIZE = 200;
+    static final Set<String> QUEUE_SORTS = Set.of("createdAt", "updatedAt", "startDate", "endDate", "status", "type");
+    /** Order of queue pages filtered by {@code since}: the filtered column, then id to break ties. */
+    static final Sort SINCE_SORT = Sort.by(Sort.Order.asc("updatedAt"), Sort.Order.asc("id"));
 
     /**
      * Submits a new absence request for the current user.
      * @param dto the absence request DTO
      * @return the created AbsenceRequestDto
+     * @throws BadRequestException if the dates are missing or the end date is before the start date
+     * @throws ConflictException if the range overlaps one of the user's pending or approved absences
      */
     @Transactional
     public AbsenceRequestDto submitAbsence(AbsenceRequestDto dto) {
+        if (dto.getStartDate() == null || dto.getEndDate() == null) {
+            throw new BadRequestException("startDate and endDate are required");
+        }
+        if (dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
         User user = securityUtil.getCurrentUser();
+        if (absenceRequestRepository.existsOverlapping(user.getId(), dto.getStartDate(), dto.getEndDate())) {
+            throw new ConflictException("The requested dates overlap an existing pending or approved absence");
+        }
         AbsenceRequest entity = AbsenceRequestMapper.toEntity(dto, user);
         entity.setStatus(AbsenceStatus.PENDING);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
-        AbsenceRequest saved = absenceRequestRepository.save(entity);
+        AbsenceRequest saved;
+        try {
+            // Flush now so a concurrent overlapping submit, caught by the exclusion constraint, surfaces here
+            saved = absenceRequestRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) throw e;
+            throw new ConflictException("The requested dates overlap an existing pending or approved absence");
+        }
+        teamAvailabilityService.invalidate(managerId(user));
+        publishChanges(List.of(change(saved)));
         return AbsenceRequestMapper.toDto(saved);
     }
 
@@ -60,6 +123,7 @@ public class AbsenceService {
      * @return the updated AbsenceRequestDto
      * @throws NotFoundException if the absence request is not found
      * @throws ForbiddenException if the user is not allowed to approve
+     * @throws ConflictException if a rejected absence is re-approved while it overlaps another one
      */
     @Transactional
     public AbsenceRequestDto approveAbsence(UUID id) {
@@ -69,9 +133,19 @@ public class AbsenceService {
         if (!(isManager || isAdmin)) {
             throw new ForbiddenException("Forbidden");
         }
+        AbsenceStatus previous = ar.getStatus();
         ar.setStatus(AbsenceStatus.APPROVED);
         ar.setUpdatedAt(LocalDateTime.now());
-        AbsenceRequest saved = absenceRequestRepository.save(ar);
+        AbsenceRequest saved;
+        try {
+            saved = absenceRequestRepository.saveAndFlush(ar);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) throw e;
+            throw new ConflictException("The absence overlaps another pending or approved absence of the user");
+        }
+        leaveBalanceService.applyStatusChanges(List.of(statusChange(saved, previous)));
+        teamAvailabilityService.invalidate(managerId(ar.getUser()));
+        publishChanges(List.of(change(saved)));
         return AbsenceRequestMapper.toDto(saved);
     }
 
@@ -90,12 +164,92 @@ public class AbsenceService {
         if (!(isManager || isAdmin)) {
             throw new ForbiddenException("Forbidden");
         }
+        AbsenceStatus previous = ar.getStatus();
         ar.setStatus(AbsenceStatus.REJECTED);
         ar.setUpdatedAt(LocalDateTime.now());
-        AbsenceRequest saved = absenceRequestRepository.save(ar);
+        AbsenceRequest saved;
+        try {
+            saved = absenceRequestRepository.saveAndFlush(ar);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) throw e;
+            throw new ConflictException("The absence overlaps another pending or approved absence of the user");
+        }
+        leaveBalanceService.applyStatusChanges(List.of(statusChange(saved, previous)));
+        teamAvailabilityService.invalidate(managerId(ar.getUser()));
+        publishChanges(List.of(change(saved)));
         return AbsenceRequestMapper.toDto(saved);
     }
 
+    /**
+     * Approves or rejects several pending absence requests in one transaction.
+     * The requests are locked and authorized with one query (the caller must manage each requester, or be an admin)
+     * and the allowed ones are updated with one statement. Unlike the single-request endpoints, only pending requests
+     * are decided; the others are reported as {@code NOT_PENDING}.
+     * @param request the ids (at most {@value #MAX_BULK_DECISIONS}, duplicates ignored) and the decision, APPROVE or REJECT
+     * @return one outcome per distinct id, in request order
+     * @throws BadRequestException if the ids are missing or too many, or the decision is unknown
+     */
+    @Transactional
+    public List<AbsenceDecisionOutcomeDto> decideAbsences(AbsenceDecisionRequestDto request) {
+        if (request.getIds() == null || request.getIds().isEmpty() || request.getIds().contains(null)) {
+            throw new BadRequestException("ids must be a non-empty list of absence request ids");
+        }
+        AbsenceStatus decision = parseDecision(request.getDecision());
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        if (ids.size() > MAX_BULK_DECISIONS) {
+            throw new BadRequestException("At most " + MAX_BULK_DECISIONS + " absence requests can be decided at once");
+        }
+        UUID currentUserId = securityUtil.getCurrentUserId();
+        boolean isAdmin = securityUtil.isCurrentUserAdmin();
+        Map<UUID, AbsenceRequestRepository.DecisionTargetRow> targets = new HashMap<>();
+        for (AbsenceRequestRepository.DecisionTargetRow row : absenceRequestRepository.lockDecisionTargets(ids)) {
+            targets.put(row.getId(), row);
+        }
+        AbsenceDecisionOutcome decided = decision == AbsenceStatus.APPROVED ? AbsenceDecisionOutcome.APPROVED : AbsenceDecisionOutcome.REJECTED;
+        List<AbsenceDecisionOutcomeDto> outcomes = new ArrayList<>(ids.size());
+        List<UUID> allowed = new ArrayList<>();
+        Set<UUID> managers = new HashSet<>();
+        for (UUID id : ids) {
+            AbsenceRequestRepository.DecisionTargetRow target = targets.get(id);
+            AbsenceDecisionOutcome outcome;
+            if (target == null) {
+                outcome = AbsenceDecisionOutcome.NOT_FOUND;
+            } else if (!isAdmin && !currentUserId.equals(target.getManagerId())) {
+                outcome = AbsenceDecisionOutcome.FORBIDDEN;
+            } else if (!AbsenceStatus.PENDING.name().equals(target.getStatus())) {
+                outcome = AbsenceDecisionOutcome.NOT_PENDING;
+            } else {
+                outcome = decided;
+                allowed.add(id);
+                if (target.getManagerId() != null) managers.add(target.getManagerId());
+            }
+            outcomes.add(new AbsenceDecisionOutcomeDto(id, outcome.name()));
+        }
+        if (!allowed.isEmpty()) {
+            // The rows are locked, so every allowed request is still pending here
+            LocalDateTime now = LocalDateTime.now();
+            absenceRequestRepository.decidePending(allowed, decision, now);
+            List<LeaveBalanceService.StatusChange> changes = new ArrayList<>(allowed.size());
+            List<AbsenceChange> feedChanges = new ArrayList<>(allowed.size());
+            for (UUID id : allowed) {
+                AbsenceRequestRepository.DecisionTargetRow target = targets.get(id);
+                changes.add(new LeaveBalanceService.StatusChange(id, target.getUserId(), parseType(target.getType()),
+                    target.getStartDate(), target.getEndDate(), AbsenceStatus.PENDING, decision));
+                feedChanges.add(new AbsenceChange(id, target.getUserId(), target.getManagerId(), decision, now));
+            }
+            leaveBalanceService.applyStatusChanges(changes);
+            managers.forEach(teamAvailabilityService::invalidate);
+            publishChanges(feedChanges);
+        }
+        return outcomes;
+    }
+
+    private static AbsenceStatus parseDecision(String decision) {
+        if ("APPROVE".equalsIgnoreCase(decision) || "APPROVED".equalsIgnoreCase(decision)) return AbsenceStatus.APPROVED;
+        if ("REJECT".equalsIgnoreCase(decision) || "REJECTED".equalsIgnoreCase(decision)) return AbsenceStatus.REJECTED;
+        throw new BadRequestException("decision must be APPROVE or REJECT");
+    }
+
     /**
      * Lists absence requests for a user by UUID or email.
      * Accepts either a UUID string or an email as input.
@@ -103,32 +257,136 @@ public class AbsenceService {
      * @return list of AbsenceRequestDto
      */
     public List<AbsenceRequestDto> listAbsences(String userIdOrEmail) {
-        User user = null;
+        List<AbsenceRequest> absences = absenceRequestRepository.findByUserIdOrderByCreatedAtAscIdAsc(resolveUserId(userIdOrEmail));
+        return absences.stream().map(AbsenceRequestMapper::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the ETag of {@link #listAbsences(String)}, a digest of the ids and versions of the listed requests.
+     * @param userIdOrEmail the user's UUID or email
+     * @return the strong ETag
+     * @throws NotFoundException if the user does not exist
+     */
+    public String getAbsencesETag(String userIdOrEmail) {
+        return ETagUtil.ofList(absenceRequestRepository.findVersionsByUserId(resolveUserId(userIdOrEmail)),
+            AbsenceRequestRepository.VersionRow::getId, AbsenceRequestRepository.VersionRow::getVersion);
+    }
+
+    private UUID resolveUserId(String userIdOrEmail) {
+        UUID userId;
         try {
-            UUID userId = UUID.fromString(userIdOrEmail);
-            user = userRepository.findById(userId)
-                    .orElseThrow(() -> new NotFoundException("User not found for id: " + userIdOrEmail));
+            userId = UUID.fromString(userIdOrEmail);
         } catch (IllegalArgumentException e) {
             // Not a UUID, try as email
-            user = userRepository.findByEmail(userIdOrEmail)
-                    .orElseThrow(() -> new NotFoundException("User not found for email: " + userIdOrEmail));
+            return userRepository.findByEmail(userIdOrEmail)
+                    .orElseThrow(() -> new NotFoundException("User not found for email: " + userIdOrEmail))
+                    .getId();
         }
-        List<AbsenceRequest> absences = absenceRequestRepository.findByUserId(user.getId());
-        return absences.stream().map(AbsenceRequestMapper::toDto).collect(Collectors.toList());
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found for id: " + userIdOrEmail);
+        }
+        return userId;
     }
 
     /**
-     * Lists all absences for users managed by the current authenticated manager filtered by status.
-     * Only accessible by managers.
-     * @param status the absence status to filter by
-     * @return list of AbsenceRequestDto
+     * Pages through the absence requests of the current manager's direct reports, with each requester's name,
+     * in one statement. The manager is authorized and identified from the access token, without a user lookup.
+     * @param status the status to match, or null for any
+     * @param since only requests created or updated after this time, or null; polling clients pass the latest
+     *              {@code updatedAt} they have seen. When given, the page is always ordered by {@link #SINCE_SORT},
+     *              the column the filter is on, so that polling cannot skip changes between pages
+     * @param pageable page (size capped at {@value #MAX_QUEUE_PAGE_SIZE}) and sort, by one of {@link #QUEUE_SORTS}
+     * @return the page of TeamAbsenceDto
+     * @throws ForbiddenException if the token carries no MANAGER role
+     * @throws BadRequestException if the sort property is not supported
      */
-    public List<AbsenceRequestDto> listAbsencesForCurrentManagerByStatus(AbsenceStatus status) {
-        User current = securityUtil.getCurrentUser();
-        if (!securityUtil.isCurrentUserManager()) {
+    public Page<TeamAbsenceDto> listAbsencesForCurrentManager(AbsenceStatus status, LocalDateTime since, Pageable pageable) {
+        if (!securityUtil.currentUserHasRole(Role.MANAGER)) {
             throw new ForbiddenException("Only managers can view absences for their reports.");
         }
-        List<AbsenceRequest> absences = absenceRequestRepository.findByUser_Manager_IdAndStatus(current.getId(), status);
-        return absences.stream().map(AbsenceRequestMapper::toDto).collect(Collectors.toList());
+        for (Sort.Order order : pageable.getSort()) {
+            if (!QUEUE_SORTS.contains(order.getProperty())) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty() + ", expected one of " + QUEUE_SORTS);
+            }
+        }
+        Sort sort = since != null ? SINCE_SORT : pageable.getSort();
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_QUEUE_PAGE_SIZE), sort);
+        return absenceRequestRepository.findTeamQueue(securityUtil.getCurrentUserId(), status, since, page);
+    }
+
+    /**
+     * Lists pending and approved absences of the current manager's direct reports overlapping a date range.
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return list of AbsenceRequestDto ordered by start date
+     */
+    public List<AbsenceRequestDto> listTeamAbsencesBetween(LocalDate from, LocalDate to) {
+        return teamAvailabilityService.whoIsOut(from, to);
+    }
+
+    /**
+     * Builds the day-by-day absence calendar of the current manager's direct reports.
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the calendar with per-report day bitmaps
+     */
+    public TeamCalendarDto getTeamCalendar(LocalDate from, LocalDate to) {
+        return teamAvailabilityService.calendar(from, to);
+    }
+
+    /**
+     * Returns the current user's vacation balance for a year.
+     * @param year the leave year
+     * @return the balance, in working days
+     */
+    public LeaveBalanceDto getLeaveBalance(int year) {
+        return leaveBalanceService.getBalance(year);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of status changes to the current user's absences and, for a manager, to
+     * their direct reports' absences.
+     * @return the emitter
+     * @throws com.hr.newwork.exceptions.TooManyRequestsException if too many streams are open
+     */
+    public SseEmitter subscribeToChanges() {
+        return absenceFeed.subscribe(securityUtil.getCurrentUserId());
+    }
+
+    private void publishChanges(List<AbsenceChange> changes) {
+        // Relayed to the change feed around the commit, see AbsenceChangeRelay
+        eventPublisher.publishEvent(new AbsenceChangesEvent(changes));
+    }
+
+    private static AbsenceChange change(AbsenceRequest ar) {
+        return new AbsenceChange(ar.getId(), ar.getUser().getId(), managerId(ar.getUser()), ar.getStatus(), ar.getUpdatedAt());
+    }
+
+    private static LeaveBalanceService.StatusChange statusChange(AbsenceRequest ar, AbsenceStatus previous) {
+        return new LeaveBalanceService.StatusChange(ar.getId(), ar.getUser().getId(), ar.getType(),
+            ar.getStartDate(), ar.getEndDate(), previous, ar.getStatus());
+    }
+
+    private static AbsenceType parseType(String type) {
+        return type != null ? AbsenceType.fromString(type) : null;
+    }
+
+    private static UUID managerId(User user) {
+        // The manager is a lazy proxy; reading its id does not load it
+        return user != null && user.getManager() != null ? user.getManager().getId() : null;
+    }
+
+    /**
+     * Whether the violation is the overlap exclusion constraint, as opposed to any other constraint (which is a bug
+     * or bad data, not a user conflict).
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psql) {
+                ServerErrorMessage message = psql.getServerErrorMessage();
+                return message != null && OVERLAP_CONSTRAINT.equals(message.getConstraint());
+            }
+        }
+        return false;
     }
 }
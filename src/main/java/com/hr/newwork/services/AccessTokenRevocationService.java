@@ -0,0 +1,110 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.config.security.AccessTokenRevocationCache;
+import com.hr.newwork.data.entity.AccessTokenRevocation;
+import com.hr.newwork.repositories.AccessTokenRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Records access token revocations. Each revocation is visible to this instance as soon as its transaction commits,
+ * and to other instances after their next {@link AccessTokenRevocationCache} refresh.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccessTokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationService.class);
+
+    private final AccessTokenRevocationRepository revocationRepository;
+    private final AccessTokenRevocationCache revocationCache;
+
+    @Value("${jwt.expiration:3600000}")
+    private long jwtExpirationMs;
+
+    @Value("${jwt.revocation.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    /**
+     * Revokes a single access token.
+     * @param jti the token id
+     * @param expiresAt the token's expiry
+     * @param userId the token's user, for reference
+     */
+    @Transactional
+    public void revokeToken(String jti, Date expiresAt, UUID userId) {
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setJti(jti);
+        revocation.setUserId(userId);
+        revocation.setRevokedAt(new Date());
+        revocation.setExpiresAt(expiresAt);
+        revocationRepository.save(revocation);
+        refreshAfterCommit();
+    }
+
+    /**
+     * Revokes every access token issued to a user so far, e.g. when the user is deactivated.
+     * @param userId the user's ID
+     */
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        Date now = new Date();
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setRevokedAt(now);
+        revocation.setExpiresAt(new Date(now.getTime() + jwtExpirationMs));
+        revocationRepository.save(revocation);
+        refreshAfterCommit();
+    }
+
+    /**
+     * Revokes every access token issued so far to the users in a department and/or with a role.
+     * @return number of users covered
+     */
+    @Transactional
+    public int revokeAllForUsersMatching(String department, String role) {
+        Date now = new Date();
+        int users = revocationRepository.revokeAllForUsersMatching(department, role, now, new Date(now.getTime() + jwtExpirationMs));
+        refreshAfterCommit();
+        return users;
+    }
+
+    /**
+     * Deletes revocations whose tokens have all expired, in chunks.
+     */
+    @Scheduled(cron = "${refresh-token.purge.cron:0 */15 * * * *}")
+    public void purgeExpired() {
+        Date now = new Date();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = revocationRepository.purgeBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            logger.info("Purged {} expired access token revocations", total);
+        }
+    }
+
+    private void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revocationCache.refresh();
+                }
+            });
+        } else {
+            revocationCache.refresh();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hr.newwork.services;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * One-shot backfill of audit rollups from existing audit_log history.
+ * Enabled with {@code --audit.rollup.backfill.enabled=true}; optional ISO-8601 bounds via
+ * {@code audit.rollup.backfill.from} and {@code audit.rollup.backfill.to}, which default to the oldest audit log entry
+ * and now.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "audit.rollup.backfill", name = "enabled", havingValue = "true")
+public class AuditRollupBackfillRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupBackfillRunner.class);
+
+    private final AuditRollupService auditRollupService;
+
+    @Value("${audit.rollup.backfill.from:}")
+    private String from;
+
+    @Value("${audit.rollup.backfill.to:}")
+    private String to;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Instant fromInstant = from.isBlank() ? null : Instant.parse(from);
+        Instant toInstant = to.isBlank() ? null : Instant.parse(to);
+        logger.info("Starting audit rollup backfill (from={}, to={})", fromInstant, toInstant);
+        int written = auditRollupService.backfill(fromInstant, toInstant);
+        logger.info("Audit rollup backfill finished, {} rollup rows written", written);
+    }
+}
@@ -0,0 +1,120 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.AuditLogRollupDto;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.repositories.AuditLogRepository;
+import com.hr.newwork.repositories.AuditLogRollupRepository;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.enums.RollupGranularity;
+import com.hr.newwork.util.mappers.AuditLogRollupMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service for pre-aggregated audit activity rollups.
+ * Hourly and daily buckets are maintained incrementally by a database trigger on audit_log inserts,
+ * so dashboard reads never aggregate the raw audit table. Existing history is loaded through {@link #backfill}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupService.class);
+
+    private final AuditLogRollupRepository auditLogRollupRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final SecurityUtil securityUtil;
+
+    /**
+     * Retrieves rollup buckets of the given granularity, optionally filtered by actor, table, action and time range.
+     *
+     * @param granularity  Bucket size (hour or day)
+     * @param actorId      Optional filter by actor (user) UUID
+     * @param targetTable  Optional filter by target table/entity
+     * @param action       Optional filter by action type
+     * @param from         Optional lower bound on bucket start (inclusive)
+     * @param to           Optional upper bound on bucket start (exclusive)
+     * @return list of rollup buckets ordered by bucket start
+     */
+    public List<AuditLogRollupDto> findRollups(RollupGranularity granularity, UUID actorId, String targetTable, String action, Instant from, Instant to) {
+        return auditLogRollupRepository.findFiltered(granularity, actorId, targetTable, action, toLocal(from), toLocal(to)).stream()
+            .map(AuditLogRollupMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuilds hourly and daily rollups from raw audit logs for whole days in [from, to).
+     * The range is widened to day boundaries so no bucket is recomputed from a partial window.
+     * Defaults: from = oldest audit log entry, to = now, so today's entries are covered too. Buckets from the start
+     * of the current day are recounted last, with audit_log inserts held until the backfill commits, so the trigger's
+     * increments land on top of the recount instead of being lost or counted twice.
+     *
+     * @param from Optional start of the range
+     * @param to   Optional end of the range
+     * @return number of rollup rows written
+     */
+    @Transactional
+    public int backfill(Instant from, Instant to) {
+        LocalDateTime start = from != null ? toLocal(from) : auditLogRepository.findEarliestTimestamp();
+        if (start == null) {
+            return 0; // No audit history yet
+        }
+        LocalDateTime rangeStart = start.toLocalDate().atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime rangeEnd = ceilToDay(to != null ? toLocal(to) : now);
+        if (!rangeStart.isBefore(rangeEnd)) {
+            return 0;
+        }
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        int written = 0;
+        if (rangeStart.isBefore(today)) {
+            written += recount(rangeStart, rangeEnd.isBefore(today) ? rangeEnd : today);
+        }
+        if (rangeEnd.isAfter(today)) {
+            // Only held for the live part of the range, not while closed days are recounted
+            auditLogRepository.lockAgainstInserts();
+            written += recount(rangeStart.isAfter(today) ? rangeStart : today, rangeEnd);
+        }
+        logger.info("Audit rollup backfill for [{}, {}) wrote {} rows", rangeStart, rangeEnd, written);
+        return written;
+    }
+
+    private int recount(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        int written = 0;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            auditLogRollupRepository.deleteRange(granularity, rangeStart, rangeEnd);
+            written += auditLogRollupRepository.backfill(granularity.name(), granularity.truncUnit(), rangeStart, rangeEnd);
+        }
+        return written;
+    }
+
+    /**
+     * Same as {@link #backfill(Instant, Instant)} but restricted to administrators.
+     * @throws ForbiddenException if the current user is not an admin
+     */
+    @Transactional
+    public int backfillAsCurrentUser(Instant from, Instant to) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can backfill audit rollups");
+        }
+        return backfill(from, to);
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+
+    private static LocalDateTime ceilToDay(LocalDateTime time) {
+        LocalDateTime floor = time.toLocalDate().atStartOfDay();
+        return floor.equals(time) ? floor : floor.plusDays(1);
+    }
+}
@@ -1,29 +1,38 @@
 package com.hr.newwork.services;
 
+import com.hr.newwork.config.security.AuthenticatedUser;
 import com.hr.newwork.config.security.JwtTokenProvider;
 import com.hr.newwork.data.dto.LoginRequest;
 import com.hr.newwork.data.dto.LoginResponse;
 import com.hr.newwork.data.dto.RefreshTokenRequest;
 import com.hr.newwork.data.entity.RefreshToken;
-import com.hr.newwork.data.entity.User;
 import com.hr.newwork.exceptions.RefreshTokenFailedException;
 import com.hr.newwork.repositories.RefreshTokenRepository;
 import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.util.TokenDigestUtil;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
@@ -32,29 +41,35 @@ public class AuthService {
     @Value("${jwt.refresh-token-expiry:3600000}")
     private long refreshTokenExpiryMs;
 
+    @Value("${refresh-token.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
     /**
      * Authenticates a user using email and password, and returns JWT tokens.
      * Persists a refresh token for later validation.
      * @param loginRequest the login request containing email and password
+     * @param clientIp the client address, used for login throttling
      * @return LoginResponse containing accessToken, refreshToken, and expiresIn
      * @throws RuntimeException if credentials are invalid
      */
-    public LoginResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
+        UsernamePasswordAuthenticationToken credentials =
+            new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword());
+        credentials.setDetails(new WebAuthenticationDetails(clientIp, null));
+        Authentication authentication = authenticationManager.authenticate(credentials);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        // At this point, authentication succeeded, so the user is guaranteed to exist
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-            .orElseThrow(() -> new IllegalStateException("User should exist after successful authentication"));
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
 
         String accessToken = jwtTokenProvider.generateToken(authentication);
-        String refreshTokenStr = UUID.randomUUID().toString();
+        String refreshTokenStr = TokenDigestUtil.newToken();
         // Use expiry from property
         Date expiry = new Date(System.currentTimeMillis() + refreshTokenExpiryMs);
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(refreshTokenStr);
-        refreshToken.setUser(user);
+        refreshToken.setTokenHash(TokenDigestUtil.sha256Hex(refreshTokenStr));
+        // Each login starts a new token family; rotations stay in it
+        refreshToken.setFamilyId(UUID.randomUUID());
+        // Only the id is needed for the foreign key; no query
+        refreshToken.setUser(userRepository.getReferenceById(principal.getUserId()));
         refreshToken.setExpiryDate(expiry);
         refreshToken.setValid(true);
         refreshTokenRepository.save(refreshToken);
@@ -64,37 +79,67 @@ public class AuthService {
     }
 
     /**
-     * Issues a new access token using a valid refresh token.
+     * Issues a new access token using a valid refresh token, rotating the refresh token in a single statement.
+     * Presenting an already rotated (or revoked) token that has not yet expired is treated as reuse of a leaked token:
+     * every token of its family is revoked. The new access token carries the user's current roles.
      * @param refreshTokenRequest the refresh token request
-     * @return LoginResponse containing new accessToken, original refreshToken, and expiresIn
-     * @throws RuntimeException if refresh token is invalid or expired
+     * @return LoginResponse containing new accessToken, new refreshToken, and expiresIn
+     * @throws RefreshTokenFailedException if refresh token is invalid, expired or reused, or the user is inactive
      */
-    @Transactional
+    @Transactional(noRollbackFor = RefreshTokenFailedException.class)
     public LoginResponse refresh(RefreshTokenRequest refreshTokenRequest) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenRequest.getRefreshToken())
-                .orElseThrow(() -> new RefreshTokenFailedException("Invalid refresh token"));
-        if (!refreshToken.isValid() || refreshToken.getExpiryDate().before(new Date())) {
-            throw new RefreshTokenFailedException("Refresh token expired or invalid");
+        String presented = refreshTokenRequest.getRefreshToken();
+        if (presented == null || presented.isBlank()) {
+            throw new RefreshTokenFailedException("Invalid refresh token");
         }
-        // Invalidate the used refresh token
-        refreshToken.setValid(false);
-        refreshTokenRepository.save(refreshToken);
+        String tokenHash = TokenDigestUtil.sha256Hex(presented);
+        String newRefreshTokenStr = TokenDigestUtil.newToken();
+        Date now = new Date();
+        Date newExpiry = new Date(now.getTime() + refreshTokenExpiryMs);
 
-        User user = refreshToken.getUser();
-        Authentication authentication = new UsernamePasswordAuthenticationToken(user.getEmail(), null, null);
+        Optional<UUID> userId = refreshTokenRepository.rotate(tokenHash, TokenDigestUtil.sha256Hex(newRefreshTokenStr), newExpiry, now);
+        if (userId.isEmpty()) {
+            throw rejectRefresh(tokenHash, now);
+        }
+        // Email and current roles in one query, so the new access token keeps the user's roles
+        List<UserRepository.TokenSubjectRow> rows = userRepository.findTokenSubjectById(userId.get());
+        if (rows.isEmpty()) {
+            throw new RefreshTokenFailedException("Invalid refresh token");
+        }
+        List<String> roleNames = rows.stream()
+                .map(UserRepository.TokenSubjectRow::getRoleName)
+                .filter(Objects::nonNull)
+                .toList();
+        AuthenticatedUser principal = AuthenticatedUser.of(userId.get(), rows.get(0).getEmail(), roleNames);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
         String accessToken = jwtTokenProvider.generateToken(authentication);
 
-        // Generate a new refresh token
-        String newRefreshTokenStr = UUID.randomUUID().toString();
-        Date newExpiry = new Date(System.currentTimeMillis() + refreshTokenExpiryMs);
-        RefreshToken newRefreshToken = new RefreshToken();
-        newRefreshToken.setToken(newRefreshTokenStr);
-        newRefreshToken.setUser(user);
-        newRefreshToken.setExpiryDate(newExpiry);
-        newRefreshToken.setValid(true);
-        refreshTokenRepository.save(newRefreshToken);
-
         long expiresIn = newExpiry.getTime();
         return new LoginResponse(accessToken, newRefreshTokenStr, expiresIn);
     }
+
+    /**
+     * Explains a failed rotation. A token that was rotated less than {@code refresh-token.reuse-grace-ms} ago lost a
+     * race against a concurrent refresh of the same client (e.g. two tabs), since the conditional rotation lets exactly
+     * one win: it is rejected without further action. A later use of a rotated token is treated as theft and revokes
+     * the whole family.
+     */
+    private RefreshTokenFailedException rejectRefresh(String tokenHash, Date now) {
+        Optional<RefreshTokenRepository.ReuseCheckRow> existing = refreshTokenRepository.findReuseCheckByTokenHash(tokenHash);
+        if (existing.isEmpty()) {
+            return new RefreshTokenFailedException("Invalid refresh token");
+        }
+        RefreshTokenRepository.ReuseCheckRow token = existing.get();
+        if (!Boolean.TRUE.equals(token.getValid()) && token.getExpiryDate().after(now)) {
+            Date revokedAt = token.getRevokedAt();
+            if (revokedAt != null && now.getTime() - revokedAt.getTime() < reuseGraceMs) {
+                log.debug("Refresh token of family {} already rotated {} ms ago, rejecting concurrent refresh",
+                    token.getFamilyId(), now.getTime() - revokedAt.getTime());
+                return new RefreshTokenFailedException("Refresh token already rotated");
+            }
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            log.warn("Refresh token reuse detected for family {}, revoked {} token(s)", token.getFamilyId(), revoked);
+        }
+        return new RefreshTokenFailedException("Refresh token expired or invalid");
+    }
 }
@@ -10,10 +10,13 @@ import com.hr.newwork.exceptions.NotFoundException;
 import com.hr.newwork.repositories.FeedbackRepository;
 import com.hr.newwork.repositories.UserRepository;
 import com.hr.newwork.services.polish.FeedbackPolisher;
+import com.hr.newwork.util.ETagUtil;
 import com.hr.newwork.util.enums.FeedbackPolishStatus;
 import com.hr.newwork.util.enums.Visibility;
 import com.hr.newwork.util.mappers.FeedbackMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +31,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FeedbackService {
@@ -128,6 +132,29 @@ public class FeedbackService {
         return FeedbackMapper.toDto(feedback);
     }
 
+    /**
+     * Returns the ETag of {@link #getFeedback}, read from the versions of the feedback, its author and its target.
+     * Every authenticated user may view feedback (see canViewFeedback), so no access check is needed before answering
+     * with the tag; keep this in step if visibility rules are added.
+     * @param feedbackIdStr the feedback ID
+     * @return the strong ETag
+     * @throws BadRequestException if the ID is not a UUID
+     * @throws NotFoundException if the feedback does not exist
+     */
+    public String getFeedbackETag(String feedbackIdStr) {
+        UUID feedbackId;
+        try {
+            feedbackId = UUID.fromString(feedbackIdStr);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid feedback ID format");
+        }
+        FeedbackRepository.FeedbackVersionRow row = feedbackRepository.findFeedbackVersion(feedbackId)
+            .orElseThrow(() -> new NotFoundException("Feedback not found"));
+        return ETagUtil.of(row.getVersion(),
+            row.getAuthorVersion() != null ? row.getAuthorVersion() : -1,
+            row.getTargetVersion() != null ? row.getTargetVersion() : -1);
+    }
+
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = ((UserDetails) auth.getPrincipal()).getUsername();
@@ -169,6 +196,11 @@ public class FeedbackService {
             feedback.setStatus(FeedbackPolishStatus.FAILED);
             feedback.setPolishError(e.getMessage());
         }
-        feedbackRepository.save(feedback);
+        try {
+            feedbackRepository.save(feedback);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Edited while polishing: the edit reset the polish state, so this result is stale
+            log.debug("Discarding polish result of feedback {} edited meanwhile", feedbackId);
+        }
     }
 }
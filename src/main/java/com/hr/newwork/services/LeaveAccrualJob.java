@@ -0,0 +1,22 @@
+package com.hr.newwork.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Grants the current year's vacation allowance. Runs daily rather than once a year: accrual is idempotent, so a
+ * missed New Year run is caught up and users created during the year get their allowance by the next morning.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveAccrualJob {
+    private final LeaveBalanceService leaveBalanceService;
+
+    @Scheduled(cron = "${leave.accrual.cron:0 5 0 * * *}")
+    public void accrue() {
+        leaveBalanceService.accrue(LocalDate.now().getYear());
+    }
+}
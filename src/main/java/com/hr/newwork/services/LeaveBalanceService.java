@@ -0,0 +1,289 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.LeaveBalanceDto;
+import com.hr.newwork.data.dto.LeaveMismatchDto;
+import com.hr.newwork.data.dto.LeaveReconciliationReportDto;
+import com.hr.newwork.data.entity.LeaveBalance;
+import com.hr.newwork.data.entity.LeaveBalanceKey;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.repositories.AbsenceRequestRepository;
+import com.hr.newwork.repositories.LeaveBalanceRepository;
+import com.hr.newwork.repositories.LeaveLedgerRepository;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.UuidV7;
+import com.hr.newwork.util.enums.AbsenceStatus;
+import com.hr.newwork.util.enums.AbsenceType;
+import com.hr.newwork.util.enums.LeaveEntryType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vacation balances backed by an append-only ledger.
+ * <p>
+ * Every change is a {@code leave_ledger} row, and {@code leave_balance} keeps the per-user, per-year sums in the same
+ * transaction, so a balance is one primary-key read. Approving a vacation request books its working days per year
+ * (see {@link WorkingDayCalendar}); moving an approved request to another status reverses exactly what was booked
+ * for it. Yearly allowances are granted by one set-based statement, and {@link #reconcile} checks the ledger against
+ * the approved requests. Only {@link AbsenceType#VACATION} uses the balance; balances may go negative.
+ */
+@Service
+public class LeaveBalanceService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceService.class);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+    // pg_advisory_xact_lock key serializing ledger backfills across instances
+    private static final long BACKFILL_LOCK_KEY = 0x6c65646765724231L;
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveLedgerRepository leaveLedgerRepository;
+    private final AbsenceRequestRepository absenceRequestRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityUtil securityUtil;
+    private final int daysPerYear;
+    private final int reconciliationYearsBack;
+    private final AtomicInteger lastMismatchCount = new AtomicInteger();
+
+    public LeaveBalanceService(LeaveBalanceRepository leaveBalanceRepository,
+                               LeaveLedgerRepository leaveLedgerRepository,
+                               AbsenceRequestRepository absenceRequestRepository,
+                               WorkingDayCalendar workingDayCalendar,
+                               JdbcTemplate jdbcTemplate,
+                               SecurityUtil securityUtil,
+                               MeterRegistry meterRegistry,
+                               @Value("${leave.accrual.days-per-year:25}") int daysPerYear,
+                               @Value("${leave.reconciliation.years-back:1}") int reconciliationYearsBack) {
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveLedgerRepository = leaveLedgerRepository;
+        this.absenceRequestRepository = absenceRequestRepository;
+        this.workingDayCalendar = workingDayCalendar;
+        this.jdbcTemplate = jdbcTemplate;
+        this.securityUtil = securityUtil;
+        this.daysPerYear = daysPerYear;
+        this.reconciliationYearsBack = reconciliationYearsBack;
+        Gauge.builder("leave.reconciliation.mismatches", lastMismatchCount, AtomicInteger::get)
+            .description("(user, year) pairs whose ledger usage differed from approved vacation at the last reconciliation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current user's vacation balance for a year; a year without ledger entries reads as zero.
+     * @param year the leave year
+     * @return the balance
+     */
+    public LeaveBalanceDto getBalance(int year) {
+        UUID userId = securityUtil.getCurrentUserId();
+        LeaveBalance balance = leaveBalanceRepository.findById(new LeaveBalanceKey(userId, year)).orElse(null);
+        int accrued = balance != null ? balance.getAccrued() : 0;
+        int used = balance != null ? balance.getUsed() : 0;
+        return LeaveBalanceDto.builder()
+            .userId(userId)
+            .year(year)
+            .accrued(accrued)
+            .used(used)
+            .remaining(accrued - used)
+            .build();
+    }
+
+    /**
+     * Books the ledger effect of absence status changes, in the caller's transaction: a vacation request becoming
+     * APPROVED uses its working days, and one leaving APPROVED gets back what was booked for it.
+     * Other changes are ignored. Ledger and balance writes go out as two JDBC batches.
+     * @param changes the status changes, already applied or about to be flushed in the same transaction
+     */
+    @Transactional
+    public void applyStatusChanges(List<StatusChange> changes) {
+        List<Movement> movements = new ArrayList<>();
+        List<UUID> reversed = new ArrayList<>();
+        for (StatusChange change : changes) {
+            if (change.type() != AbsenceType.VACATION || change.from() == change.to()) continue;
+            if (change.to() == AbsenceStatus.APPROVED) {
+                if (change.startDate() == null || change.endDate() == null) continue;
+                workingDayCalendar.workingDaysByYear(change.startDate(), change.endDate()).forEach((year, days) ->
+                    movements.add(new Movement(change.userId(), year, LeaveEntryType.USAGE, -days, change.absenceRequestId())));
+            } else if (change.from() == AbsenceStatus.APPROVED) {
+                reversed.add(change.absenceRequestId());
+            }
+        }
+        if (!reversed.isEmpty()) {
+            // Reverse what was booked rather than recounting, in case the holiday calendar changed since
+            for (LeaveLedgerRepository.BookedUsageRow row : leaveLedgerRepository.findBookedUsage(reversed)) {
+                movements.add(new Movement(row.getUserId(), row.getYear(), LeaveEntryType.REVERSAL, row.getDays(), row.getAbsenceRequestId()));
+            }
+        }
+        if (movements.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO leave_ledger (id, user_id, year, entry_type, days, absence_request_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            movements, movements.size(), (ps, m) -> {
+                ps.setObject(1, UuidV7.next());
+                ps.setObject(2, m.userId());
+                ps.setInt(3, m.year());
+                ps.setString(4, m.type().name());
+                ps.setInt(5, m.days());
+                ps.setObject(6, m.absenceRequestId());
+                ps.setTimestamp(7, now);
+            });
+
+        // One balance row per (user, year), in key order so concurrent batches lock rows in the same order
+        Map<LeaveBalanceKey, Integer> usedDelta = new TreeMap<>(Comparator.comparing(LeaveBalanceKey::getUserId)
+            .thenComparingInt(LeaveBalanceKey::getYear));
+        for (Movement m : movements) {
+            usedDelta.merge(new LeaveBalanceKey(m.userId(), m.year()), -m.days(), Integer::sum);
+        }
+        List<Map.Entry<LeaveBalanceKey, Integer>> deltas = new ArrayList<>(usedDelta.entrySet());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO leave_balance (user_id, year, accrued, used, updated_at) VALUES (?, ?, 0, ?, ?) " +
+            "ON CONFLICT (user_id, year) DO UPDATE SET used = leave_balance.used + EXCLUDED.used, updated_at = EXCLUDED.updated_at",
+            deltas, deltas.size(), (ps, e) -> {
+                ps.setObject(1, e.getKey().getUserId());
+                ps.setInt(2, e.getKey().getYear());
+                ps.setInt(3, e.getValue());
+                ps.setTimestamp(4, now);
+            });
+    }
+
+    /**
+     * Grants the yearly allowance ({@code leave.accrual.days-per-year}) to every active user not yet accrued for the
+     * year. Idempotent.
+     * @param year the leave year
+     * @return number of users accrued by this call
+     */
+    @Transactional
+    public int accrue(int year) {
+        int accrued = leaveLedgerRepository.accrueYear(year, daysPerYear);
+        if (accrued > 0) {
+            logger.info("Accrued {} vacation days for {} to {} users", daysPerYear, year, accrued);
+        }
+        return accrued;
+    }
+
+    /**
+     * Books the working days of approved vacation requests that have no ledger entry, such as those approved before
+     * the ledger was introduced, exactly as an approval would. Idempotent: booked requests are skipped, backfills on
+     * several instances run one after the other, and the requests are locked so a concurrent decision waits for the
+     * booking and then reverses it normally.
+     * @return number of requests booked
+     */
+    @Transactional
+    public int backfillApprovedVacation() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, BACKFILL_LOCK_KEY);
+        List<StatusChange> changes = new ArrayList<>();
+        for (AbsenceRequestRepository.UnbookedVacationRow row : absenceRequestRepository.lockUnbookedApprovedVacation()) {
+            changes.add(new StatusChange(row.getId(), row.getUserId(), AbsenceType.VACATION, row.getStartDate(),
+                row.getEndDate(), AbsenceStatus.PENDING, AbsenceStatus.APPROVED));
+        }
+        if (changes.isEmpty()) return 0;
+        applyStatusChanges(changes);
+        logger.info("Booked {} previously approved vacation requests into the leave ledger", changes.size());
+        return changes.size();
+    }
+
+    /**
+     * Same as {@link #accrue(int)} but restricted to administrators.
+     * @throws ForbiddenException if the current user is not an admin
+     */
+    @Transactional
+    public int accrueAsCurrentUser(int year) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can run leave accrual");
+        }
+        return accrue(year);
+    }
+
+    /**
+     * Verifies the leave data in two steps:
+     * <ol>
+     *     <li>every balance is compared with the sums of its ledger entries and rewritten if they differ
+     *     (the ledger is the source of truth);</li>
+     *     <li>ledger usage per user and year, from {@code leave.reconciliation.years-back} years ago on, is compared
+     *     with the working days of the approved vacation requests. Differences are reported, not fixed: they can be
+     *     legitimate, e.g. after a public holiday was added for already approved days.</li>
+     * </ol>
+     * Ledger writers wait while this runs, so the sums cannot miss an approval in flight.
+     * @return the report
+     */
+    @Transactional
+    public LeaveReconciliationReportDto reconcile() {
+        leaveBalanceRepository.lockLedgerForReconciliation();
+        int repaired = leaveBalanceRepository.repairFromLedger();
+
+        int fromYear = LocalDate.now().getYear() - reconciliationYearsBack;
+        LocalDate fromDate = LocalDate.of(fromYear, 1, 1);
+        Map<LeaveBalanceKey, Integer> expected = new HashMap<>();
+        for (AbsenceRequestRepository.ApprovedVacationRow row : absenceRequestRepository.findApprovedVacationEndingFrom(fromDate)) {
+            LocalDate start = row.getStartDate().isBefore(fromDate) ? fromDate : row.getStartDate();
+            workingDayCalendar.workingDaysByYear(start, row.getEndDate()).forEach((year, days) ->
+                expected.merge(new LeaveBalanceKey(row.getUserId(), year), days, Integer::sum));
+        }
+        List<LeaveMismatchDto> mismatches = new ArrayList<>();
+        Set<LeaveBalanceKey> seen = new HashSet<>();
+        for (LeaveLedgerRepository.UsageRow row : leaveLedgerRepository.sumUsageFrom(fromYear)) {
+            LeaveBalanceKey key = new LeaveBalanceKey(row.getUserId(), row.getYear());
+            seen.add(key);
+            int expectedUsed = expected.getOrDefault(key, 0);
+            if (row.getDays() != expectedUsed) {
+                mismatches.add(new LeaveMismatchDto(key.getUserId(), key.getYear(), row.getDays(), expectedUsed));
+            }
+        }
+        expected.forEach((key, days) -> {
+            if (days != 0 && !seen.contains(key)) {
+                mismatches.add(new LeaveMismatchDto(key.getUserId(), key.getYear(), 0, days));
+            }
+        });
+        lastMismatchCount.set(mismatches.size());
+        if (repaired > 0 || !mismatches.isEmpty()) {
+            logger.warn("Leave reconciliation: {} balances repaired from the ledger, {} ledger/request mismatches since {}",
+                repaired, mismatches.size(), fromYear);
+        }
+        return LeaveReconciliationReportDto.builder()
+            .checkedAt(LocalDateTime.now())
+            .fromYear(fromYear)
+            .balancesRepaired(repaired)
+            .mismatchCount(mismatches.size())
+            .mismatches(mismatches.size() > MAX_REPORTED_MISMATCHES ? mismatches.subList(0, MAX_REPORTED_MISMATCHES) : mismatches)
+            .build();
+    }
+
+    /**
+     * Same as {@link #reconcile()} but restricted to administrators.
+     * @throws ForbiddenException if the current user is not an admin
+     */
+    @Transactional
+    public LeaveReconciliationReportDto reconcileAsCurrentUser() {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can run leave reconciliation");
+        }
+        return reconcile();
+    }
+
+    /**
+     * A status change of one absence request.
+     */
+    public record StatusChange(UUID absenceRequestId, UUID userId, AbsenceType type, LocalDate startDate,
+                               LocalDate endDate, AbsenceStatus from, AbsenceStatus to) {
+    }
+
+    private record Movement(UUID userId, int year, LeaveEntryType type, int days, UUID absenceRequestId) {
+    }
+}
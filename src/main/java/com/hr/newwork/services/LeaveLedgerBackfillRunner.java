@@ -0,0 +1,27 @@
+package com.hr.newwork.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Brings the leave ledger in line with existing data at startup: books approved vacation requests that predate the
+ * ledger and grants the current year's allowance, so balances are right from the first deploy instead of the next
+ * accrual run. Both steps are idempotent and cheap once done. Disabled with {@code leave.backfill.enabled=false}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "leave.backfill", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LeaveLedgerBackfillRunner implements ApplicationRunner {
+    private final LeaveBalanceService leaveBalanceService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        leaveBalanceService.backfillApprovedVacation();
+        leaveBalanceService.accrue(LocalDate.now().getYear());
+    }
+}
@@ -0,0 +1,21 @@
+package com.hr.newwork.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks leave balances against the ledger and the ledger against approved vacation requests;
+ * see {@link LeaveBalanceService#reconcile()}. Findings are logged and exposed as the
+ * {@code leave.reconciliation.mismatches} gauge.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveReconciliationJob {
+    private final LeaveBalanceService leaveBalanceService;
+
+    @Scheduled(cron = "${leave.reconciliation.cron:0 30 2 * * *}")
+    public void reconcile() {
+        leaveBalanceService.reconcile();
+    }
+}
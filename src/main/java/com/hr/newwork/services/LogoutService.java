@@ -1,49 +1,94 @@
 package com.hr.newwork.services;
 
+import com.hr.newwork.config.security.AuthenticatedUser;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
 import com.hr.newwork.repositories.RefreshTokenRepository;
-import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.TokenDigestUtil;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import com.hr.newwork.data.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.UUID;
 
 /**
  * Service for handling logout and refresh token invalidation.
+ * All bulk paths are single set-based UPDATE statements, whatever the number of tokens or users involved.
  */
 @Service
 @RequiredArgsConstructor
 public class LogoutService {
+    private static final Logger logger = LoggerFactory.getLogger(LogoutService.class);
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final SecurityUtil securityUtil;
+
     /**
      * Invalidates the given refresh token.
      * @param refreshToken the refresh token to invalidate
      */
+    @Transactional
     public void logout(String refreshToken) {
-        refreshTokenRepository.findByToken(refreshToken).ifPresent(token -> {
-            token.setValid(false);
-            refreshTokenRepository.save(token);
-        });
+        refreshTokenRepository.revokeByTokenHash(TokenDigestUtil.sha256Hex(refreshToken), new Date());
     }
 
     /**
-     * Invalidates all valid and unexpired refresh tokens for the current authenticated user.
+     * Invalidates all valid refresh tokens for the current authenticated user, keyed by the userId from the JWT,
+     * and revokes the access token used for this request.
      */
+    @Transactional
     public void logoutForCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof UserDetails)) {
             return; // No authenticated user
         }
-        String email = ((UserDetails) auth.getPrincipal()).getUsername();
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) return;
-        java.util.Date now = new java.util.Date();
-        refreshTokenRepository.findAllByUserIdAndValidTrueAndExpiryDateAfter(user.getId(), now)
-                .forEach(token -> {
-                    token.setValid(false);
-                    refreshTokenRepository.save(token);
-                });
+        UUID userId = securityUtil.getCurrentUserId();
+        refreshTokenRepository.revokeAllForUser(userId, new Date());
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal && principal.getTokenId() != null) {
+            accessTokenRevocationService.revokeToken(principal.getTokenId(), principal.getTokenExpiresAt(), userId);
+        }
+    }
+
+    /**
+     * Invalidates all refresh tokens of one user and every access token issued to them so far.
+     * @param userId the user's ID
+     * @return number of invalidated refresh tokens
+     */
+    @Transactional
+    public int revokeSessionsForUser(UUID userId) {
+        accessTokenRevocationService.revokeAllForUser(userId);
+        return refreshTokenRepository.revokeAllForUser(userId, new Date());
+    }
+
+    /**
+     * Invalidates all sessions of every user in a department and/or with a role. Admin only.
+     * @param department the department name, or null for any department
+     * @param role the role name (e.g. EMPLOYEE), or null for any role
+     * @return number of invalidated tokens
+     * @throws BadRequestException if neither filter is given
+     * @throws ForbiddenException if the current user is not an admin
+     */
+    @Transactional
+    public int revokeSessionsAsAdmin(String department, String role) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can revoke sessions");
+        }
+        String departmentFilter = department == null || department.isBlank() ? null : department;
+        String roleFilter = role == null || role.isBlank() ? null : role.toUpperCase();
+        if (departmentFilter == null && roleFilter == null) {
+            throw new BadRequestException("At least one of department or role is required");
+        }
+        accessTokenRevocationService.revokeAllForUsersMatching(departmentFilter, roleFilter);
+        int revoked = refreshTokenRepository.revokeAllForUsersMatching(departmentFilter, roleFilter, new Date());
+        logger.info("Revoked {} refresh tokens (department={}, role={})", revoked, departmentFilter, roleFilter);
+        return revoked;
     }
 }
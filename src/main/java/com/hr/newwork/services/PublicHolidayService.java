@@ -0,0 +1,85 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.PublicHolidayDto;
+import com.hr.newwork.data.entity.PublicHoliday;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.exceptions.NotFoundException;
+import com.hr.newwork.repositories.PublicHolidayRepository;
+import com.hr.newwork.util.SecurityUtil;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin management of the {@code public_holiday} calendar. Each change is saved in its own transaction and then
+ * reloaded into this instance's {@link WorkingDayCalendar}; other instances pick it up within
+ * {@code leave.calendar.refresh-interval-ms}. Approved requests already booked in the leave ledger are not rebooked,
+ * so a change to past or booked dates shows up as a mismatch in the leave reconciliation.
+ */
+@Service
+@RequiredArgsConstructor
+public class PublicHolidayService {
+    private static final Logger logger = LoggerFactory.getLogger(PublicHolidayService.class);
+    private static final int MAX_NAME_LENGTH = 200;
+
+    private final PublicHolidayRepository publicHolidayRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final SecurityUtil securityUtil;
+
+    /**
+     * Lists the holidays of a year, in date order.
+     * @throws ForbiddenException if the current user is not an admin
+     */
+    public List<PublicHolidayDto> listHolidaysAsCurrentUser(int year) {
+        requireAdmin();
+        return publicHolidayRepository.findByHolidayDateBetweenOrderByHolidayDate(LocalDate.of(year, 1, 1),
+                LocalDate.of(year, 12, 31)).stream()
+            .map(holiday -> new PublicHolidayDto(holiday.getHolidayDate(), holiday.getName()))
+            .toList();
+    }
+
+    /**
+     * Adds a holiday, or renames it if the date is already one.
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws BadRequestException if the name is blank or longer than 200 characters
+     */
+    public PublicHolidayDto putHolidayAsCurrentUser(LocalDate date, String name) {
+        requireAdmin();
+        if (name == null || name.isBlank() || name.length() > MAX_NAME_LENGTH) {
+            throw new BadRequestException("Holiday name must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+        PublicHoliday holiday = publicHolidayRepository.findById(date).orElseGet(PublicHoliday::new);
+        holiday.setHolidayDate(date);
+        holiday.setName(name.strip());
+        publicHolidayRepository.save(holiday);
+        workingDayCalendar.reload();
+        logger.info("Public holiday {} set to '{}'", date, holiday.getName());
+        return new PublicHolidayDto(date, holiday.getName());
+    }
+
+    /**
+     * Removes a holiday.
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws NotFoundException if the date is not a holiday
+     */
+    public void deleteHolidayAsCurrentUser(LocalDate date) {
+        requireAdmin();
+        if (!publicHolidayRepository.existsById(date)) {
+            throw new NotFoundException("No public holiday on " + date);
+        }
+        publicHolidayRepository.deleteById(date);
+        workingDayCalendar.reload();
+        logger.info("Public holiday {} removed", date);
+    }
+
+    private void requireAdmin() {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can manage public holidays");
+        }
+    }
+}
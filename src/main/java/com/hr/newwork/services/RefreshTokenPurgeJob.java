@@ -0,0 +1,44 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.repositories.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Periodically deletes expired refresh tokens and invalid ones past the reuse-detection window.
+ * Deletes run in small chunks, each in its own transaction, so the job never holds long locks.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${refresh-token.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${refresh-token.purge.revoked-retention-ms:3600000}")
+    private long revokedRetentionMs;
+
+    @Scheduled(cron = "${refresh-token.purge.cron:0 */15 * * * *}")
+    public void purge() {
+        Date now = new Date();
+        Date revokedBefore = new Date(now.getTime() - revokedRetentionMs);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.purgeBatch(now, revokedBefore, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            logger.info("Purged {} expired or revoked refresh tokens", total);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hr.newwork.services;
 
 import com.hr.newwork.exceptions.RestClientServiceException;
+import com.hr.newwork.util.SensitiveDataSanitizer;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
@@ -106,7 +107,12 @@ public class RestClientService {
         HttpEntity<R> entity = new HttpEntity<>(body, httpHeaders);
         URI uri = buildUri(url, params);
         try {
-            logger.debug("{} {} | Headers: {} | Params: {} | Body: {}", method, uri, httpHeaders, params, body);
+            if (logger.isDebugEnabled()) {
+                // The RestTemplate aspect no longer logs these calls; mask credentials here instead
+                logger.debug("{} {} | Headers: {} | Params: {} | Body: {}", method, SensitiveDataSanitizer.sanitizeUri(uri),
+                        SensitiveDataSanitizer.sanitizeObject(headers), SensitiveDataSanitizer.sanitizeObject(params),
+                        SensitiveDataSanitizer.sanitizeObject(body));
+            }
             Supplier<ResponseEntity<T>> requestSupplier = () -> {
                 try {
                     ResponseEntity<T> response;
@@ -131,13 +137,13 @@ public class RestClientService {
             };
             return circuitBreaker.executeSupplier(requestSupplier);
         } catch (CallNotPermittedException ex) {
-            logger.error("Circuit breaker is OPEN for {} {}", method, uri);
+            logger.error("Circuit breaker is OPEN for {} {}", method, SensitiveDataSanitizer.sanitizeUri(uri));
             throw new RestClientServiceException("Circuit breaker is OPEN", ex);
         } catch (RestClientServiceException ex) {
-            logger.error("REST call failed: {} {} | {}", method, uri, ex.getMessage());
+            logger.error("REST call failed: {} {} | {}", method, SensitiveDataSanitizer.sanitizeUri(uri), ex.getMessage());
             throw ex;
         } catch (Exception ex) {
-            logger.error("Unexpected error: {} {} | {}", method, uri, ex.getMessage());
+            logger.error("Unexpected error: {} {} | {}", method, SensitiveDataSanitizer.sanitizeUri(uri), ex.getMessage());
             throw new RestClientServiceException("Unexpected error", ex);
         }
     }
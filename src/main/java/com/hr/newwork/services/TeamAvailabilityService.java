@@ -0,0 +1,265 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.AbsenceRequestDto;
+import com.hr.newwork.data.dto.TeamCalendarDto;
+import com.hr.newwork.data.dto.TeamCalendarMemberDto;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.repositories.AbsenceRequestRepository;
+import com.hr.newwork.util.IntervalTree;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.mappers.AbsenceRequestMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "who on my team is out between these dates" for manager dashboards.
+ * <p>
+ * Each manager's pending and approved team absences ending within the last {@code absence.availability.lookback-days}
+ * or later are loaded once into an {@link IntervalTree} keyed by epoch day, so dashboard queries do not touch the
+ * database. A snapshot is dropped when an absence of the team is submitted, approved or rejected on this instance
+ * (after the transaction commits), and otherwise expires after {@code absence.availability.cache-ttl-ms}, which bounds
+ * staleness for changes made on other instances. Ranges starting before the snapshot window go to the database.
+ * <p>
+ * The same invalidation covers the month views built by {@link #calendar}: per-report day bitmaps, built from one
+ * query and cached per manager for the last few windows requested.
+ */
+@Service
+public class TeamAvailabilityService {
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int CALENDARS_PER_MANAGER = 8;
+
+    private final AbsenceRequestRepository absenceRequestRepository;
+    private final SecurityUtil securityUtil;
+    private final long ttlMs;
+    private final int lookbackDays;
+
+    private final Map<UUID, TeamSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<CalendarWindow, CachedCalendar>> calendars = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TeamAvailabilityService(AbsenceRequestRepository absenceRequestRepository,
+                                   SecurityUtil securityUtil,
+                                   @Value("${absence.availability.cache-ttl-ms:300000}") long ttlMs,
+                                   @Value("${absence.availability.lookback-days:30}") int lookbackDays) {
+        this.absenceRequestRepository = absenceRequestRepository;
+        this.securityUtil = securityUtil;
+        this.ttlMs = ttlMs;
+        this.lookbackDays = lookbackDays;
+    }
+
+    /**
+     * Lists pending and approved absences of the current manager's direct reports overlapping [from, to].
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return overlapping absences, ordered by start date
+     * @throws ForbiddenException if the current user is not a manager
+     * @throws BadRequestException if the range is inverted or longer than a year
+     */
+    public List<AbsenceRequestDto> whoIsOut(LocalDate from, LocalDate to) {
+        UUID managerId = checkManagerAndRange(from, to);
+        TeamSnapshot snapshot = snapshot(managerId);
+        if (from.isBefore(snapshot.windowStart())) {
+            return absenceRequestRepository.findActiveForManagerOverlapping(managerId, from, to).stream()
+                .map(AbsenceRequestMapper::toDto)
+                .sorted(Comparator.comparing(AbsenceRequestDto::getStartDate))
+                .toList();
+        }
+        return snapshot.absences().overlapping((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Builds the day-by-day calendar of the current manager's active direct reports for [from, to]: one approved and
+     * one pending bitmap per report, with one bit per day.
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the calendar, members ordered by name
+     * @throws ForbiddenException if the current user is not a manager
+     * @throws BadRequestException if the range is inverted or longer than a year
+     */
+    public TeamCalendarDto calendar(LocalDate from, LocalDate to) {
+        UUID managerId = checkManagerAndRange(from, to);
+        CalendarWindow window = new CalendarWindow(from, to);
+        long now = System.currentTimeMillis();
+        Map<CalendarWindow, CachedCalendar> cached = calendars.get(managerId);
+        if (cached != null) {
+            CachedCalendar hit;
+            synchronized (cached) {
+                hit = cached.get(window);
+            }
+            if (hit != null && hit.expiresAt() > now) {
+                return hit.calendar();
+            }
+        }
+        long generation = generation(managerId).get();
+        TeamCalendarDto calendar = buildCalendar(absenceRequestRepository.findTeamCalendarRows(managerId, from, to), from, to);
+        if (generation(managerId).get() == generation) {
+            Map<CalendarWindow, CachedCalendar> windows = calendars.computeIfAbsent(managerId, id -> newCalendarCache());
+            synchronized (windows) {
+                windows.put(window, new CachedCalendar(calendar, now + ttlMs));
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Drops the cached snapshot of a manager's team once the current transaction commits.
+     * @param managerId the manager's user ID, or null (no-op)
+     */
+    public void invalidate(UUID managerId) {
+        if (managerId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(managerId);
+                }
+            });
+        } else {
+            evict(managerId);
+        }
+    }
+
+    private void evict(UUID managerId) {
+        generation(managerId).incrementAndGet();
+        snapshots.remove(managerId);
+        calendars.remove(managerId);
+    }
+
+    private UUID checkManagerAndRange(LocalDate from, LocalDate to) {
+        if (!securityUtil.isCurrentUserManager()) {
+            throw new ForbiddenException("Only managers can view team availability.");
+        }
+        // [from, to] is inclusive, so at most MAX_RANGE_DAYS days means 'to' strictly before from + MAX_RANGE_DAYS
+        if (to.isBefore(from) || !to.isBefore(from.plusDays(MAX_RANGE_DAYS))) {
+            throw new BadRequestException("Invalid range: 'to' must be on or after 'from' and span at most " + MAX_RANGE_DAYS + " days");
+        }
+        return securityUtil.getCurrentUserId();
+    }
+
+    private TeamSnapshot snapshot(UUID managerId) {
+        long now = System.currentTimeMillis();
+        TeamSnapshot snapshot = snapshots.get(managerId);
+        if (snapshot != null && snapshot.expiresAt() > now) {
+            return snapshot;
+        }
+        // A snapshot loaded while an invalidation lands may be stale: only cache it if the generation is unchanged
+        long generation = generation(managerId).get();
+        LocalDate windowStart = LocalDate.now().minusDays(lookbackDays);
+        List<AbsenceRequestDto> absences = absenceRequestRepository.findActiveForManagerFrom(managerId, windowStart).stream()
+            .map(AbsenceRequestMapper::toDto)
+            .filter(dto -> dto.getStartDate() != null && dto.getEndDate() != null)
+            .toList();
+        TeamSnapshot loaded = new TeamSnapshot(windowStart,
+            IntervalTree.of(absences, dto -> (int) dto.getStartDate().toEpochDay(), dto -> (int) dto.getEndDate().toEpochDay()),
+            now + ttlMs);
+        if (generation(managerId).get() == generation) {
+            snapshots.put(managerId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Folds the rows of {@link AbsenceRequestRepository#findTeamCalendarRows}, which arrive grouped by report, into
+     * one pair of bitmaps per report. Linear in rows plus members times window words.
+     */
+    static TeamCalendarDto buildCalendar(List<AbsenceRequestRepository.TeamCalendarRow> rows, LocalDate from, LocalDate to) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        long first = from.toEpochDay();
+        List<TeamCalendarMemberDto> members = new ArrayList<>();
+        String empty = encode(new long[words(days)], days);
+        int i = 0;
+        while (i < rows.size()) {
+            AbsenceRequestRepository.TeamCalendarRow head = rows.get(i);
+            long[] approved = null;
+            long[] pending = null;
+            for (; i < rows.size() && rows.get(i).getUserId().equals(head.getUserId()); i++) {
+                AbsenceRequestRepository.TeamCalendarRow row = rows.get(i);
+                if (row.getStartDate() == null || row.getEndDate() == null) continue;
+                int start = (int) Math.max(0, row.getStartDate().toEpochDay() - first);
+                int end = (int) Math.min(days - 1, row.getEndDate().toEpochDay() - first);
+                if (start > end) continue;
+                if ("APPROVED".equals(row.getStatus())) {
+                    if (approved == null) approved = new long[words(days)];
+                    setRange(approved, start, end);
+                } else {
+                    if (pending == null) pending = new long[words(days)];
+                    setRange(pending, start, end);
+                }
+            }
+            members.add(TeamCalendarMemberDto.builder()
+                .userId(head.getUserId())
+                .firstName(head.getFirstName())
+                .lastName(head.getLastName())
+                .approved(approved != null ? encode(approved, days) : empty)
+                .pending(pending != null ? encode(pending, days) : empty)
+                .build());
+        }
+        return TeamCalendarDto.builder().from(from).to(to).days(days).members(members).build();
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /** Sets bits [from, to] (inclusive), a word at a time. */
+    private static void setRange(long[] words, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            words[w] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /** Base64 of the first ceil(bits / 8) bytes, little-endian, so bit i is bit i % 8 of byte i / 8. */
+    private static String encode(long[] words, int bits) {
+        byte[] bytes = new byte[(bits + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static Map<CalendarWindow, CachedCalendar> newCalendarCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CalendarWindow, CachedCalendar> eldest) {
+                return size() > CALENDARS_PER_MANAGER;
+            }
+        };
+    }
+
+    private AtomicLong generation(UUID managerId) {
+        return generations.computeIfAbsent(managerId, id -> new AtomicLong());
+    }
+
+    private record TeamSnapshot(LocalDate windowStart, IntervalTree<AbsenceRequestDto> absences, long expiresAt) {
+    }
+
+    private record CalendarWindow(LocalDate from, LocalDate to) {
+    }
+
+    private record CachedCalendar(TeamCalendarDto calendar, long expiresAt) {
+    }
+}
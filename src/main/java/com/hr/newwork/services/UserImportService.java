@@ -0,0 +1,520 @@
+package com.hr.newwork.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hr.newwork.data.dto.UserImportErrorDto;
+import com.hr.newwork.data.dto.UserImportJobDto;
+import com.hr.newwork.data.dto.UserImportReportDto;
+import com.hr.newwork.data.dto.UserImportRowDto;
+import com.hr.newwork.data.entity.Role;
+import com.hr.newwork.data.entity.SensitiveData;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.exceptions.ForbiddenException;
+import com.hr.newwork.exceptions.NotFoundException;
+import com.hr.newwork.repositories.RoleRepository;
+import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.util.CsvLineParser;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.SensitiveDataConverter;
+import com.hr.newwork.util.UuidV7;
+import com.hr.newwork.util.enums.ImportJobStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import from CSV or JSON lines, run as a background job and processed in chunks of
+ * {@code user-import.chunk-size} rows.
+ * <p>
+ * The upload is spooled to a temporary file and the request returns a job id at once; jobs run one at a time on a
+ * single import thread, and their status and report are kept for {@code user-import.job-retention-ms} after they end.
+ * <p>
+ * Per chunk: rows are validated, taken emails are found with one query, passwords are hashed in parallel on a
+ * dedicated pool of {@code user-import.hash-threads} (half the cores by default, so an import cannot starve the
+ * common pool or take every core from the login verifier), and users and their roles are
+ * inserted with JDBC batches in one transaction. Managers are referenced by email and resolved in a second pass once
+ * every chunk is in, so a row may name a manager that appears later in the file.
+ * <p>
+ * The import is not atomic: each chunk commits on its own and the report lists every rejected row.
+ */
+@Service
+public class UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final String DEFAULT_ROLE = "EMPLOYEE";
+    private static final String INSERT_USER =
+        "INSERT INTO users (id, email, password_hash, first_name, last_name, job_title, department, is_active, hire_date, sensitive_data) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, true, ?, ?)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String UPDATE_MANAGER = "UPDATE users SET manager_id = ?, version = version + 1 WHERE id = ?";
+
+    public enum Format { CSV, JSON_LINES }
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SecurityUtil securityUtil;
+    private final SensitiveDataConverter sensitiveDataConverter = new SensitiveDataConverter();
+    private final ForkJoinPool hashPool;
+    private final ExecutorService importExecutor =
+        Executors.newSingleThreadExecutor(r -> Thread.ofPlatform().name("user-import").daemon().unstarted(r));
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final int chunkSize;
+    private final long jobRetentionMs;
+
+    public UserImportService(UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             SecurityUtil securityUtil,
+                             @Value("${user-import.chunk-size:500}") int chunkSize,
+                             @Value("${user-import.hash-threads:0}") int hashThreads,
+                             @Value("${user-import.job-retention-ms:3600000}") long jobRetentionMs) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.securityUtil = securityUtil;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashPool = new ForkJoinPool(hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.jobRetentionMs = jobRetentionMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * Spools an upload to a temporary file and queues its import. Only admins may import.
+     * CSV needs a header row; columns are matched by name (see {@link UserImportRowDto}), roles are separated by
+     * {@code ;}. JSON lines holds one {@link UserImportRowDto} object per line.
+     * @param input the uploaded file
+     * @param format the file format
+     * @return the queued job; poll {@link #getImportJob} for its report
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws BadRequestException if the upload cannot be read
+     */
+    public UserImportJobDto submitImport(InputStream input, Format format) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can import users");
+        }
+        purgeFinishedJobs();
+        Path file;
+        try {
+            file = Files.createTempFile("user-import-", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create import spool file", e);
+        }
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new BadRequestException("Could not read import file: " + e.getMessage());
+        }
+        Job job = new Job(UUID.randomUUID(), Instant.now());
+        jobs.put(job.id, job);
+        try {
+            importExecutor.execute(() -> run(job, file, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(file);
+            throw e;
+        }
+        log.info("User import {} queued", job.id);
+        return job.toDto();
+    }
+
+    /**
+     * @param jobId the id returned by {@link #submitImport}
+     * @return the job's status, with its report once completed
+     * @throws ForbiddenException if the current user is not an admin
+     * @throws NotFoundException if the job is unknown or expired
+     */
+    public UserImportJobDto getImportJob(UUID jobId) {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new ForbiddenException("Only admins can view user imports");
+        }
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("Import job not found: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    private void run(Job job, Path file, Format format) {
+        job.status = ImportJobStatus.RUNNING;
+        try (InputStream input = Files.newInputStream(file)) {
+            job.report = importUsers(input, format);
+            job.status = ImportJobStatus.COMPLETED;
+        } catch (RuntimeException | IOException e) {
+            log.warn("User import {} failed: {}", job.id, e.getMessage());
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.status = ImportJobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            deleteQuietly(file);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minusMillis(jobRetentionMs);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Imports users from a stream, on the import thread.
+     * @param input the spooled upload
+     * @param format the file format
+     * @return counts and a per-row error report
+     * @throws BadRequestException if the stream cannot be read or the CSV header is invalid
+     */
+    private UserImportReportDto importUsers(InputStream input, Format format) {
+        Map<String, UUID> roleIds = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(role.getName().toUpperCase(Locale.ROOT), role.getId());
+        }
+        ImportState state = new ImportState();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+                state.totalRows++;
+                ParsedRow row = parseRow(line, lineNumber, format, csvColumns, roleIds, state);
+                if (row == null) continue;
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, roleIds, state);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, roleIds, state);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read import file: " + e.getMessage());
+        }
+        resolveManagers(state);
+        log.info("User import finished: {} rows, {} imported, {} failed", state.totalRows, state.imported, state.failed);
+        return UserImportReportDto.builder()
+            .totalRows(state.totalRows)
+            .imported(state.imported)
+            .failed(state.failed)
+            .errors(state.errors)
+            .build();
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvLineParser.parse(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new BadRequestException("CSV header must contain at least the email and password columns");
+        }
+        return columns;
+    }
+
+    /**
+     * Parses and validates one row.
+     * @return the row, or null if it was rejected (the error is recorded)
+     */
+    private ParsedRow parseRow(String line, long lineNumber, Format format, Map<String, Integer> csvColumns,
+                               Map<String, UUID> roleIds, ImportState state) {
+        UserImportRowDto dto;
+        try {
+            dto = format == Format.CSV ? fromCsv(CsvLineParser.parse(line), csvColumns) : objectMapper.readValue(line, UserImportRowDto.class);
+        } catch (JsonProcessingException e) {
+            state.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            state.reject(lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+        String email = dto.getEmail() == null ? null : dto.getEmail().trim();
+        dto.setEmail(email);
+        String error = validate(dto, roleIds);
+        if (error == null && !state.seenEmails.add(email)) {
+            error = "Duplicate email in import";
+        }
+        if (error != null) {
+            state.reject(lineNumber, email, error);
+            return null;
+        }
+        return new ParsedRow(lineNumber, dto);
+    }
+
+    private static UserImportRowDto fromCsv(List<String> fields, Map<String, Integer> columns) {
+        UserImportRowDto dto = new UserImportRowDto();
+        dto.setEmail(csvValue(fields, columns, "email"));
+        dto.setPassword(csvValue(fields, columns, "password"));
+        dto.setFirstName(csvValue(fields, columns, "firstname"));
+        dto.setLastName(csvValue(fields, columns, "lastname"));
+        dto.setJobTitle(csvValue(fields, columns, "jobtitle"));
+        dto.setDepartment(csvValue(fields, columns, "department"));
+        dto.setPhone(csvValue(fields, columns, "phone"));
+        dto.setAddress(csvValue(fields, columns, "address"));
+        dto.setManagerEmail(csvValue(fields, columns, "manageremail"));
+        String roles = csvValue(fields, columns, "roles");
+        if (roles != null) {
+            dto.setRoles(new LinkedHashSet<>(Arrays.stream(roles.split(";")).map(String::trim).filter(r -> !r.isEmpty()).toList()));
+        }
+        String hireDate = csvValue(fields, columns, "hiredate");
+        if (hireDate != null) dto.setHireDate(LocalDate.parse(hireDate));
+        String salary = csvValue(fields, columns, "salary");
+        if (salary != null) dto.setSalary(Double.valueOf(salary));
+        return dto;
+    }
+
+    private static String csvValue(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @return the first validation error, or null if the row is valid
+     */
+    private static String validate(UserImportRowDto dto, Map<String, UUID> roleIds) {
+        if (dto.getEmail() == null || !EMAIL.matcher(dto.getEmail()).matches()) {
+            return "Invalid email";
+        }
+        if (dto.getPassword() == null || dto.getPassword().isBlank()) {
+            return "Password is required";
+        }
+        if (dto.getRoles() != null) {
+            for (String role : dto.getRoles()) {
+                if (!roleIds.containsKey(role.toUpperCase(Locale.ROOT))) {
+                    return "Unknown role: " + role;
+                }
+            }
+        }
+        if (dto.getManagerEmail() != null && dto.getManagerEmail().trim().equalsIgnoreCase(dto.getEmail())) {
+            return "A user cannot be their own manager";
+        }
+        return null;
+    }
+
+    private void importChunk(List<ParsedRow> chunk, Map<String, UUID> roleIds, ImportState state) {
+        // One existence query for the whole chunk instead of one per row
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(chunk.stream().map(r -> r.dto().getEmail()).toList()));
+        List<ParsedRow> rows = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            if (taken.contains(row.dto().getEmail())) {
+                state.reject(row.line(), row.dto().getEmail(), "Email already in use");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) return;
+
+        List<String> hashes = hashPool.submit(() -> rows.parallelStream()
+            .map(row -> passwordEncoder.encode(row.dto().getPassword()))
+            .toList()).join();
+        List<NewUser> users = new ArrayList<>(rows.size());
+        List<UUID[]> userRoles = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            NewUser user = new NewUser(UuidV7.next(), rows.get(i), hashes.get(i));
+            users.add(user);
+            Set<String> roles = user.row().dto().getRoles();
+            if (roles == null || roles.isEmpty()) {
+                roles = Set.of(DEFAULT_ROLE);
+            }
+            for (String role : roles) {
+                UUID roleId = roleIds.get(role.toUpperCase(Locale.ROOT));
+                if (roleId != null) userRoles.add(new UUID[] {user.id(), roleId});
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+                    UserImportRowDto dto = user.row().dto();
+                    ps.setObject(1, user.id());
+                    ps.setString(2, dto.getEmail());
+                    ps.setString(3, user.passwordHash());
+                    ps.setString(4, dto.getFirstName());
+                    ps.setString(5, dto.getLastName());
+                    ps.setString(6, dto.getJobTitle());
+                    ps.setString(7, dto.getDepartment());
+                    ps.setObject(8, dto.getHireDate(), Types.DATE);
+                    ps.setString(9, sensitiveDataConverter.convertToDatabaseColumn(sensitiveData(dto)));
+                });
+                if (!userRoles.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles, userRoles.size(), (ps, pair) -> {
+                        ps.setObject(1, pair[0]);
+                        ps.setObject(2, pair[1]);
+                    });
+                }
+            });
+        } catch (DataAccessException e) {
+            // e.g. an email registered concurrently; the chunk was rolled back as a whole
+            log.warn("User import chunk of {} rows failed: {}", users.size(), e.getMostSpecificCause().getMessage());
+            for (NewUser user : users) {
+                state.reject(user.row().line(), user.row().dto().getEmail(), "Not imported, chunk failed: " + e.getMostSpecificCause().getMessage());
+            }
+            return;
+        }
+        state.imported += users.size();
+        for (NewUser user : users) {
+            String managerEmail = user.row().dto().getManagerEmail();
+            if (managerEmail != null) {
+                state.pendingManagers.add(new PendingManager(user.row().line(), user.id(), user.row().dto().getEmail(), managerEmail.trim()));
+            }
+        }
+    }
+
+    private static SensitiveData sensitiveData(UserImportRowDto dto) {
+        SensitiveData sensitiveData = new SensitiveData();
+        sensitiveData.setPhone(dto.getPhone());
+        sensitiveData.setAddress(dto.getAddress());
+        if (dto.getSalary() != null) sensitiveData.setSalary(dto.getSalary());
+        return sensitiveData;
+    }
+
+    /**
+     * Second pass: sets manager_id for imported users whose manager email resolves to a user with the MANAGER role,
+     * one lookup query and one batched update per chunk.
+     */
+    private void resolveManagers(ImportState state) {
+        List<PendingManager> pending = state.pendingManagers;
+        for (int start = 0; start < pending.size(); start += chunkSize) {
+            List<PendingManager> chunk = pending.subList(start, Math.min(start + chunkSize, pending.size()));
+            Set<String> emails = new HashSet<>();
+            chunk.forEach(p -> emails.add(p.managerEmail()));
+            Map<String, UUID> managers = new HashMap<>();
+            userRepository.findManagersByEmails(emails).forEach(m -> managers.put(m.getEmail(), m.getId()));
+            List<UUID[]> updates = new ArrayList<>(chunk.size());
+            for (PendingManager p : chunk) {
+                UUID managerId = managers.get(p.managerEmail());
+                if (managerId == null) {
+                    state.warn(p.line(), p.email(), "User imported without manager: " + p.managerEmail() + " does not exist or does not have MANAGER role");
+                } else {
+                    updates.add(new UUID[] {managerId, p.userId()});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_MANAGER, updates, updates.size(), (ps, update) -> {
+                    ps.setObject(1, update[0]);
+                    ps.setObject(2, update[1]);
+                });
+            }
+        }
+    }
+
+    private record ParsedRow(long line, UserImportRowDto dto) {
+    }
+
+    private record NewUser(UUID id, ParsedRow row, String passwordHash) {
+    }
+
+    private record PendingManager(long line, UUID userId, String email, String managerEmail) {
+    }
+
+    /**
+     * A submitted import; fields are written by the import thread and read by status requests.
+     */
+    private static final class Job {
+        private final UUID id;
+        private final Instant submittedAt;
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile UserImportReportDto report;
+
+        private Job(UUID id, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+        }
+
+        private UserImportJobDto toDto() {
+            return UserImportJobDto.builder()
+                .id(id)
+                .status(status)
+                .submittedAt(submittedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .report(report)
+                .build();
+        }
+    }
+
+    private static final class ImportState {
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<PendingManager> pendingManagers = new ArrayList<>();
+        private final List<UserImportErrorDto> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String email, String message) {
+            failed++;
+            errors.add(new UserImportErrorDto(line, email, message));
+        }
+
+        private void warn(long line, String email, String message) {
+            errors.add(new UserImportErrorDto(line, email, message));
+        }
+    }
+}
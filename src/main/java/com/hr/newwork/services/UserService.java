@@ -7,8 +7,10 @@ import com.hr.newwork.data.entity.User;
 import com.hr.newwork.exceptions.BadRequestException;
 import com.hr.newwork.exceptions.ForbiddenException;
 import com.hr.newwork.exceptions.NotFoundException;
+import com.hr.newwork.exceptions.PreconditionFailedException;
 import com.hr.newwork.repositories.RoleRepository;
 import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.util.ETagUtil;
 import com.hr.newwork.util.enums.Role;
 import com.hr.newwork.util.mappers.UserMapper;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +33,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final com.hr.newwork.util.SecurityUtil securityUtil;
     private final RoleRepository roleRepository;
+    private final LogoutService logoutService;
 
     /**
      * Retrieves a user profile by ID. Sensitive fields are included only for self, manager, or admin.
@@ -51,14 +54,47 @@ public class UserService {
         return UserMapper.toDtoWithSensitive(user); // Always return sensitive DTO for this endpoint
     }
 
+    /**
+     * Returns the ETag of {@link #getUserProfile}, read from the user's and their manager's versions only.
+     * @param id the user ID as String
+     * @return the strong ETag
+     * @throws NotFoundException if the user does not exist
+     */
+    public String getUserProfileETag(String id) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException("user does not exist");
+        }
+        return userRepository.findProfileVersion(uuid)
+            .map(UserService::profileETag)
+            .orElseThrow(() -> new NotFoundException("user does not exist"));
+    }
+
+    /**
+     * Returns the ETag of {@link #getCurrentUserProfile}, for the user identified by the access token.
+     * @return the strong ETag
+     * @throws NotFoundException if the user no longer exists
+     */
+    public String getCurrentUserProfileETag() {
+        return userRepository.findProfileVersion(securityUtil.getCurrentUserId())
+            .map(UserService::profileETag)
+            .orElseThrow(() -> new NotFoundException("user does not exist"));
+    }
+
     /**
      * Updates a user profile. Allowed for self, manager, or admin.
+     * The entity version guards against lost updates: a concurrent update of the same user fails at commit
+     * with an optimistic locking error, and a stale {@code If-Match} tag is rejected up front.
      * @param id the user ID
      * @param updateRequest the update request DTO
+     * @param ifMatch the request's If-Match header, or null to update unconditionally
      * @return the updated user profile DTO
+     * @throws PreconditionFailedException if If-Match does not list the profile's current ETag
      */
     @Transactional
-    public UserWithSensitiveDataDto updateUserProfile(String id, UserWithSensitiveDataDto updateRequest) {
+    public UserWithSensitiveDataDto updateUserProfile(String id, UserWithSensitiveDataDto updateRequest, String ifMatch) {
         UUID uuid;
         try {
             uuid = UUID.fromString(id);
@@ -86,9 +122,17 @@ public class UserService {
             default:
                 throw new ForbiddenException("You do not have permission to update this profile");
         }
+        if (ifMatch != null && !ETagUtil.matches(ifMatch, profileETag(user))) {
+            throw new PreconditionFailedException("The profile was changed since it was read");
+        }
         boolean isManagerOrAdmin = securityUtil.isCurrentUserManagerOf(user) || securityUtil.isCurrentUserAdmin();
+        boolean wasActive = user.isActive();
         user = UserMapper.fromDto(updateRequest, user, roleRepository, userRepository, () -> isManagerOrAdmin);
         userRepository.save(user);
+        if (wasActive && !user.isActive()) {
+            // Deactivation ends every session: refresh tokens now, access tokens within the revocation refresh interval
+            logoutService.revokeSessionsForUser(user.getId());
+        }
         return UserMapper.toDtoWithSensitive(user);
     }
 
@@ -166,6 +210,18 @@ public class UserService {
         return UserMapper.toDtoWithSensitive(user);
     }
 
+    private static String profileETag(UserRepository.ProfileVersionRow row) {
+        return row.getManagerVersion() != null
+            ? ETagUtil.of(row.getVersion(), row.getManagerVersion())
+            : ETagUtil.of(row.getVersion());
+    }
+
+    private static String profileETag(User user) {
+        return user.getManager() != null
+            ? ETagUtil.of(user.getVersion(), user.getManager().getVersion())
+            : ETagUtil.of(user.getVersion());
+    }
+
     /**
      * Registers a new user. Checks for unique email, hashes password, assigns role.
      * @param registrationDto the registration request DTO
@@ -213,11 +269,8 @@ public class UserService {
         if (securityUtil.isCurrentUser(targetUser)) {
             throw new ForbiddenException("No user can delete themselves.");
         }
-        if (securityUtil.isCurrentUserManagerOf(targetUser)) {
-            userRepository.deleteById(uuid);
-            return;
-        }
-        if (securityUtil.isCurrentUserAdmin()) {
+        if (securityUtil.isCurrentUserManagerOf(targetUser) || securityUtil.isCurrentUserAdmin()) {
+            logoutService.revokeSessionsForUser(uuid);
             userRepository.deleteById(uuid);
             return;
         }
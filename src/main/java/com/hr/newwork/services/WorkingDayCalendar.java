@@ -0,0 +1,140 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.entity.PublicHoliday;
+import com.hr.newwork.repositories.PublicHolidayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts working days: days that are neither a weekend day ({@code leave.calendar.weekend}) nor in the
+ * {@code public_holiday} table.
+ * <p>
+ * For {@code leave.calendar.span-years} around the current year, a prefix sum of working days per day is
+ * precomputed, so any range inside it is counted in O(1). Dates outside fall back to a day-by-day count.
+ * Holidays are reloaded every {@code leave.calendar.refresh-interval-ms}; a reload swaps in a new table atomically.
+ */
+@Component
+public class WorkingDayCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(WorkingDayCalendar.class);
+
+    private final PublicHolidayRepository publicHolidayRepository;
+    private final Set<DayOfWeek> weekend;
+    private final int spanYears;
+
+    private volatile Table table;
+
+    public WorkingDayCalendar(PublicHolidayRepository publicHolidayRepository,
+                              @Value("${leave.calendar.weekend:SATURDAY,SUNDAY}") List<DayOfWeek> weekend,
+                              @Value("${leave.calendar.span-years:5}") int spanYears) {
+        this.publicHolidayRepository = publicHolidayRepository;
+        this.weekend = weekend.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekend);
+        this.spanYears = spanYears;
+    }
+
+    /**
+     * Counts the working days in [start, end], both inclusive.
+     * @return the count, or 0 if end is before start
+     */
+    public int workingDays(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) return 0;
+        return table().count(start.toEpochDay(), end.toEpochDay());
+    }
+
+    /**
+     * Counts the working days in [start, end] per calendar year, for ranges crossing New Year.
+     * @return year to working days, in year order, omitting years without working days
+     */
+    public Map<Integer, Integer> workingDaysByYear(LocalDate start, LocalDate end) {
+        Map<Integer, Integer> byYear = new LinkedHashMap<>();
+        Table t = table();
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            LocalDate from = year == start.getYear() ? start : LocalDate.of(year, 1, 1);
+            LocalDate to = year == end.getYear() ? end : LocalDate.of(year, 12, 31);
+            int days = t.count(from.toEpochDay(), to.toEpochDay());
+            if (days > 0) byYear.put(year, days);
+        }
+        return byYear;
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return table().isWorkingDay(date);
+    }
+
+    /**
+     * Reloads public holidays and rebuilds the precomputed table around the current year.
+     */
+    @Scheduled(fixedDelayString = "${leave.calendar.refresh-interval-ms:3600000}",
+               initialDelayString = "${leave.calendar.refresh-interval-ms:3600000}")
+    public void reload() {
+        Set<LocalDate> holidays = new HashSet<>();
+        for (PublicHoliday holiday : publicHolidayRepository.findAll()) {
+            holidays.add(holiday.getHolidayDate());
+        }
+        int year = LocalDate.now().getYear();
+        table = new Table(weekend, holidays, LocalDate.of(year - spanYears, 1, 1), LocalDate.of(year + spanYears, 12, 31));
+        logger.debug("Working day calendar loaded with {} public holidays", holidays.size());
+    }
+
+    private Table table() {
+        Table t = table;
+        if (t == null) {
+            synchronized (this) {
+                if (table == null) reload();
+                t = table;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Immutable working-day table: {@code prefix[i]} is the number of working days in [first, first + i).
+     */
+    private static final class Table {
+        private final Set<DayOfWeek> weekend;
+        private final Set<LocalDate> holidays;
+        private final long first;
+        private final int[] prefix;
+
+        private Table(Set<DayOfWeek> weekend, Set<LocalDate> holidays, LocalDate first, LocalDate last) {
+            this.weekend = weekend;
+            this.holidays = holidays;
+            this.first = first.toEpochDay();
+            int days = (int) (last.toEpochDay() - this.first) + 1;
+            this.prefix = new int[days + 1];
+            LocalDate date = first;
+            for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+                prefix[i + 1] = prefix[i] + (isWorkingDay(date) ? 1 : 0);
+            }
+        }
+
+        private boolean isWorkingDay(LocalDate date) {
+            return !weekend.contains(date.getDayOfWeek()) && !holidays.contains(date);
+        }
+
+        private int count(long startDay, long endDay) {
+            if (startDay > endDay) return 0;
+            long from = startDay - first;
+            long to = endDay - first;
+            if (from >= 0 && to < prefix.length - 1) {
+                return prefix[(int) to + 1] - prefix[(int) from];
+            }
+            int count = 0;
+            for (long day = startDay; day <= endDay; day++) {
+                if (isWorkingDay(LocalDate.ofEpochDay(day))) count++;
+            }
+            return count;
+        }
+    }
+}
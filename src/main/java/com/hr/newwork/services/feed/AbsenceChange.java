@@ -0,0 +1,17 @@
+package com.hr.newwork.services.feed;
+
+import com.hr.newwork.util.enums.AbsenceStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A status change of one absence request, as pushed to the requester and their manager.
+ * @param absenceId the absence request ID
+ * @param userId the requester's user ID
+ * @param managerId the requester's manager ID, or null
+ * @param status the new status
+ * @param changedAt when the change was made
+ */
+public record AbsenceChange(UUID absenceId, UUID userId, UUID managerId, AbsenceStatus status, LocalDateTime changedAt) {
+}
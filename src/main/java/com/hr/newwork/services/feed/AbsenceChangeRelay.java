@@ -0,0 +1,30 @@
+package com.hr.newwork.services.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Routes {@link AbsenceChangesEvent}s from the in-process event bus to subscribers.
+ * <p>
+ * Other instances are notified from inside the publishing transaction, since Postgres only delivers a
+ * {@code NOTIFY} once its transaction commits; local subscribers are served after the commit. Either way
+ * a rolled-back change is never pushed.
+ */
+@Component
+@RequiredArgsConstructor
+public class AbsenceChangeRelay {
+    private final AbsenceFeed absenceFeed;
+    private final PostgresAbsenceChannel postgresAbsenceChannel;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void broadcast(AbsenceChangesEvent event) {
+        postgresAbsenceChannel.broadcast(event.changes());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void deliver(AbsenceChangesEvent event) {
+        absenceFeed.publish(event.changes());
+    }
+}
@@ -0,0 +1,11 @@
+package com.hr.newwork.services.feed;
+
+import java.util.List;
+
+/**
+ * Application event published by {@code AbsenceService} for the absence changes of one service call.
+ * Handled by {@link AbsenceChangeRelay} around the commit of the publishing transaction.
+ * @param changes the changes, at least one
+ */
+public record AbsenceChangesEvent(List<AbsenceChange> changes) {
+}
@@ -0,0 +1,214 @@
+package com.hr.newwork.services.feed;
+
+import com.hr.newwork.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events streams of absence changes, keyed by user: a change goes to the requester's streams and to
+ * their manager's.
+ * <p>
+ * Publishing never blocks on a client. Each stream has a queue of at most {@code absence.feed.queue-capacity} events,
+ * drained by its own virtual thread while there is something to send. A stream whose queue is full is considered
+ * behind: its queue is dropped and replaced by a single {@code resync} event, telling the client to refetch over REST,
+ * so a slow client costs at most one queue. Streams per user and in total are capped as well.
+ * <p>
+ * Events: {@code ready} on connect, {@code absence} with an {@link AbsenceChange} as JSON, {@code resync}, and a
+ * comment line every {@code absence.feed.heartbeat-ms} so proxies keep idle streams open and dead ones are noticed.
+ */
+@Component
+public class AbsenceFeed {
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceFeed.class);
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private enum Signal { READY, HEARTBEAT, RESYNC }
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService delivery = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter overflows;
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final int maxPerUser;
+    private final int maxSubscribers;
+
+    public AbsenceFeed(MeterRegistry meterRegistry,
+                       @Value("${absence.feed.timeout-ms:1800000}") long timeoutMs,
+                       @Value("${absence.feed.queue-capacity:256}") int queueCapacity,
+                       @Value("${absence.feed.max-streams-per-user:5}") int maxPerUser,
+                       @Value("${absence.feed.max-streams:10000}") int maxSubscribers) {
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = Math.max(2, queueCapacity);
+        this.maxPerUser = maxPerUser;
+        this.maxSubscribers = maxSubscribers;
+        this.overflows = Counter.builder("absence.feed.overflows")
+            .description("Change feed streams that fell behind and were told to resync")
+            .register(meterRegistry);
+        Gauge.builder("absence.feed.streams", subscriberCount, AtomicInteger::get)
+            .description("Open absence change feed streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Opens a change stream for a user.
+     * @param userId the subscribing user's ID
+     * @return the emitter to return from the controller
+     * @throws TooManyRequestsException if the user or the instance has too many open streams
+     */
+    public SseEmitter subscribe(UUID userId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManyRequestsException("Too many open change streams", RETRY_AFTER_SECONDS);
+        }
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMs));
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(userId, (id, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            if (list.size() < maxPerUser) {
+                list.add(subscriber);
+                added.set(true);
+            }
+            return list.isEmpty() ? null : list;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            throw new TooManyRequestsException("Too many open change streams for this user", RETRY_AFTER_SECONDS);
+        }
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber));
+        subscriber.offer(Signal.READY);
+        return emitter;
+    }
+
+    /**
+     * Queues changes for the streams of each requester and of their manager.
+     */
+    public void publish(List<AbsenceChange> changes) {
+        for (AbsenceChange change : changes) {
+            offer(change.userId(), change);
+            if (change.managerId() != null && !change.managerId().equals(change.userId())) {
+                offer(change.managerId(), change);
+            }
+        }
+    }
+
+    /**
+     * Tells every stream to refetch, e.g. after changes from other instances may have been missed.
+     */
+    public void resyncAll() {
+        subscribers.values().forEach(list -> list.forEach(s -> s.offer(Signal.RESYNC)));
+    }
+
+    @Scheduled(fixedDelayString = "${absence.feed.heartbeat-ms:25000}", initialDelayString = "${absence.feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(s -> s.offer(Signal.HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(s -> s.emitter.complete()));
+        delivery.shutdown();
+    }
+
+    private void offer(UUID userId, AbsenceChange change) {
+        List<Subscriber> list = subscribers.get(userId);
+        if (list != null) {
+            list.forEach(s -> s.offer(change));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return;
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Object item) {
+        if (item instanceof AbsenceChange change) {
+            return SseEmitter.event().name("absence").data(change, MediaType.APPLICATION_JSON);
+        }
+        return switch ((Signal) item) {
+            case READY -> SseEmitter.event().name("ready").data("ok");
+            case HEARTBEAT -> SseEmitter.event().comment("heartbeat");
+            case RESYNC -> SseEmitter.event().name("resync").data("refetch");
+        };
+    }
+
+    /**
+     * One open stream: a bounded queue and a flag ensuring at most one drain runs at a time.
+     */
+    private final class Subscriber {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Object item) {
+            if (closed.get()) return;
+            if (!queue.offer(item)) {
+                // Behind by a full queue: drop its backlog, the client refetches instead
+                queue.clear();
+                queue.offer(Signal.RESYNC);
+                overflows.increment();
+            }
+            if (draining.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    Object item;
+                    while ((item = queue.poll()) != null) {
+                        emitter.send(toEvent(item));
+                    }
+                    draining.set(false);
+                    // An offer may have landed after the last poll but before the flag was cleared
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Closing change stream of user {}: {}", userId, e.getMessage());
+                remove(this);
+                queue.clear();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
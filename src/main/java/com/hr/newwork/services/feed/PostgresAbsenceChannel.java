@@ -0,0 +1,162 @@
+package com.hr.newwork.services.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Fans absence changes out to the other instances over Postgres {@code LISTEN/NOTIFY}.
+ * <p>
+ * {@link #broadcast} issues one {@code pg_notify} per change on the current transaction's connection. Every instance
+ * listens on a dedicated connection opened with the datasource settings, not borrowed from the pool, since it is held
+ * for the life of the application. Notifications carry the sending instance's id, so an instance skips its own changes,
+ * which {@link AbsenceChangeRelay} already delivered locally. When the listening connection is lost it is reopened
+ * with backoff, and local streams are told to resync because notifications sent meanwhile are gone.
+ * <p>
+ * Disabled with {@code absence.feed.cluster.enabled=false}, e.g. for a single instance.
+ */
+@Component
+public class PostgresAbsenceChannel implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresAbsenceChannel.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final AbsenceFeed absenceFeed;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final String channel;
+    private final int pollTimeoutMs;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresAbsenceChannel(AbsenceFeed absenceFeed,
+                                  JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  DataSourceProperties dataSourceProperties,
+                                  @Value("${absence.feed.cluster.enabled:true}") boolean enabled,
+                                  @Value("${absence.feed.cluster.channel:absence_changes}") String channel,
+                                  @Value("${absence.feed.cluster.poll-timeout-ms:5000}") int pollTimeoutMs) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("absence.feed.cluster.channel must be a lower-case SQL identifier: " + channel);
+        }
+        this.absenceFeed = absenceFeed;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    /**
+     * Notifies the other instances of changes; delivered by Postgres only if the current transaction commits.
+     */
+    public void broadcast(List<AbsenceChange> changes) {
+        if (!enabled || changes.isEmpty()) return;
+        String[] payloads = new String[changes.size()];
+        for (int i = 0; i < payloads.length; i++) {
+            try {
+                payloads[i] = objectMapper.writeValueAsString(new Notification(instanceId, changes.get(i)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize absence change", e);
+            }
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT pg_notify(?, p) FROM unnest(?::text[]) AS p");
+            ps.setString(1, channel);
+            ps.setArray(2, con.createArrayOf("text", payloads));
+            return ps;
+        }, rs -> { });
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        listener = Thread.ofPlatform().name("absence-feed-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening for absence changes on channel {}", channel);
+                if (connectedBefore) {
+                    absenceFeed.resyncAll();
+                }
+                connectedBefore = true;
+                backoffMs = 1000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                logger.warn("Absence change listener disconnected, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            Notification notification = objectMapper.readValue(payload, Notification.class);
+            if (!instanceId.equals(notification.origin())) {
+                absenceFeed.publish(List.of(notification.change()));
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring malformed absence change notification: {}", e.getOriginalMessage());
+        }
+    }
+
+    record Notification(String origin, AbsenceChange change) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.hr.newwork.util;
+
+import org.springframework.http.CacheControl;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds strong ETags from JPA {@code @Version} counters, so a read can be answered with 304 from the versions
+ * alone, before the entity is mapped or serialized. A tag changes whenever one of the entities rendered into the
+ * response changes.
+ */
+public final class ETagUtil {
+    private static final int LIST_DIGEST_BYTES = 12;
+
+    private ETagUtil() {
+    }
+
+    /**
+     * @param versions the versions of the entities rendered into one response, in a fixed order
+     * @return a quoted tag such as {@code "3.1"}
+     */
+    public static String of(long... versions) {
+        StringJoiner tag = new StringJoiner(".", "\"", "\"");
+        for (long version : versions) {
+            tag.add(Long.toString(version));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * @return the Cache-Control of tagged responses: cacheable by the client only, and revalidated with
+     *         If-None-Match on every use
+     */
+    public static CacheControl revalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header with the strong comparison it requires: weak tags never match.
+     * @param ifMatch the header value, a comma-separated list of tags or {@code *}
+     * @param eTag the current tag
+     * @return whether the header lists the current tag, or is {@code *}
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tag of a list response: a digest over each element's id and version, in response order, so adding, removing,
+     * reordering or changing an element changes the tag.
+     * @param rows the rows, in the order the response lists them
+     * @param id the id of a row
+     * @param version the version of a row
+     * @return a quoted tag of {@value #LIST_DIGEST_BYTES} digest bytes, base64url
+     */
+    public static <T> String ofList(List<T> rows, Function<T, UUID> id, ToLongFunction<T> version) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(3 * Long.BYTES);
+        for (T row : rows) {
+            UUID rowId = id.apply(row);
+            entry.clear();
+            entry.putLong(rowId.getMostSignificantBits()).putLong(rowId.getLeastSignificantBits()).putLong(version.applyAsLong(row));
+            digest.update(entry.array());
+        }
+        byte[] hash = digest.digest();
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, LIST_DIGEST_BYTES)) + "\"";
+    }
+}
@@ -0,0 +1,97 @@
+package com.hr.newwork.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable interval tree over closed integer intervals (e.g. epoch days). Intervals are sorted by start and
+ * stored as an implicit balanced binary tree over the sorted arrays, each node augmented with the largest end in
+ * its subtree, so a stabbing or overlap query costs O(log n + k) for k results without any per-node objects.
+ *
+ * @param <T> the value attached to each interval
+ */
+public final class IntervalTree<T> {
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+    private final Object[] values;
+
+    private IntervalTree(int[] starts, int[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new int[starts.length];
+        computeMaxEnds(0, starts.length);
+    }
+
+    /**
+     * Builds a tree from values and their closed intervals; values with {@code end < start} are ignored.
+     */
+    public static <T> IntervalTree<T> of(List<T> items, ToIntFunction<T> start, ToIntFunction<T> end) {
+        List<T> valid = new ArrayList<>(items.size());
+        for (T item : items) {
+            if (end.applyAsInt(item) >= start.applyAsInt(item)) valid.add(item);
+        }
+        valid.sort(Comparator.comparingInt(start));
+        int n = valid.size();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        Object[] values = new Object[n];
+        for (int i = 0; i < n; i++) {
+            T item = valid.get(i);
+            starts[i] = start.applyAsInt(item);
+            ends[i] = end.applyAsInt(item);
+            values[i] = item;
+        }
+        return new IntervalTree<>(starts, ends, values);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * @return the values whose interval overlaps [from, to], in order of interval start
+     */
+    public List<T> overlapping(int from, int to) {
+        List<T> result = new ArrayList<>();
+        collect(0, starts.length, from, to, result);
+        return result;
+    }
+
+    /**
+     * @return whether any interval overlaps [from, to]
+     */
+    public boolean anyOverlapping(int from, int to) {
+        return any(0, starts.length, from, to);
+    }
+
+    private int computeMaxEnds(int lo, int hi) {
+        if (lo >= hi) return Integer.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        int max = Math.max(ends[mid], Math.max(computeMaxEnds(lo, mid), computeMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int lo, int hi, int from, int to, List<T> result) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) return; // nothing in this subtree ends late enough
+        collect(lo, mid, from, to, result);
+        if (starts[mid] > to) return;    // this node and everything to its right start too late
+        if (ends[mid] >= from) result.add((T) values[mid]);
+        collect(mid + 1, hi, from, to, result);
+    }
+
+    private boolean any(int lo, int hi, int from, int to) {
+        if (lo >= hi) return false;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) return false;
+        if (starts[mid] <= to && ends[mid] >= from) return true;
+        return any(lo, mid, from, to) || (starts[mid] <= to && any(mid + 1, hi, from, to));
+    }
+}
@@ -1,5 +1,6 @@
 package com.hr.newwork.util;
 
+import com.hr.newwork.config.security.AuthenticatedUser;
 import com.hr.newwork.data.entity.User;
 import com.hr.newwork.exceptions.NotFoundException;
 import com.hr.newwork.repositories.UserRepository;
@@ -10,6 +11,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 @RequiredArgsConstructor
 public class SecurityUtil {
@@ -21,6 +24,29 @@ public class SecurityUtil {
         return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User not found"));
     }
 
+    /**
+     * Returns the current user's id from the JWT principal without a database lookup.
+     * Falls back to resolving the user by email for tokens issued without a userId claim.
+     */
+    public UUID getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal && principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    /**
+     * Checks a role as granted by the access token (its {@code ROLE_} authorities), without a database lookup.
+     * Role changes take effect when the user's next token is issued.
+     */
+    public boolean currentUserHasRole(Role role) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) return false;
+        String authority = "ROLE_" + role.name();
+        return auth.getAuthorities().stream().anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
     public boolean isCurrentUserManager() {
         User user = getCurrentUser();
         return user.getRoles() != null && user.getRoles().stream().anyMatch(role -> "MANAGER".equals(role.getName()));
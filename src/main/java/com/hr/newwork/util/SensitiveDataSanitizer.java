@@ -1,8 +1,17 @@
 package com.hr.newwork.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,6 +25,14 @@ public class SensitiveDataSanitizer {
     private static final String MASK = "*****";
     private static final String[] SENSITIVE_KEYS = {"password", "pass", "pwd", "secret", "token", "key", "credentials", "auth", "apiKey", "accessToken", "refreshToken", "passwordHash"};
 
+    // Reflection metadata is resolved once per class; see BeanPlan
+    private static final ClassValue<BeanPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BeanPlan computeValue(Class<?> type) {
+            return BeanPlan.of(type);
+        }
+    };
+
     public static Object sanitizeObject(Object obj) {
         return sanitizeObject(obj, Collections.newSetFromMap(new IdentityHashMap<>()));
     }
@@ -27,8 +44,7 @@ public class SensitiveDataSanitizer {
         if (obj instanceof Map<?, ?> map) {
             Map<Object, Object> sanitized = new HashMap<>();
             for (var entry : map.entrySet()) {
-                String key = String.valueOf(entry.getKey()).toLowerCase();
-                if (isSensitiveKey(key)) {
+                if (isSensitiveKey(String.valueOf(entry.getKey()))) {
                     sanitized.put(entry.getKey(), MASK);
                 } else {
                     sanitized.put(entry.getKey(), sanitizeObject(entry.getValue(), visited));
@@ -51,23 +67,10 @@ public class SensitiveDataSanitizer {
         } else if (obj instanceof String str) {
             if (isSensitiveString(str)) return MASK;
             return str;
-        } else if (isJavaBean(obj)) {
-            try {
-                Class<?> clazz = obj.getClass();
-                Object clone = clazz.getDeclaredConstructor().newInstance();
-                for (Field field : clazz.getDeclaredFields()) {
-                    field.setAccessible(true);
-                    Object value = field.get(obj);
-                    if (isSensitiveKey(field.getName())) {
-                        field.set(clone, MASK);
-                    } else {
-                        field.set(clone, sanitizeObject(value, visited));
-                    }
-                }
-                return clone;
-            } catch (Exception e) {
-                return obj.toString();
-            }
+        }
+        BeanPlan plan = PLANS.get(obj.getClass());
+        if (plan.bean) {
+            return plan.sanitize(obj, visited);
         }
         return obj;
     }
@@ -80,20 +83,231 @@ public class SensitiveDataSanitizer {
         return Arrays.toString(sanitized);
     }
 
+    /**
+     * Renders a URI for logging: user info and the values of query parameters with sensitive names are masked, and so
+     * are path segments, query values and fragments that look like tokens (see {@link #isSensitiveString}).
+     * @param uri the URI, or null
+     * @return the masked URI string, or null
+     */
+    public static String sanitizeUri(URI uri) {
+        if (uri == null) return null;
+        if (uri.isOpaque()) return uri.getScheme() + ":" + MASK;
+        StringBuilder out = new StringBuilder();
+        if (uri.getScheme() != null) out.append(uri.getScheme()).append(':');
+        String authority = uri.getRawAuthority();
+        if (authority != null) {
+            out.append("//");
+            int at = authority.indexOf('@');
+            out.append(at >= 0 ? MASK + authority.substring(at) : authority);
+        }
+        String path = uri.getRawPath();
+        if (path != null) {
+            String[] segments = path.split("/", -1);
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) out.append('/');
+                out.append(isSensitiveString(decode(segments[i])) ? MASK : segments[i]);
+            }
+        }
+        String query = uri.getRawQuery();
+        if (query != null) {
+            out.append('?');
+            String[] pairs = query.split("&", -1);
+            for (int i = 0; i < pairs.length; i++) {
+                if (i > 0) out.append('&');
+                int eq = pairs[i].indexOf('=');
+                if (eq < 0) {
+                    out.append(isSensitiveString(decode(pairs[i])) ? MASK : pairs[i]);
+                    continue;
+                }
+                String name = pairs[i].substring(0, eq);
+                String value = pairs[i].substring(eq + 1);
+                boolean mask = isSensitiveKey(decode(name)) || isSensitiveString(decode(value));
+                out.append(name).append('=').append(mask ? MASK : value);
+            }
+        }
+        String fragment = uri.getRawFragment();
+        if (fragment != null) {
+            out.append('#').append(isSensitiveString(decode(fragment)) ? MASK : fragment);
+        }
+        return out.toString();
+    }
+
+    /** Percent-decodes a raw URI component, leaving '+' as is; malformed input is returned raw. */
+    private static String decode(String raw) {
+        if (raw.indexOf('%') < 0) return raw;
+        try {
+            return URLDecoder.decode(raw.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return raw;
+        }
+    }
+
+    /**
+     * True if the lower-cased key contains one of {@link #SENSITIVE_KEYS}.
+     * Compares char by char instead of allocating a lower-cased copy of the key.
+     */
     private static boolean isSensitiveKey(String key) {
         for (String sensitive : SENSITIVE_KEYS) {
-            if (key.toLowerCase().contains(sensitive)) return true;
+            if (containsIgnoringKeyCase(key, sensitive)) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoringKeyCase(String key, String needle) {
+        int last = key.length() - needle.length();
+        outer:
+        for (int start = 0; start <= last; start++) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (Character.toLowerCase(key.charAt(start + j)) != needle.charAt(j)) continue outer;
+            }
+            return true;
         }
         return false;
     }
 
+    /**
+     * Mask if string looks like a hash/token/key: longer than 20 chars, only [A-Za-z0-9+/=],
+     * and not letters only (i.e. at least one digit, '+', '/' or '=').
+     */
     private static boolean isSensitiveString(String str) {
-        // Mask if string looks like a hash/token/key (long, random, or base64-like)
-        return str.length() > 20 && str.matches("[A-Za-z0-9+/=]+") && !str.matches("[a-zA-Z ]+");
+        int len = str.length();
+        if (len <= 20) return false;
+        boolean nonLetter = false;
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) continue;
+            if ((c >= '0' && c <= '9') || c == '+' || c == '/' || c == '=') {
+                nonLetter = true;
+                continue;
+            }
+            return false;
+        }
+        return nonLetter;
     }
 
-    private static boolean isJavaBean(Object obj) {
-        String pkg = obj.getClass().getPackageName();
-        return pkg.startsWith("com.hr.newwork") && !(obj instanceof Enum);
+    /**
+     * Precompiled cloning plan for one class: constructor and field accessors as method handles,
+     * plus a bitmap of fields whose names are sensitive. Reproduces the reflective walk exactly,
+     * including its fallback to {@code obj.toString()} whenever the clone cannot be built.
+     */
+    private static final class BeanPlan {
+        private static final BeanPlan NOT_BEAN = new BeanPlan(false, null, new MethodHandle[0], new MethodHandle[0], new BitSet(), -1, false);
+        private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final boolean bean;
+        private final MethodHandle constructor; // null: cannot instantiate, always falls back to toString()
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+        private final BitSet sensitive;
+        private final int failAt;               // index of the first field that can never be copied, or -1
+        private final boolean failBeforeRead;   // whether the failing field is abandoned before its value is read
+
+        private BeanPlan(boolean bean, MethodHandle constructor, MethodHandle[] getters, MethodHandle[] setters,
+                         BitSet sensitive, int failAt, boolean failBeforeRead) {
+            this.bean = bean;
+            this.constructor = constructor;
+            this.getters = getters;
+            this.setters = setters;
+            this.sensitive = sensitive;
+            this.failAt = failAt;
+            this.failBeforeRead = failBeforeRead;
+        }
+
+        private Object sanitize(Object obj, Set<Object> visited) {
+            if (constructor == null) return obj.toString();
+            try {
+                Object clone = constructor.invoke();
+                int count = failAt >= 0 ? failAt : getters.length;
+                for (int i = 0; i < count; i++) {
+                    if (sensitive.get(i)) {
+                        setters[i].invokeExact(clone, (Object) MASK);
+                    } else {
+                        Object value = (Object) getters[i].invokeExact(obj);
+                        setters[i].invokeExact(clone, sanitizeObject(value, visited));
+                    }
+                }
+                if (failAt >= 0) {
+                    // Mirror the side effects (visited set) of the reflective walk up to the failing write
+                    if (!failBeforeRead && !sensitive.get(failAt)) {
+                        sanitizeObject((Object) getters[failAt].invokeExact(obj), visited);
+                    }
+                    return obj.toString();
+                }
+                return clone;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // e.g. a sanitized value no longer fits the field type
+                return obj.toString();
+            }
+        }
+
+        private static BeanPlan of(Class<?> type) {
+            if (!type.getPackageName().startsWith("com.hr.newwork") || Enum.class.isAssignableFrom(type)) {
+                return NOT_BEAN;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor;
+            try {
+                Constructor<?> ctor = type.getDeclaredConstructor();
+                if (Modifier.isAbstract(type.getModifiers()) || !ctor.canAccess(null)) {
+                    return new BeanPlan(true, null, null, null, null, -1, false);
+                }
+                constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return new BeanPlan(true, null, null, null, null, -1, false);
+            }
+            Field[] fields = type.getDeclaredFields();
+            MethodHandle[] getters = new MethodHandle[fields.length];
+            MethodHandle[] setters = new MethodHandle[fields.length];
+            BitSet sensitive = new BitSet(fields.length);
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                boolean maskField = isSensitiveKey(field.getName());
+                if (maskField) sensitive.set(i);
+                try {
+                    field.setAccessible(true);
+                    getters[i] = getter(lookup, field);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    return failing(constructor, getters, setters, sensitive, i, true);
+                }
+                try {
+                    if (maskField && !box(field.getType()).isAssignableFrom(String.class)) {
+                        return failing(constructor, getters, setters, sensitive, i, false);
+                    }
+                    setters[i] = setter(lookup, field);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // e.g. static final fields, which Field.set refuses to write
+                    return failing(constructor, getters, setters, sensitive, i, false);
+                }
+            }
+            return new BeanPlan(true, constructor, getters, setters, sensitive, -1, false);
+        }
+
+        private static BeanPlan failing(MethodHandle constructor, MethodHandle[] getters, MethodHandle[] setters,
+                                        BitSet sensitive, int failAt, boolean failBeforeRead) {
+            return new BeanPlan(true, constructor, getters, setters, sensitive, failAt, failBeforeRead);
+        }
+
+        private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            MethodHandle getter = lookup.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER);
+        }
+
+        private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            MethodHandle setter = lookup.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            return setter.asType(SETTER);
+        }
+
+        private static Class<?> box(Class<?> type) {
+            return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+        }
     }
 }
@@ -0,0 +1,182 @@
+package com.hr.newwork.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe per-key attempt limiter over a sliding window, with progressive backoff once the limit is hit.
+ * <p>
+ * The window is approximated from two fixed windows: the previous window's count weighted by how much of it
+ * still overlaps the sliding window, plus the current count. Each key costs one small entry; keys are spread
+ * over lock stripes, each an access-ordered map capped at {@code maxKeys / stripes} entries that evicts its least
+ * recently used key, so memory stays bounded however many distinct keys are seen.
+ * <p>
+ * Every rejection while over the limit adds a strike and blocks the key for {@code baseBackoffMs * 2^(strikes-1)},
+ * capped at {@code maxBackoffMs}. Strikes are forgotten once a full window passes with no attempts and no block.
+ */
+public class SlidingWindowLimiter {
+    private final int limit;
+    private final long windowMs;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final Stripe[] stripes;
+    private final LongAdder evictions = new LongAdder();
+
+    public SlidingWindowLimiter(int limit, long windowMs, long baseBackoffMs, long maxBackoffMs, int stripeCount, int maxKeys) {
+        if (limit < 1 || windowMs < 1 || stripeCount < 1 || maxKeys < stripeCount) {
+            throw new IllegalArgumentException("Invalid limiter settings");
+        }
+        this.limit = limit;
+        this.windowMs = windowMs;
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+        int n = Integer.highestOneBit(stripeCount - 1) << 1; // next power of two
+        this.stripes = new Stripe[Math.max(1, n)];
+        int perStripe = Math.max(1, maxKeys / stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Records an attempt for the key unless it is over the limit or backing off.
+     * @param key the key, e.g. an email address or client IP
+     * @param now the current time in epoch milliseconds
+     * @return 0 if the attempt is allowed, otherwise how many milliseconds to wait before retrying
+     */
+    public long tryAcquire(String key, long now) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entry.windowStart = now - now % windowMs;
+                stripe.entries.put(key, entry);
+            }
+            if (now < entry.blockedUntil) {
+                return entry.blockedUntil - now;
+            }
+            entry.advance(now, windowMs);
+            if (entry.estimate(now, windowMs) >= limit) {
+                entry.strikes = Math.min(entry.strikes + 1, 62);
+                long backoff = entry.strikes > 31 ? maxBackoffMs : Math.min(baseBackoffMs << (entry.strikes - 1), maxBackoffMs);
+                entry.blockedUntil = now + backoff;
+                return backoff;
+            }
+            entry.current++;
+            return 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back one attempt recorded by {@link #tryAcquire}, e.g. once it turned out to be legitimate, so only
+     * unwanted attempts count towards the limit. Strikes and an active block are kept.
+     * @param key the key
+     * @param now the current time in epoch milliseconds
+     */
+    public void release(String key, long now) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) return;
+            entry.advance(now, windowMs);
+            if (entry.current > 0) {
+                entry.current--;
+            } else if (entry.previous > 0) {
+                entry.previous--;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the key, e.g. after a successful login.
+     */
+    public void reset(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of keys currently tracked
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of keys evicted to stay within the key bound
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Entry {
+        private long windowStart;
+        private long blockedUntil;
+        private int current;
+        private int previous;
+        private int strikes;
+
+        private void advance(long now, long windowMs) {
+            long elapsedWindows = (now - windowStart) / windowMs;
+            if (elapsedWindows <= 0) return;
+            previous = elapsedWindows == 1 ? current : 0;
+            current = 0;
+            windowStart += elapsedWindows * windowMs;
+            if (previous == 0 && now - blockedUntil >= windowMs) {
+                strikes = 0;
+            }
+        }
+
+        private double estimate(long now, long windowMs) {
+            double previousWeight = (double) (windowMs - (now - windowStart)) / windowMs;
+            return previous * previousWeight + current;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.hr.newwork.util.enums;
+
+/**
+ * Result of a bulk absence decision for one request id.
+ */
+public enum AbsenceDecisionOutcome {
+    APPROVED, REJECTED, NOT_FOUND, FORBIDDEN, NOT_PENDING
+}
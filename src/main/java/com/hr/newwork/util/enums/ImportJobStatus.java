@@ -0,0 +1,11 @@
+package com.hr.newwork.util.enums;
+
+/**
+ * Status of a background user import.
+ */
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.hr.newwork.util.enums;
+
+/**
+ * Kind of leave ledger entry.
+ */
+public enum LeaveEntryType {
+    ACCRUAL,
+    USAGE,
+    REVERSAL
+}
@@ -0,0 +1,24 @@
+package com.hr.newwork.util.enums;
+
+/**
+ * Bucket size of a pre-aggregated audit activity rollup.
+ */
+public enum RollupGranularity {
+    HOUR, DAY;
+
+    /**
+     * @return the Postgres date_trunc unit matching this granularity
+     */
+    public String truncUnit() {
+        return name().toLowerCase();
+    }
+
+    public static RollupGranularity fromString(String value) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant for value: " + value);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hr.newwork.util.mappers;
+
+import com.hr.newwork.data.dto.AuditLogRollupDto;
+import com.hr.newwork.data.entity.AuditLogRollup;
+
+public class AuditLogRollupMapper {
+    public static AuditLogRollupDto toDto(AuditLogRollup rollup) {
+        if (rollup == null) return null;
+        return AuditLogRollupDto.builder()
+            .granularity(rollup.getGranularity() != null ? rollup.getGranularity().name() : null)
+            .bucketStart(rollup.getBucketStart())
+            .actorId(rollup.getActorId())
+            .targetTable(rollup.getTargetTable())
+            .action(rollup.getAction())
+            .count(rollup.getEventCount())
+            .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.hr.newwork;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base class of tests running against a real Postgres (range types, exclusion constraints, native queries), migrated
+ * by Liquibase like production. The container is started once and shared by every subclass, so the Spring context
+ * is cached across test classes; it is removed when the JVM exits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+}
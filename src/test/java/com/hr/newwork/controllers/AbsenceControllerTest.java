@@ -0,0 +1,109 @@
+package com.hr.newwork.controllers;
+
+import com.hr.newwork.config.security.AccessTokenRevocationCache;
+import com.hr.newwork.config.security.JwtTokenProvider;
+import com.hr.newwork.data.dto.AbsenceRequestDto;
+import com.hr.newwork.services.AbsenceService;
+import com.hr.newwork.util.ETagUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs of the personal absence list: the ETag comes from the request versions, so an unchanged list is
+ * answered 304 without being loaded, and any change to it yields 200 with a new tag. Security filters are off; access
+ * rules are the service's.
+ */
+@WebMvcTest(AbsenceController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AbsenceControllerTest {
+    private static final UUID USER = UUID.fromString("0190f3a2-0000-7000-8000-0000000000aa");
+    private static final UUID FIRST = UUID.fromString("0190f3a2-0000-7000-8000-000000000001");
+    private static final UUID SECOND = UUID.fromString("0190f3a2-0000-7000-8000-000000000002");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AbsenceService absenceService;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    private AccessTokenRevocationCache accessTokenRevocationCache;
+
+    private record Version(UUID id, long version) {
+    }
+
+    private static String tag(Version... versions) {
+        return ETagUtil.ofList(List.of(versions), Version::id, Version::version);
+    }
+
+    private static AbsenceRequestDto absence(UUID id) {
+        return AbsenceRequestDto.builder().id(id).userId(USER).startDate(LocalDate.of(2025, 3, 2))
+            .endDate(LocalDate.of(2025, 3, 6)).type("VACATION").status("PENDING").build();
+    }
+
+    @Test
+    void listCarriesAStrongETag() throws Exception {
+        String eTag = tag(new Version(FIRST, 0));
+        when(absenceService.getAbsencesETag(USER.toString())).thenReturn(eTag);
+        when(absenceService.listAbsences(USER.toString())).thenReturn(List.of(absence(FIRST)));
+
+        mockMvc.perform(get("/absences/{userId}", USER))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(jsonPath("$[0].id").value(FIRST.toString()));
+    }
+
+    @Test
+    void unchangedListIsNotModified() throws Exception {
+        String eTag = tag(new Version(FIRST, 0));
+        when(absenceService.getAbsencesETag(USER.toString())).thenReturn(eTag);
+
+        mockMvc.perform(get("/absences/{userId}", USER).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+        // If-None-Match uses the weak comparison, so a weakened copy of the tag also matches
+        mockMvc.perform(get("/absences/{userId}", USER).header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+            .andExpect(status().isNotModified());
+        verify(absenceService, never()).listAbsences(any());
+    }
+
+    @Test
+    void changedListIsServedWithANewTag() throws Exception {
+        String before = tag(new Version(FIRST, 0));
+        String after = tag(new Version(FIRST, 0), new Version(SECOND, 0));
+        assertNotEquals(before, after);
+        when(absenceService.getAbsencesETag(USER.toString())).thenReturn(after);
+        when(absenceService.listAbsences(USER.toString())).thenReturn(List.of(absence(FIRST), absence(SECOND)));
+
+        mockMvc.perform(get("/absences/{userId}", USER).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, after))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[1].id").value(SECOND.toString()));
+    }
+}
@@ -0,0 +1,188 @@
+package com.hr.newwork.repositories;
+
+import com.hr.newwork.PostgresIntegrationTest;
+import com.hr.newwork.util.enums.AbsenceStatus;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the statements the repository finders actually generate use the indexes of
+ * {@code 013-finder-indexes.xml}. Each finder is called over a seeded dataset with statement capture on; its first
+ * statement is replayed, with the same parameter bindings, under {@code EXPLAIN (FORMAT JSON)} and the plan must
+ * name the expected index. Seed data is rolled back after each test.
+ */
+@Transactional
+@Sql("/db/finder-index-seed.sql")
+class FinderIndexTest extends PostgresIntegrationTest {
+    private static final String ADMIN = "ADMIN";
+    private static final StatementCapture CAPTURE = new StatementCapture();
+
+    @Autowired
+    private AbsenceRequestRepository absenceRequestRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(CAPTURE)
+                            .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void absenceRequestFindersUseTheirIndexes() {
+        assertUses(() -> absenceRequestRepository.findByUserId(uuid("explain-user-1234")),
+            "idx_absence_requests_user_status");
+        assertUses(() -> absenceRequestRepository.findByUser_Manager_IdAndStatus(uuid("explain-manager-7"), AbsenceStatus.PENDING),
+            "idx_users_manager", "idx_absence_requests_(user_status|pending)");
+        assertUses(() -> absenceRequestRepository.findByUser_Manager_IdAndStatus(uuid("explain-manager-7"), AbsenceStatus.APPROVED),
+            "idx_users_manager", "idx_absence_requests_user_status");
+    }
+
+    @Test
+    void feedbackFindersUseTheirIndexes() {
+        assertUses(() -> feedbackRepository.findByAuthorId(uuid("explain-user-1234")), "idx_feedback_author");
+        assertUses(() -> feedbackRepository.findByTargetUserId(uuid("explain-user-1234")), "idx_feedback_target");
+        assertUses(() -> feedbackRepository.findByTargetUserIdIn(
+                List.of(uuid("explain-user-1"), uuid("explain-user-2"), uuid("explain-user-3"))),
+            "idx_feedback_target");
+    }
+
+    @Test
+    void userFindersUseTheirIndexes() {
+        assertUses(() -> userRepository.findByManager_Id(uuid("explain-manager-7")), "idx_users_manager");
+        assertUses(() -> userRepository.findByDepartment("Dept 7"), "idx_users_department_manager");
+        assertUses(() -> userRepository.findByDepartmentAndManager_Id("Dept 7", uuid("explain-manager-7")),
+            "idx_users_(department_manager|manager)");
+        assertUses(() -> userRepository.findByRole(ADMIN), "idx_user_roles_role");
+    }
+
+    /**
+     * Runs the finder, explains the first statement it issued and checks each pattern matches an index in the plan.
+     */
+    private void assertUses(Runnable finder, String... indexPatterns) {
+        List<Captured> statements = CAPTURE.record(finder);
+        assertFalse(statements.isEmpty(), "The finder issued no statement");
+        Captured statement = statements.get(0);
+        String plan = explain(statement);
+        for (String pattern : indexPatterns) {
+            assertTrue(Pattern.compile("\"Index Name\": \"" + pattern + "\"").matcher(plan).find(),
+                () -> statement.sql() + "\ndoes not use an index matching " + pattern + ":\n" + plan);
+        }
+    }
+
+    private String explain(Captured statement) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql());
+            try {
+                // Replays the driver calls the finder made (setObject, setString, ...), so types match exactly
+                for (ParameterSetOperation operation : statement.parameters()) {
+                    operation.getMethod().invoke(ps, operation.getArgs());
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Cannot replay parameter binding", e);
+            }
+            return ps;
+        }, rs -> {
+            rs.next();
+            return rs.getString(1);
+        });
+    }
+
+    private static UUID uuid(String seed) {
+        // Same ids as md5(seed)::uuid in the seed script
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(seed.getBytes(StandardCharsets.UTF_8));
+            long msb = 0;
+            long lsb = 0;
+            for (int i = 0; i < 8; i++) msb = (msb << 8) | (md5[i] & 0xff);
+            for (int i = 8; i < 16; i++) lsb = (lsb << 8) | (md5[i] & 0xff);
+            return new UUID(msb, lsb);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Captured(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    /**
+     * Records the statements executed by the calling thread while {@link #record} runs; statements of scheduled jobs
+     * running meanwhile are ignored.
+     */
+    private static final class StatementCapture implements QueryExecutionListener {
+        private final List<Captured> statements = new CopyOnWriteArrayList<>();
+        private volatile Thread recording;
+
+        List<Captured> record(Runnable action) {
+            statements.clear();
+            recording = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                recording = null;
+            }
+            return new ArrayList<>(statements);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (recording != Thread.currentThread()) return;
+            for (QueryInfo query : queryInfoList) {
+                List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                    ? List.of() : new ArrayList<>(query.getParametersList().get(0));
+                statements.add(new Captured(query.getQuery(), parameters));
+            }
+        }
+    }
+}
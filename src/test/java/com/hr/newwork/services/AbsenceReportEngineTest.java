@@ -0,0 +1,175 @@
+package com.hr.newwork.services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the engine's sweep with a naive count, day by day, of the people absent.
+ */
+class AbsenceReportEngineTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final Predicate<LocalDate> WEEKDAY =
+        date -> date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdownNow();
+    }
+
+    @Test
+    void monthlyWindowSplitsAtMonthStarts() {
+        AbsenceReportEngine.Window window = AbsenceReportEngine.Window.monthly(
+            LocalDate.of(2025, 1, 20), LocalDate.of(2025, 3, 10), WEEKDAY);
+        // Jan 20, Feb 1 and Mar 1 as offsets from Jan 20
+        assertArrayEquals(new int[] {0, 12, 40}, window.bucketStarts());
+        assertEquals(50, window.days());
+        assertEquals(1, window.workingDay()[0]); // Monday
+        assertEquals(0, window.workingDay()[5]); // Saturday
+    }
+
+    @Test
+    void rangesCrossingMonthAndWindowEdgesAreClipped() {
+        LocalDate from = LocalDate.of(2025, 1, 15);
+        LocalDate to = LocalDate.of(2025, 3, 15);
+        List<LocalDate[]> ranges = List.of(
+            range(2025, 1, 1, 2025, 1, 20),   // starts before the window
+            range(2025, 1, 28, 2025, 2, 3),   // crosses Jan/Feb
+            range(2025, 2, 27, 2025, 3, 2),   // crosses Feb/Mar
+            range(2025, 3, 10, 2025, 4, 30),  // ends after the window
+            range(2024, 12, 1, 2025, 6, 30),  // covers the whole window
+            range(2025, 1, 15, 2025, 1, 15),  // first day only
+            range(2025, 3, 15, 2025, 3, 15),  // last day only
+            range(2024, 1, 1, 2025, 1, 14),   // ends the day before the window
+            range(2025, 3, 16, 2025, 3, 20)); // starts the day after it
+        assertMatchesNaive(from, to, List.of(ranges));
+    }
+
+    @Test
+    void singleDayWindow() {
+        LocalDate day = LocalDate.of(2025, 5, 31);
+        assertMatchesNaive(day, day, List.of(List.of(range(2025, 5, 1, 2025, 6, 30), range(2025, 5, 31, 2025, 5, 31))));
+    }
+
+    @Test
+    void singleDepartment() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        assertMatchesNaive(from, to, List.of(randomRanges(new SplittableRandom(1), 500, from, to)));
+    }
+
+    @Test
+    void emptyDepartmentHasZeroTotals() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 4, 30);
+        SplittableRandom random = new SplittableRandom(2);
+        List<List<LocalDate[]>> departments = List.of(randomRanges(random, 50, from, to), List.of(), randomRanges(random, 5, from, to));
+        assertMatchesNaive(from, to, departments);
+
+        AbsenceReportEngine.Window window = AbsenceReportEngine.Window.monthly(from, to, WEEKDAY);
+        AbsenceReportEngine.Totals empty = AbsenceReportEngine.sweep(new AbsenceReportEngine.Ranges(), window);
+        assertArrayEquals(new long[4], empty.absenceDays);
+        assertArrayEquals(new long[4], empty.workingDays);
+        assertArrayEquals(new int[4], empty.peakAbsent);
+    }
+
+    @Test
+    void noDepartments() {
+        AbsenceReportEngine.Window window = AbsenceReportEngine.Window.monthly(
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), WEEKDAY);
+        assertEquals(List.of(), AbsenceReportEngine.sweepAll(List.of(), window, POOL));
+    }
+
+    @Test
+    void forkJoinSplitKeepsResultsInGroupOrder() {
+        LocalDate from = LocalDate.of(2024, 11, 1);
+        LocalDate to = LocalDate.of(2025, 2, 28);
+        SplittableRandom random = new SplittableRandom(3);
+        List<List<LocalDate[]>> departments = new ArrayList<>();
+        // Enough rows overall to split, one department large enough on its own, and some small ones
+        departments.add(randomRanges(random, AbsenceReportEngine.SEQUENTIAL_ROWS + 100, from, to));
+        for (int d = 0; d < 40; d++) {
+            departments.add(randomRanges(random, random.nextInt(0, 1500), from, to));
+        }
+        assertMatchesNaive(from, to, departments);
+    }
+
+    private static void assertMatchesNaive(LocalDate from, LocalDate to, List<List<LocalDate[]>> departments) {
+        AbsenceReportEngine.Window window = AbsenceReportEngine.Window.monthly(from, to, WEEKDAY);
+        List<Map.Entry<String, AbsenceReportEngine.Ranges>> groups = new ArrayList<>();
+        for (int d = 0; d < departments.size(); d++) {
+            AbsenceReportEngine.Ranges ranges = new AbsenceReportEngine.Ranges();
+            for (LocalDate[] range : departments.get(d)) {
+                ranges.add((int) range[0].toEpochDay(), (int) range[1].toEpochDay());
+            }
+            groups.add(new AbstractMap.SimpleEntry<>("Dept" + d, ranges));
+        }
+        List<AbsenceReportEngine.Totals> totals = AbsenceReportEngine.sweepAll(groups, window, POOL);
+        assertEquals(departments.size(), totals.size());
+        for (int d = 0; d < departments.size(); d++) {
+            Naive expected = naive(from, to, departments.get(d));
+            AbsenceReportEngine.Totals actual = totals.get(d);
+            String department = "Dept" + d;
+            assertArrayEquals(expected.absenceDays, actual.absenceDays, department + " absence days");
+            assertArrayEquals(expected.workingDays, actual.workingDays, department + " working days");
+            assertArrayEquals(expected.peakAbsent, actual.peakAbsent, department + " peak absent");
+        }
+    }
+
+    private record Naive(long[] absenceDays, long[] workingDays, int[] peakAbsent) {
+    }
+
+    /**
+     * Per month of [from, to]: walks every day and counts who is absent on it.
+     */
+    private static Naive naive(LocalDate from, LocalDate to, List<LocalDate[]> ranges) {
+        List<Long> absence = new ArrayList<>();
+        List<Long> working = new ArrayList<>();
+        List<Integer> peak = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.equals(from) || day.getDayOfMonth() == 1) {
+                absence.add(0L);
+                working.add(0L);
+                peak.add(0);
+            }
+            int absent = 0;
+            for (LocalDate[] range : ranges) {
+                if (!day.isBefore(range[0]) && !day.isAfter(range[1])) absent++;
+            }
+            int last = absence.size() - 1;
+            absence.set(last, absence.get(last) + absent);
+            if (WEEKDAY.test(day)) working.set(last, working.get(last) + absent);
+            peak.set(last, Math.max(peak.get(last), absent));
+        }
+        return new Naive(absence.stream().mapToLong(Long::longValue).toArray(),
+            working.stream().mapToLong(Long::longValue).toArray(),
+            peak.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static List<LocalDate[]> randomRanges(SplittableRandom random, int count, LocalDate from, LocalDate to) {
+        int span = (int) (to.toEpochDay() - from.toEpochDay());
+        List<LocalDate[]> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Some start before the window and some end after it
+            LocalDate start = from.plusDays(random.nextInt(-20, span + 5));
+            ranges.add(new LocalDate[] {start, start.plusDays(random.nextInt(0, 30))});
+        }
+        return ranges;
+    }
+
+    private static LocalDate[] range(int y1, int m1, int d1, int y2, int m2, int d2) {
+        return new LocalDate[] {LocalDate.of(y1, m1, d1), LocalDate.of(y2, m2, d2)};
+    }
+}
@@ -0,0 +1,190 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.PostgresIntegrationTest;
+import com.hr.newwork.data.dto.AbsenceDecisionOutcomeDto;
+import com.hr.newwork.data.dto.AbsenceDecisionRequestDto;
+import com.hr.newwork.util.UuidV7;
+import com.hr.newwork.util.enums.AbsenceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Bulk decisions against Postgres: only pending requests of the caller's reports are decided, each booked in the
+ * leave ledger and versioned exactly once. Each test is rolled back.
+ */
+@Transactional
+class AbsenceServiceDecisionsTest extends PostgresIntegrationTest {
+    private static final int YEAR = LocalDate.now().getYear() + 2;
+
+    @Autowired
+    private AbsenceService absenceService;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID managerId;
+    private UUID alice;
+    private UUID bob;
+    private UUID stranger;
+
+    @BeforeEach
+    void team() {
+        managerId = createUser(null);
+        alice = createUser(managerId);
+        bob = createUser(managerId);
+        stranger = createUser(createUser(null));
+        String email = jdbcTemplate.queryForObject("SELECT email FROM users WHERE id = ?", String.class, managerId);
+        UserDetails principal = User.withUsername(email).password("x").authorities(List.of()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bulkApprovalBooksAndVersionsEachPendingRequestOnce() {
+        UUID aliceMarch = createAbsence(alice, LocalDate.of(YEAR, 3, 2), LocalDate.of(YEAR, 3, 6), AbsenceStatus.PENDING);
+        UUID aliceNewYear = createAbsence(alice, LocalDate.of(YEAR, 12, 28), LocalDate.of(YEAR + 1, 1, 8), AbsenceStatus.PENDING);
+        UUID aliceApproved = createAbsence(alice, LocalDate.of(YEAR, 5, 4), LocalDate.of(YEAR, 5, 8), AbsenceStatus.APPROVED);
+        UUID bobRejected = createAbsence(bob, LocalDate.of(YEAR, 6, 1), LocalDate.of(YEAR, 6, 5), AbsenceStatus.REJECTED);
+        UUID bobJuly = createAbsence(bob, LocalDate.of(YEAR, 7, 6), LocalDate.of(YEAR, 7, 17), AbsenceStatus.PENDING);
+        UUID strangerPending = createAbsence(stranger, LocalDate.of(YEAR, 8, 3), LocalDate.of(YEAR, 8, 7), AbsenceStatus.PENDING);
+        UUID missing = UuidV7.next();
+
+        List<AbsenceDecisionOutcomeDto> outcomes = decide("APPROVE",
+            aliceMarch, aliceApproved, aliceNewYear, aliceMarch, bobRejected, bobJuly, strangerPending, missing);
+
+        Map<UUID, String> expected = new LinkedHashMap<>();
+        expected.put(aliceMarch, "APPROVED");
+        expected.put(aliceApproved, "NOT_PENDING");
+        expected.put(aliceNewYear, "APPROVED");
+        expected.put(bobRejected, "NOT_PENDING");
+        expected.put(bobJuly, "APPROVED");
+        expected.put(strangerPending, "FORBIDDEN");
+        expected.put(missing, "NOT_FOUND");
+        assertEquals(expected, toMap(outcomes));
+
+        assertDecidedOnce(aliceMarch, 1);
+        assertDecidedOnce(aliceNewYear, 2);
+        assertDecidedOnce(bobJuly, 1);
+        for (UUID untouched : List.of(aliceApproved, bobRejected, strangerPending)) {
+            assertEquals(0L, version(untouched));
+            assertEquals(0, ledgerRows(untouched));
+        }
+        assertEquals(AbsenceStatus.PENDING.name(), status(strangerPending));
+        assertEquals(workingDays(aliceMarch) + workingDaysByYear(aliceNewYear).get(YEAR), used(alice, YEAR));
+        assertEquals(workingDaysByYear(aliceNewYear).get(YEAR + 1), used(alice, YEAR + 1));
+        assertEquals(workingDays(bobJuly), used(bob, YEAR));
+
+        // Deciding the same ids again finds nothing pending and books nothing more
+        List<AbsenceDecisionOutcomeDto> again = decide("APPROVE", aliceMarch, aliceNewYear, bobJuly);
+        again.forEach(outcome -> assertEquals("NOT_PENDING", outcome.getOutcome()));
+        assertDecidedOnce(aliceMarch, 1);
+        assertDecidedOnce(aliceNewYear, 2);
+        assertDecidedOnce(bobJuly, 1);
+    }
+
+    @Test
+    void bulkRejectionBooksNothing() {
+        UUID pending = createAbsence(alice, LocalDate.of(YEAR, 3, 2), LocalDate.of(YEAR, 3, 6), AbsenceStatus.PENDING);
+        UUID approved = createAbsence(bob, LocalDate.of(YEAR, 3, 2), LocalDate.of(YEAR, 3, 6), AbsenceStatus.APPROVED);
+
+        List<AbsenceDecisionOutcomeDto> outcomes = decide("REJECT", pending, approved);
+
+        assertEquals(Map.of(pending, "REJECTED", approved, "NOT_PENDING"), toMap(outcomes));
+        assertEquals(AbsenceStatus.REJECTED.name(), status(pending));
+        assertEquals(1L, version(pending));
+        assertEquals(0L, version(approved));
+        assertEquals(0, ledgerRows(pending));
+        assertEquals(0, ledgerRows(approved));
+    }
+
+    private List<AbsenceDecisionOutcomeDto> decide(String decision, UUID... ids) {
+        AbsenceDecisionRequestDto request = new AbsenceDecisionRequestDto();
+        request.setIds(List.of(ids));
+        request.setDecision(decision);
+        return absenceService.decideAbsences(request);
+    }
+
+    private static Map<UUID, String> toMap(List<AbsenceDecisionOutcomeDto> outcomes) {
+        Map<UUID, String> map = new LinkedHashMap<>();
+        outcomes.forEach(outcome -> assertNull(map.put(outcome.getId(), outcome.getOutcome()), "duplicate outcome"));
+        return map;
+    }
+
+    /** Approved, versioned once and booked with one usage row per calendar year it spans, summing to its working days. */
+    private void assertDecidedOnce(UUID absenceId, int years) {
+        assertEquals(AbsenceStatus.APPROVED.name(), status(absenceId));
+        assertEquals(1L, version(absenceId));
+        assertEquals(years, ledgerRows(absenceId));
+        assertEquals(years, workingDaysByYear(absenceId).size());
+        assertEquals(-workingDays(absenceId), jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(days), 0) FROM leave_ledger WHERE absence_request_id = ?", Integer.class, absenceId));
+    }
+
+    private int workingDays(UUID absenceId) {
+        return workingDaysByYear(absenceId).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private Map<Integer, Integer> workingDaysByYear(UUID absenceId) {
+        return jdbcTemplate.queryForObject("SELECT start_date, end_date FROM absence_requests WHERE id = ?",
+            (rs, i) -> workingDayCalendar.workingDaysByYear(rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)),
+            absenceId);
+    }
+
+    private UUID createUser(UUID managerId) {
+        UUID id = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, first_name, last_name, is_active, hire_date, manager_id) " +
+            "VALUES (?, ?, 'x', 'Decision', 'Test', true, DATE '2020-01-01', ?)", id, "decision-" + id + "@example.com", managerId);
+        return id;
+    }
+
+    private UUID createAbsence(UUID userId, LocalDate start, LocalDate end, AbsenceStatus status) {
+        UUID id = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO absence_requests (id, user_id, start_date, end_date, type, status, created_at) " +
+            "VALUES (?, ?, ?, ?, 'VACATION', ?, now())", id, userId, start, end, status.name());
+        return id;
+    }
+
+    private String status(UUID absenceId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM absence_requests WHERE id = ?", String.class, absenceId);
+    }
+
+    private long version(UUID absenceId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM absence_requests WHERE id = ?", Long.class, absenceId);
+    }
+
+    private int ledgerRows(UUID absenceId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leave_ledger WHERE absence_request_id = ? AND entry_type = 'USAGE'",
+            Integer.class, absenceId);
+    }
+
+    private int used(UUID userId, int year) {
+        List<Integer> values = jdbcTemplate.queryForList(
+            "SELECT used FROM leave_balance WHERE user_id = ? AND year = ?", Integer.class, userId, year);
+        return values.isEmpty() ? 0 : values.get(0);
+    }
+}
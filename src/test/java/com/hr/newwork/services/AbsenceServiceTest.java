@@ -0,0 +1,76 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.repositories.AbsenceRequestRepository;
+import com.hr.newwork.repositories.UserRepository;
+import com.hr.newwork.services.feed.AbsenceFeed;
+import com.hr.newwork.util.SecurityUtil;
+import com.hr.newwork.util.enums.AbsenceStatus;
+import com.hr.newwork.util.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AbsenceServiceTest {
+    private static final UUID MANAGER = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    private final AbsenceRequestRepository absenceRequestRepository = mock(AbsenceRequestRepository.class);
+    private final SecurityUtil securityUtil = mock(SecurityUtil.class);
+    private final AbsenceService service = new AbsenceService(absenceRequestRepository, mock(UserRepository.class),
+        securityUtil, mock(TeamAvailabilityService.class), mock(LeaveBalanceService.class), mock(AbsenceFeed.class),
+        mock(ApplicationEventPublisher.class));
+
+    @BeforeEach
+    void manager() {
+        when(securityUtil.currentUserHasRole(Role.MANAGER)).thenReturn(true);
+        when(securityUtil.getCurrentUserId()).thenReturn(MANAGER);
+        when(absenceRequestRepository.findTeamQueue(any(), any(), any(), any())).thenReturn(Page.empty());
+    }
+
+    @Test
+    void queueKeepsTheRequestedSortWithoutSince() {
+        Pageable page = queuePage(null, PageRequest.of(1, 20, Sort.by(Sort.Order.desc("startDate"))));
+
+        assertEquals(1, page.getPageNumber());
+        assertEquals(20, page.getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("startDate")), page.getSort());
+    }
+
+    @Test
+    void queueFilteredBySinceIsOrderedByUpdatedAtThenId() {
+        LocalDateTime since = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+        Pageable page = queuePage(since, PageRequest.of(2, 50, Sort.by("createdAt")));
+
+        assertEquals(2, page.getPageNumber());
+        assertEquals(Sort.by(Sort.Order.asc("updatedAt"), Sort.Order.asc("id")), page.getSort());
+    }
+
+    @Test
+    void queuePageSizeIsCapped() {
+        Pageable page = queuePage(null, PageRequest.of(0, 1000, Sort.by("createdAt")));
+
+        assertEquals(AbsenceService.MAX_QUEUE_PAGE_SIZE, page.getPageSize());
+    }
+
+    private Pageable queuePage(LocalDateTime since, Pageable requested) {
+        service.listAbsencesForCurrentManager(AbsenceStatus.PENDING, since, requested);
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(absenceRequestRepository).findTeamQueue(eq(MANAGER), eq(AbsenceStatus.PENDING), eq(since), captor.capture());
+        return captor.getValue();
+    }
+}
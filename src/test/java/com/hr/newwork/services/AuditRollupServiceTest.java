@@ -0,0 +1,63 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Audit rollup backfill against Postgres and the rollup trigger; each test is rolled back.
+ */
+@Transactional
+class AuditRollupServiceTest extends PostgresIntegrationTest {
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void defaultRangeCoversTodaysEntries() {
+        String table = "rollup_test_" + UUID.randomUUID();
+        insertAuditLogs(table, 3);
+        // As for history written before the trigger existed
+        jdbcTemplate.update("DELETE FROM audit_log_rollup WHERE target_table = ?", table);
+
+        auditRollupService.backfill(null, null);
+
+        assertEquals(3, count(table, "DAY"));
+        assertEquals(3, count(table, "HOUR"));
+    }
+
+    @Test
+    void backfillRecountsLiveBucketsWithoutDoubleCounting() {
+        String table = "rollup_test_" + UUID.randomUUID();
+        insertAuditLogs(table, 2);
+        assertEquals(2, count(table, "DAY"));
+
+        auditRollupService.backfill(null, null);
+        insertAuditLogs(table, 1);
+
+        assertEquals(3, count(table, "DAY"));
+        assertEquals(3, count(table, "HOUR"));
+    }
+
+    private void insertAuditLogs(String table, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO audit_log (id, action, target_table, timestamp) VALUES (?, 'UPDATE', ?, ?)",
+                UUID.randomUUID(), table, now);
+        }
+    }
+
+    private int count(String table, String granularity) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(event_count), 0) FROM audit_log_rollup " +
+            "WHERE target_table = ? AND granularity = ?", Integer.class, table, granularity);
+    }
+}
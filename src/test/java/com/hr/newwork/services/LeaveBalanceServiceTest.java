@@ -0,0 +1,148 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.PostgresIntegrationTest;
+import com.hr.newwork.data.dto.LeaveMismatchDto;
+import com.hr.newwork.data.dto.LeaveReconciliationReportDto;
+import com.hr.newwork.util.UuidV7;
+import com.hr.newwork.util.enums.AbsenceStatus;
+import com.hr.newwork.util.enums.AbsenceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ledger bookings, accrual and reconciliation against Postgres; each test is rolled back.
+ */
+@Transactional
+class LeaveBalanceServiceTest extends PostgresIntegrationTest {
+    private static final int YEAR = LocalDate.now().getYear();
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${leave.accrual.days-per-year}")
+    private int daysPerYear;
+
+    @Test
+    void accrualIsIdempotent() {
+        UUID userId = createUser();
+        int year = YEAR + 3;
+        assertTrue(leaveBalanceService.accrue(year) > 0);
+        assertEquals(0, leaveBalanceService.accrue(year));
+        assertEquals(1, ledgerRows(userId, "ACCRUAL"));
+        assertEquals(daysPerYear, balance(userId, year, "accrued"));
+        assertEquals(0, balance(userId, year, "used"));
+    }
+
+    @Test
+    void approvalBooksWorkingDaysPerYearAndLeavingApprovedReversesThem() {
+        UUID userId = createUser();
+        LocalDate start = LocalDate.of(YEAR, 12, 22);
+        LocalDate end = LocalDate.of(YEAR + 1, 1, 9);
+        UUID absenceId = createAbsence(userId, start, end, AbsenceStatus.APPROVED);
+        Map<Integer, Integer> expected = workingDayCalendar.workingDaysByYear(start, end);
+
+        leaveBalanceService.applyStatusChanges(List.of(change(absenceId, userId, start, end, AbsenceStatus.PENDING, AbsenceStatus.APPROVED)));
+        assertEquals(expected.get(YEAR), balance(userId, YEAR, "used"));
+        assertEquals(expected.get(YEAR + 1), balance(userId, YEAR + 1, "used"));
+        assertEquals(2, ledgerRows(userId, "USAGE"));
+
+        leaveBalanceService.applyStatusChanges(List.of(change(absenceId, userId, start, end, AbsenceStatus.APPROVED, AbsenceStatus.REJECTED)));
+        assertEquals(0, balance(userId, YEAR, "used"));
+        assertEquals(0, balance(userId, YEAR + 1, "used"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(days), 0) FROM leave_ledger WHERE absence_request_id = ?", Integer.class, absenceId));
+    }
+
+    @Test
+    void nonVacationAndUnchangedStatusesAreNotBooked() {
+        UUID userId = createUser();
+        LocalDate start = LocalDate.of(YEAR, 3, 2);
+        UUID absenceId = createAbsence(userId, start, start.plusDays(4), AbsenceStatus.APPROVED);
+        leaveBalanceService.applyStatusChanges(List.of(
+            new LeaveBalanceService.StatusChange(absenceId, userId, AbsenceType.SICK, start, start.plusDays(4),
+                AbsenceStatus.PENDING, AbsenceStatus.APPROVED),
+            change(absenceId, userId, start, start.plusDays(4), AbsenceStatus.APPROVED, AbsenceStatus.APPROVED)));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leave_ledger WHERE user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    void reconciliationRepairsDriftedBalancesAndReportsUnbookedVacation() {
+        UUID userId = createUser();
+        leaveBalanceService.accrue(YEAR);
+        jdbcTemplate.update("UPDATE leave_balance SET used = 7 WHERE user_id = ? AND year = ?", userId, YEAR);
+        LocalDate start = LocalDate.of(YEAR, 2, 2);
+        LocalDate end = start.plusDays(9);
+        createAbsence(userId, start, end, AbsenceStatus.APPROVED);
+
+        LeaveReconciliationReportDto report = leaveBalanceService.reconcile();
+
+        assertTrue(report.getBalancesRepaired() >= 1);
+        assertEquals(0, balance(userId, YEAR, "used"));
+        assertEquals(daysPerYear, balance(userId, YEAR, "accrued"));
+        List<LeaveMismatchDto> mine = report.getMismatches().stream().filter(m -> m.getUserId().equals(userId)).toList();
+        assertEquals(1, mine.size());
+        assertEquals(YEAR, mine.get(0).getYear());
+        assertEquals(0, mine.get(0).getLedgerUsed());
+        assertEquals(workingDayCalendar.workingDays(start, end), mine.get(0).getExpectedUsed());
+    }
+
+    @Test
+    void reconciliationAcceptsBookedVacation() {
+        UUID userId = createUser();
+        LocalDate start = LocalDate.of(YEAR, 4, 6);
+        LocalDate end = start.plusDays(3);
+        UUID absenceId = createAbsence(userId, start, end, AbsenceStatus.APPROVED);
+        leaveBalanceService.applyStatusChanges(List.of(change(absenceId, userId, start, end, AbsenceStatus.PENDING, AbsenceStatus.APPROVED)));
+
+        LeaveReconciliationReportDto report = leaveBalanceService.reconcile();
+
+        assertTrue(report.getMismatches().stream().noneMatch(m -> m.getUserId().equals(userId)));
+    }
+
+    private static LeaveBalanceService.StatusChange change(UUID absenceId, UUID userId, LocalDate start, LocalDate end,
+                                                           AbsenceStatus from, AbsenceStatus to) {
+        return new LeaveBalanceService.StatusChange(absenceId, userId, AbsenceType.VACATION, start, end, from, to);
+    }
+
+    private UUID createUser() {
+        UUID id = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, first_name, last_name, is_active, hire_date) " +
+            "VALUES (?, ?, 'x', 'Leave', 'Test', true, DATE '2020-01-01')", id, "leave-" + id + "@example.com");
+        return id;
+    }
+
+    private UUID createAbsence(UUID userId, LocalDate start, LocalDate end, AbsenceStatus status) {
+        UUID id = UuidV7.next();
+        jdbcTemplate.update("INSERT INTO absence_requests (id, user_id, start_date, end_date, type, status, created_at) " +
+            "VALUES (?, ?, ?, ?, 'VACATION', ?, now())", id, userId, start, end, status.name());
+        return id;
+    }
+
+    private int balance(UUID userId, int year, String column) {
+        List<Integer> values = jdbcTemplate.queryForList(
+            "SELECT " + column + " FROM leave_balance WHERE user_id = ? AND year = ?", Integer.class, userId, year);
+        return values.isEmpty() ? 0 : values.get(0);
+    }
+
+    private int ledgerRows(UUID userId, String entryType) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leave_ledger WHERE user_id = ? AND entry_type = ?",
+            Integer.class, userId, entryType);
+    }
+}
@@ -0,0 +1,153 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.dto.TeamCalendarDto;
+import com.hr.newwork.data.dto.TeamCalendarMemberDto;
+import com.hr.newwork.exceptions.BadRequestException;
+import com.hr.newwork.repositories.AbsenceRequestRepository;
+import com.hr.newwork.util.SecurityUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TeamAvailabilityServiceTest {
+    /** 130 days: the window spans three 64-bit words and ends mid-byte. */
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = FROM.plusDays(129);
+    private static final int DAYS = 130;
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @Test
+    void setsTheFirstAndLastDayOfTheWindow() {
+        TeamCalendarDto calendar = TeamAvailabilityService.buildCalendar(List.of(
+            row(ALICE, FROM, FROM, "APPROVED"),
+            row(ALICE, TO, TO, "APPROVED")), FROM, TO);
+
+        assertEquals(DAYS, calendar.getDays());
+        TeamCalendarMemberDto alice = calendar.getMembers().get(0);
+        assertBits(alice.getApproved(), 0, 0, DAYS - 1, DAYS - 1);
+        assertBits(alice.getPending());
+    }
+
+    @Test
+    void clipsAbsencesToTheWindow() {
+        TeamCalendarDto calendar = TeamAvailabilityService.buildCalendar(List.of(
+            row(ALICE, FROM.minusDays(10), FROM.plusDays(2), "APPROVED"),
+            row(ALICE, TO.minusDays(3), TO.plusDays(20), "PENDING"),
+            row(BOB, FROM.minusYears(1), TO.plusYears(1), "APPROVED")), FROM, TO);
+
+        TeamCalendarMemberDto alice = calendar.getMembers().get(0);
+        assertBits(alice.getApproved(), 0, 2);
+        assertBits(alice.getPending(), DAYS - 4, DAYS - 1);
+        assertBits(calendar.getMembers().get(1).getApproved(), 0, DAYS - 1);
+    }
+
+    @Test
+    void setsRangesAcrossWordBoundaries() {
+        TeamCalendarDto calendar = TeamAvailabilityService.buildCalendar(List.of(
+            row(ALICE, FROM.plusDays(60), FROM.plusDays(70), "PENDING"),
+            row(ALICE, FROM.plusDays(63), FROM.plusDays(64), "APPROVED"),
+            row(ALICE, FROM.plusDays(120), FROM.plusDays(128), "APPROVED")), FROM, TO);
+
+        TeamCalendarMemberDto alice = calendar.getMembers().get(0);
+        assertBits(alice.getPending(), 60, 70);
+        assertBits(alice.getApproved(), 63, 64, 120, 128);
+    }
+
+    @Test
+    void membersWithoutAbsencesGetEmptyBitmaps() {
+        TeamCalendarDto calendar = TeamAvailabilityService.buildCalendar(List.of(
+            row(ALICE, null, null, null),
+            row(BOB, FROM.plusDays(5), FROM.plusDays(5), "PENDING")), FROM, TO);
+
+        assertEquals(2, calendar.getMembers().size());
+        TeamCalendarMemberDto alice = calendar.getMembers().get(0);
+        assertEquals(ALICE, alice.getUserId());
+        assertEquals((DAYS + 7) / 8, Base64.getDecoder().decode(alice.getApproved()).length);
+        assertBits(alice.getApproved());
+        assertBits(alice.getPending());
+        assertBits(calendar.getMembers().get(1).getPending(), 5, 5);
+    }
+
+    @Test
+    void acceptsAtMost366Days() {
+        AbsenceRequestRepository repository = mock(AbsenceRequestRepository.class);
+        SecurityUtil securityUtil = mock(SecurityUtil.class);
+        when(securityUtil.isCurrentUserManager()).thenReturn(true);
+        when(securityUtil.getCurrentUserId()).thenReturn(ALICE);
+        when(repository.findTeamCalendarRows(eq(ALICE), any(), any())).thenReturn(List.of(
+            row(BOB, FROM.minusDays(1), FROM.plusDays(400), "APPROVED")));
+        TeamAvailabilityService service = new TeamAvailabilityService(repository, securityUtil, 300000, 30);
+
+        TeamCalendarDto calendar = service.calendar(FROM, FROM.plusDays(365));
+        assertEquals(366, calendar.getDays());
+        assertBits(calendar.getMembers().get(0).getApproved(), 0, 365);
+
+        assertThrows(BadRequestException.class, () -> service.calendar(FROM, FROM.plusDays(366)));
+        assertThrows(BadRequestException.class, () -> service.calendar(FROM, FROM.minusDays(1)));
+    }
+
+    /**
+     * Checks the bitmap has exactly the bits of the given inclusive ranges set, including the padding bits of the
+     * last byte, which must stay clear.
+     */
+    private static void assertBits(String bitmap, int... ranges) {
+        byte[] bytes = Base64.getDecoder().decode(bitmap);
+        for (int day = 0; day < bytes.length * 8; day++) {
+            boolean expected = false;
+            for (int r = 0; r < ranges.length; r += 2) {
+                expected |= day >= ranges[r] && day <= ranges[r + 1];
+            }
+            boolean actual = (bytes[day >>> 3] & (1 << (day & 7))) != 0;
+            assertEquals(expected, actual, "day " + day);
+        }
+    }
+
+    private static AbsenceRequestRepository.TeamCalendarRow row(UUID userId, LocalDate start, LocalDate end, String status) {
+        return new Row(userId, start, end, status);
+    }
+
+    private record Row(UUID userId, LocalDate startDate, LocalDate endDate, String status)
+        implements AbsenceRequestRepository.TeamCalendarRow {
+        @Override
+        public UUID getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getFirstName() {
+            return userId.equals(ALICE) ? "Alice" : "Bob";
+        }
+
+        @Override
+        public String getLastName() {
+            return "Tester";
+        }
+
+        @Override
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        @Override
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+    }
+}
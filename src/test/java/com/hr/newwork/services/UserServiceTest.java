@@ -0,0 +1,55 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.PostgresIntegrationTest;
+import com.hr.newwork.data.entity.User;
+import com.hr.newwork.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UserServiceTest extends PostgresIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @WithMockUser(username = "user_admin@example.com")
+    void deleteUserRemovesTheirLeaveLedgerAndBalance() {
+        User user = new User();
+        user.setEmail("leaver-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("$2a$12$AYRhVJuA7marJk6IauOSn.dBvKMImxc1na9pOvmX.Ggx7i403ewtq");
+        user.setFirstName("Leaver");
+        user.setLastName("User");
+        user.setActive(true);
+        user.setHireDate(LocalDate.of(2024, 1, 1));
+        UUID id = userRepository.saveAndFlush(user).getId();
+        leaveBalanceService.accrue(LocalDate.now().getYear());
+        assertEquals(1, count("leave_ledger", id));
+        assertEquals(1, count("leave_balance", id));
+
+        userService.deleteUser(id.toString());
+
+        assertFalse(userRepository.existsById(id));
+        assertEquals(0, count("leave_ledger", id));
+        assertEquals(0, count("leave_balance", id));
+    }
+
+    private int count(String table, UUID userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Integer.class, userId);
+    }
+}
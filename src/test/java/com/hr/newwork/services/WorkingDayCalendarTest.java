@@ -0,0 +1,133 @@
+package com.hr.newwork.services;
+
+import com.hr.newwork.data.entity.PublicHoliday;
+import com.hr.newwork.repositories.PublicHolidayRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkingDayCalendarTest {
+    private static final List<DayOfWeek> WEEKEND = List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    private static final int YEAR = LocalDate.now().getYear();
+    /** A Monday inside the precomputed span. */
+    private static final LocalDate MONDAY = LocalDate.of(YEAR, 6, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+    private final PublicHolidayRepository holidays = mock(PublicHolidayRepository.class);
+
+    private WorkingDayCalendar calendar(List<DayOfWeek> weekend, LocalDate... holidayDates) {
+        List<PublicHoliday> rows = new ArrayList<>();
+        for (LocalDate date : holidayDates) {
+            PublicHoliday holiday = new PublicHoliday();
+            holiday.setHolidayDate(date);
+            holiday.setName("Holiday");
+            rows.add(holiday);
+        }
+        when(holidays.findAll()).thenReturn(rows);
+        return new WorkingDayCalendar(holidays, weekend, 1);
+    }
+
+    @Test
+    void weekendsAreNotWorkingDays() {
+        WorkingDayCalendar calendar = calendar(WEEKEND);
+        assertEquals(5, calendar.workingDays(MONDAY, MONDAY.plusDays(6)));
+        assertEquals(0, calendar.workingDays(MONDAY.plusDays(5), MONDAY.plusDays(6)));
+        assertEquals(10, calendar.workingDays(MONDAY, MONDAY.plusDays(13)));
+        assertFalse(calendar.isWorkingDay(MONDAY.plusDays(5)));
+        assertTrue(calendar.isWorkingDay(MONDAY));
+    }
+
+    @Test
+    void holidaysAreNotWorkingDaysAndWeekendHolidaysCountOnce() {
+        WorkingDayCalendar calendar = calendar(WEEKEND, MONDAY.plusDays(2), MONDAY.plusDays(5));
+        assertEquals(4, calendar.workingDays(MONDAY, MONDAY.plusDays(6)));
+        assertFalse(calendar.isWorkingDay(MONDAY.plusDays(2)));
+    }
+
+    @Test
+    void configuredWeekendIsUsed() {
+        WorkingDayCalendar calendar = calendar(List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+        assertTrue(calendar.isWorkingDay(MONDAY.plusDays(6)));
+        assertFalse(calendar.isWorkingDay(MONDAY.plusDays(4)));
+        assertEquals(5, calendar.workingDays(MONDAY, MONDAY.plusDays(6)));
+    }
+
+    @Test
+    void invertedRangeHasNoWorkingDays() {
+        WorkingDayCalendar calendar = calendar(WEEKEND);
+        assertEquals(0, calendar.workingDays(MONDAY.plusDays(1), MONDAY));
+        assertEquals(Map.of(), calendar.workingDaysByYear(MONDAY.plusDays(1), MONDAY));
+    }
+
+    @Test
+    void rangesCrossingNewYearAreSplitByYear() {
+        LocalDate newYear = LocalDate.of(YEAR + 1, 1, 1);
+        WorkingDayCalendar calendar = calendar(WEEKEND, newYear);
+        LocalDate start = LocalDate.of(YEAR, 12, 27);
+        LocalDate end = LocalDate.of(YEAR + 1, 1, 6);
+        Map<Integer, Integer> byYear = calendar.workingDaysByYear(start, end);
+        assertEquals(List.of(YEAR, YEAR + 1), new ArrayList<>(byYear.keySet()));
+        assertEquals(naiveCount(start, LocalDate.of(YEAR, 12, 31), Set.of(newYear)), byYear.get(YEAR));
+        assertEquals(naiveCount(newYear, end, Set.of(newYear)), byYear.get(YEAR + 1));
+        assertEquals(calendar.workingDays(start, end), byYear.get(YEAR) + byYear.get(YEAR + 1));
+    }
+
+    @Test
+    void yearsWithoutWorkingDaysAreOmitted() {
+        // New Year's Day on a working day made a holiday, so a range covering only it has none
+        LocalDate newYear = LocalDate.of(YEAR + 1, 1, 1);
+        WorkingDayCalendar calendar = calendar(WEEKEND, newYear);
+        LocalDate lastDay = LocalDate.of(YEAR, 12, 31);
+        Map<Integer, Integer> byYear = calendar.workingDaysByYear(lastDay, newYear);
+        assertFalse(byYear.containsKey(YEAR + 1));
+        assertEquals(calendar.isWorkingDay(lastDay) ? Map.of(YEAR, 1) : Map.of(), byYear);
+    }
+
+    @Test
+    void matchesADayByDayCountInsideAndOutsideThePrecomputedSpan() {
+        LocalDate holiday = MONDAY.plusDays(10);
+        LocalDate farHoliday = LocalDate.of(YEAR - 30, 3, 3);
+        WorkingDayCalendar calendar = calendar(WEEKEND, holiday, farHoliday);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 500; i++) {
+            // From 40 years back to 10 ahead, so ranges fall inside, outside and across the span of +-1 year
+            LocalDate start = LocalDate.of(YEAR - 40, 1, 1).plusDays(random.nextInt(0, 50 * 365));
+            LocalDate end = start.plusDays(random.nextInt(0, 800));
+            assertEquals(naiveCount(start, end, Set.of(holiday, farHoliday)), calendar.workingDays(start, end),
+                () -> start + ".." + end);
+        }
+    }
+
+    @Test
+    void reloadPicksUpNewHolidays() {
+        WorkingDayCalendar calendar = calendar(WEEKEND);
+        assertTrue(calendar.isWorkingDay(MONDAY));
+        PublicHoliday holiday = new PublicHoliday();
+        holiday.setHolidayDate(MONDAY);
+        when(holidays.findAll()).thenReturn(List.of(holiday));
+        calendar.reload();
+        assertFalse(calendar.isWorkingDay(MONDAY));
+        assertEquals(4, calendar.workingDays(MONDAY, MONDAY.plusDays(6)));
+    }
+
+    private static int naiveCount(LocalDate start, LocalDate end, Set<LocalDate> holidays) {
+        int count = 0;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(day)) count++;
+        }
+        return count;
+    }
+}
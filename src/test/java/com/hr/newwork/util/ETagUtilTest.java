@@ -0,0 +1,67 @@
+package com.hr.newwork.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagUtilTest {
+    /** A strong tag of 12 digest bytes: 16 base64url characters, quoted. */
+    private static final Pattern LIST_TAG = Pattern.compile("\"[A-Za-z0-9_-]{16}\"");
+
+    private record Row(UUID id, long version) {
+    }
+
+    private static final UUID A = UUID.fromString("0190f3a2-0000-7000-8000-00000000000a");
+    private static final UUID B = UUID.fromString("0190f3a2-0000-7000-8000-00000000000b");
+
+    private static String tag(Row... rows) {
+        return ETagUtil.ofList(List.of(rows), Row::id, Row::version);
+    }
+
+    @Test
+    void versionTagIsQuotedAndDotted() {
+        assertEquals("\"3\"", ETagUtil.of(3));
+        assertEquals("\"3.1\"", ETagUtil.of(3, 1));
+        assertEquals("\"\"", ETagUtil.of());
+    }
+
+    @Test
+    void listTagIsAStrongQuotedDigest() {
+        assertTrue(LIST_TAG.matcher(tag()).matches(), tag());
+        assertTrue(LIST_TAG.matcher(tag(new Row(A, 0), new Row(B, 4))).matches());
+        assertFalse(tag(new Row(A, 0)).startsWith("W/"));
+    }
+
+    @Test
+    void listTagIsStableForTheSameRows() {
+        assertEquals(tag(new Row(A, 1), new Row(B, 2)), tag(new Row(A, 1), new Row(B, 2)));
+    }
+
+    @Test
+    void listTagChangesWithAnyElement() {
+        String tag = tag(new Row(A, 1), new Row(B, 2));
+        assertNotEquals(tag, tag(new Row(A, 1), new Row(B, 3)), "version bump");
+        assertNotEquals(tag, tag(new Row(B, 2), new Row(A, 1)), "reordering");
+        assertNotEquals(tag, tag(new Row(A, 1)), "removal");
+        assertNotEquals(tag, tag(new Row(A, 1), new Row(B, 2), new Row(UuidV7.next(), 0)), "addition");
+        assertNotEquals(tag(), tag(new Row(A, 0)));
+    }
+
+    @Test
+    void ifMatchUsesStrongComparison() {
+        String tag = tag(new Row(A, 1));
+        assertTrue(ETagUtil.matches(tag, tag));
+        assertTrue(ETagUtil.matches("*", tag));
+        assertTrue(ETagUtil.matches("\"other\", " + tag, tag));
+        assertFalse(ETagUtil.matches("W/" + tag, tag), "weak tags never match If-Match");
+        assertFalse(ETagUtil.matches("\"other\"", tag));
+        assertFalse(ETagUtil.matches(tag(new Row(A, 2)), tag));
+    }
+}
@@ -0,0 +1,109 @@
+package com.hr.newwork.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private record Range(String name, int start, int end) {
+    }
+
+    private static IntervalTree<Range> tree(List<Range> ranges) {
+        return IntervalTree.of(ranges, Range::start, Range::end);
+    }
+
+    private static List<String> names(List<Range> ranges) {
+        return ranges.stream().map(Range::name).toList();
+    }
+
+    @Test
+    void emptyTreeHasNoOverlaps() {
+        IntervalTree<Range> tree = tree(List.of());
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.overlapping(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertFalse(tree.anyOverlapping(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void touchingRangesOverlapBecauseEndsAreInclusive() {
+        IntervalTree<Range> tree = tree(List.of(new Range("a", 10, 20)));
+        assertEquals(List.of("a"), names(tree.overlapping(20, 25)));
+        assertEquals(List.of("a"), names(tree.overlapping(5, 10)));
+        assertTrue(tree.anyOverlapping(20, 20));
+        assertFalse(tree.anyOverlapping(21, 25));
+        assertFalse(tree.anyOverlapping(5, 9));
+    }
+
+    @Test
+    void containingRangesOverlapEitherWay() {
+        IntervalTree<Range> tree = tree(List.of(new Range("long", 0, 100), new Range("short", 40, 42)));
+        // Query inside both
+        assertEquals(List.of("long", "short"), names(tree.overlapping(41, 41)));
+        // Query containing both
+        assertEquals(List.of("long", "short"), names(tree.overlapping(-5, 200)));
+        // Query inside the long range only
+        assertEquals(List.of("long"), names(tree.overlapping(50, 60)));
+        assertTrue(tree.anyOverlapping(50, 60));
+    }
+
+    @Test
+    void disjointRangesDoNotOverlap() {
+        IntervalTree<Range> tree = tree(List.of(new Range("a", 0, 9), new Range("b", 20, 29), new Range("c", 40, 49)));
+        assertEquals(List.of(), tree.overlapping(10, 19));
+        assertEquals(List.of(), tree.overlapping(30, 39));
+        assertFalse(tree.anyOverlapping(50, 60));
+        assertEquals(List.of("b"), names(tree.overlapping(25, 35)));
+        assertEquals(List.of("a", "b", "c"), names(tree.overlapping(5, 45)));
+    }
+
+    @Test
+    void invertedRangesAreIgnored() {
+        IntervalTree<Range> tree = tree(List.of(new Range("ok", 1, 1), new Range("inverted", 5, 4)));
+        assertEquals(1, tree.size());
+        assertFalse(tree.anyOverlapping(4, 5));
+    }
+
+    @Test
+    void rebuiltTreeReflectsInsertedAndRemovedRanges() {
+        // The tree is immutable; the availability cache rebuilds it from the current ranges
+        List<Range> ranges = new ArrayList<>(List.of(new Range("a", 0, 9), new Range("b", 20, 29)));
+        assertFalse(tree(ranges).anyOverlapping(12, 15));
+        ranges.add(new Range("inserted", 10, 15));
+        assertEquals(List.of("a", "inserted"), names(tree(ranges).overlapping(9, 12)));
+        ranges.removeIf(range -> range.name().equals("a"));
+        assertEquals(List.of("inserted"), names(tree(ranges).overlapping(0, 12)));
+        assertEquals(2, tree(ranges).size());
+    }
+
+    @Test
+    void matchesALinearScan() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 50; round++) {
+            List<Range> ranges = new ArrayList<>();
+            int n = random.nextInt(0, 200);
+            for (int i = 0; i < n; i++) {
+                int start = random.nextInt(0, 1000);
+                ranges.add(new Range("r" + i, start, start + random.nextInt(0, 60)));
+            }
+            IntervalTree<Range> tree = tree(ranges);
+            for (int q = 0; q < 100; q++) {
+                int from = random.nextInt(-20, 1080);
+                int to = from + random.nextInt(0, 40);
+                List<Range> expected = ranges.stream()
+                    .filter(range -> range.start() <= to && range.end() >= from)
+                    .sorted((x, y) -> Integer.compare(x.start(), y.start()))
+                    .toList();
+                List<Range> actual = tree.overlapping(from, to);
+                assertEquals(expected.size(), actual.size());
+                assertTrue(actual.containsAll(expected));
+                assertEquals(!expected.isEmpty(), tree.anyOverlapping(from, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hr.newwork.util;
+
+import com.hr.newwork.config.security.LoginThrottle;
+import com.hr.newwork.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowLimiterTest {
+    private static final long WINDOW_MS = 900_000;
+
+    @Test
+    void keyCountStaysBoundedOverAMillionDistinctKeys() throws Exception {
+        int maxKeys = 100_000;
+        int keys = 1_000_000;
+        int threads = 8;
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(5, WINDOW_MS, 1000, WINDOW_MS, 64, maxKeys);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                tasks.add(executor.submit(() -> {
+                    for (int n = first; n < keys; n += threads) {
+                        assertEquals(0, limiter.tryAcquire("user" + n + "@example.com", WINDOW_MS));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        int size = limiter.size();
+        assertTrue(size <= maxKeys, () -> "Limiter holds " + size + " keys, bound is " + maxKeys);
+        assertEquals(keys, size + limiter.evictions());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(2, WINDOW_MS, 1000, 8000, 1, 10);
+        long now = WINDOW_MS;
+        assertEquals(0, limiter.tryAcquire("key", now));
+        assertEquals(0, limiter.tryAcquire("key", now));
+        long[] expected = {1000, 2000, 4000, 8000, 8000};
+        for (long backoff : expected) {
+            assertEquals(backoff, limiter.tryAcquire("key", now));
+            // Attempts while blocked only report the remaining wait and add no strike
+            assertEquals(backoff / 2, limiter.tryAcquire("key", now + backoff / 2));
+            now += backoff;
+        }
+    }
+
+    @Test
+    void releaseGivesBackOneAttempt() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(2, WINDOW_MS, 1000, 8000, 1, 10);
+        long now = WINDOW_MS;
+        assertEquals(0, limiter.tryAcquire("key", now));
+        assertEquals(0, limiter.tryAcquire("key", now));
+        limiter.release("key", now);
+        assertEquals(0, limiter.tryAcquire("key", now));
+        assertEquals(1000, limiter.tryAcquire("key", now));
+    }
+
+    @Test
+    void successfulLoginReleasesTheIpSlot() {
+        // Long window so the test cannot straddle a window boundary
+        long window = 30L * 24 * 3_600_000;
+        LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), window, 100, 3, 1000, window, 1, 100);
+        for (int i = 0; i < 10; i++) {
+            throttle.checkAttempt("user" + i + "@example.com", "10.0.0.1");
+            throttle.onSuccess("user" + i + "@example.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAttempt("guess" + i + "@example.com", "10.0.0.1");
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.checkAttempt("guess3@example.com", "10.0.0.1"));
+        // Another address keeps its own budget
+        throttle.checkAttempt("guess3@example.com", "10.0.0.2");
+    }
+}
@@ -0,0 +1,95 @@
+package com.hr.newwork.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+    private static final int IDS = 10_000;
+
+    /** Unix milliseconds of the id's 48-bit timestamp field. */
+    private static long millis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    /** Byte order, as Postgres compares uuids; {@link UUID#compareTo} compares signed longs. */
+    private static int compareBytes(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @Test
+    void isVersion7WithTheIetfVariant() {
+        for (int i = 0; i < IDS; i++) {
+            UUID id = UuidV7.next();
+            assertEquals(7, id.version(), id::toString);
+            assertEquals(2, id.variant(), id::toString);
+        }
+    }
+
+    @Test
+    void timestampIsTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+        // Ids issued earlier in this JVM may have pushed the timestamp slightly ahead of the clock
+        assertTrue(millis(id) >= before && millis(id) <= after + 1000, () -> id + " at " + millis(id));
+    }
+
+    @Test
+    void increasesWithinTheSameMillisecond() {
+        List<UUID> ids = new ArrayList<>(IDS);
+        for (int i = 0; i < IDS; i++) {
+            ids.add(UuidV7.next());
+        }
+        int sameMillisecond = 0;
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertTrue(compareBytes(previous, current) < 0, () -> previous + " then " + current);
+            assertTrue(previous.toString().compareTo(current.toString()) < 0, () -> previous + " then " + current);
+            if (millis(previous) == millis(current)) sameMillisecond++;
+        }
+        // Far more ids than elapsed milliseconds, so many share one and are ordered by the counter alone
+        assertTrue(sameMillisecond > 0);
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(IDS);
+                    for (int i = 0; i < IDS; i++) ids.add(UuidV7.next());
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            Set<Long> stamps = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                for (UUID id : future.get()) {
+                    all.add(id);
+                    // Timestamp and counter come from one atomic, so they are unique even across threads
+                    stamps.add(id.getMostSignificantBits() & ~0xF000L);
+                }
+            }
+            assertEquals(threads * IDS, all.size());
+            assertEquals(threads * IDS, stamps.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
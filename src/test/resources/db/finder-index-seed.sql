@@ -0,0 +1,43 @@
+-- Deterministic dataset for FinderIndexTest: 21,000 users, 200,000 absence requests and 100,000 feedback rows.
+-- Runs inside the test transaction and is rolled back with it.
+
+-- Managers: 1,000 over 500 departments
+INSERT INTO users (id, email, password_hash, first_name, last_name, department, manager_id, is_active, hire_date)
+SELECT md5('explain-manager-' || n)::uuid, 'explain-manager-' || n || '@example.com', 'x',
+       'Manager' || n, 'Explain', 'Dept ' || (n % 500), NULL, true, DATE '2015-01-01' + n
+FROM generate_series(1, 1000) AS n;
+
+-- Employees: 20,000, 20 per manager and 40 per department, interleaved so no finder reads contiguous rows
+INSERT INTO users (id, email, password_hash, first_name, last_name, department, manager_id, is_active, hire_date)
+SELECT md5('explain-user-' || n)::uuid, 'explain-user-' || n || '@example.com', 'x',
+       'User' || n, 'Explain', 'Dept ' || (n % 500), md5('explain-manager-' || (1 + n % 1000))::uuid,
+       n % 50 <> 0, DATE '2018-01-01' + (n % 1500)
+FROM generate_series(1, 20000) AS n;
+
+INSERT INTO user_roles (user_id, role_id)
+SELECT md5('explain-manager-' || n)::uuid, r.id FROM generate_series(1, 1000) AS n, roles r WHERE r.name = 'MANAGER';
+INSERT INTO user_roles (user_id, role_id)
+SELECT md5('explain-user-' || n)::uuid, r.id FROM generate_series(1, 20000) AS n, roles r WHERE r.name = 'EMPLOYEE';
+INSERT INTO user_roles (user_id, role_id)
+SELECT md5('explain-user-' || n)::uuid, r.id FROM generate_series(1, 5) AS n, roles r WHERE r.name = 'ADMIN';
+
+-- Absences: 10 per employee, 30 days apart so they never overlap; one in ten pending, a quarter rejected
+INSERT INTO absence_requests (id, user_id, start_date, end_date, type, status, reason, created_at, updated_at)
+SELECT md5('explain-absence-' || n || '-' || k)::uuid, md5('explain-user-' || n)::uuid,
+       DATE '2022-01-01' + (k * 30 + n % 20), DATE '2022-01-01' + (k * 30 + n % 20 + n % 5),
+       CASE WHEN k % 3 = 0 THEN 'SICK' ELSE 'VACATION' END,
+       CASE WHEN k = 9 THEN 'PENDING' WHEN k % 4 = 0 THEN 'REJECTED' ELSE 'APPROVED' END,
+       'explain', TIMESTAMP '2022-01-01' + (k * 30 + n % 20) * INTERVAL '1 day', NULL
+FROM generate_series(1, 20000) AS n, generate_series(0, 9) AS k;
+
+-- Feedback: 5 written by each employee
+INSERT INTO feedback (id, author_id, target_user_id, content, created_at, visibility)
+SELECT md5('explain-feedback-' || n || '-' || k)::uuid, md5('explain-user-' || n)::uuid,
+       md5('explain-user-' || (1 + (n + k * 7) % 20000))::uuid, 'explain',
+       TIMESTAMP '2023-01-01' + (n % 365) * INTERVAL '1 day', 'PUBLIC'
+FROM generate_series(1, 20000) AS n, generate_series(1, 5) AS k;
+
+ANALYZE users;
+ANALYZE user_roles;
+ANALYZE absence_requests;
+ANALYZE feedback;